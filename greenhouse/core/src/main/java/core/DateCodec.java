@@ -0,0 +1,208 @@
+package core;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+/**
+ * The `DateCodec` class parses and formats the "yyyy-MM-dd HH:mm:ss" dates used in the
+ * greenhouse files, as milliseconds since the epoch in a given time zone.
+ * It is immutable and thread-safe, so one instance can be shared instead of creating
+ * a `SimpleDateFormat` for each date. Parsing is strict: the text must have exactly
+ * that layout, although single digit months, days and times are accepted, and each
+ * field must be in range.
+ */
+public final class DateCodec {
+  private static final DateCodec SYSTEM_DEFAULT = new DateCodec(ZoneId.systemDefault());
+
+  private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+  private static final char[] SEPARATORS = {'-', '-', ' ', ':', ':'};
+  private static final int[] MIN_DIGITS = {4, 1, 1, 1, 1, 1};
+  private static final int[] MAX_DIGITS = {4, 2, 2, 2, 2, 2};
+
+  private final ZoneRules rules;
+  private final boolean fixedOffset;
+  private final int offsetSeconds;
+
+  /**
+   * Constructs a codec for dates in the given time zone.
+   *
+   * @param zone The time zone of the dates.
+   */
+  public DateCodec(ZoneId zone) {
+    this.rules = zone.getRules();
+    this.fixedOffset = rules.isFixedOffset();
+    this.offsetSeconds = fixedOffset ? rules.getOffset(Instant.EPOCH).getTotalSeconds() : 0;
+  }
+
+  /**
+   * Returns the codec for the default time zone of the system, which is the time zone
+   * `SimpleDateFormat` uses.
+   *
+   * @return The shared codec for the default time zone.
+   */
+  public static DateCodec systemDefault() {
+    return SYSTEM_DEFAULT;
+  }
+
+  /**
+   * Parses a "yyyy-MM-dd HH:mm:ss" date.
+   *
+   * @param text The text to parse.
+   * @return The date, in milliseconds since the epoch.
+   * @throws IllegalArgumentException If the text is not a valid date with that layout.
+   */
+  public long parse(String text) {
+    if (text == null) {
+      throw new IllegalArgumentException("Missing date");
+    }
+    int[] fields = new int[6];
+    int field = 0;
+    int digits = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c >= '0' && c <= '9' && digits < MAX_DIGITS[field]) {
+        fields[field] = fields[field] * 10 + (c - '0');
+        digits++;
+      } else if (field < SEPARATORS.length && c == SEPARATORS[field]
+          && digits >= MIN_DIGITS[field]) {
+        field++;
+        digits = 0;
+      } else {
+        throw invalidDate(text, "unexpected '" + c + "' at index " + i);
+      }
+    }
+    if (field < SEPARATORS.length || digits < MIN_DIGITS[field]) {
+      throw invalidDate(text, "expected yyyy-MM-dd HH:mm:ss");
+    }
+    int year = fields[0];
+    int month = fields[1];
+    int day = fields[2];
+    if (month < 1 || month > 12) {
+      throw invalidDate(text, "month out of range");
+    }
+    if (day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+      throw invalidDate(text, "day out of range");
+    }
+    if (fields[3] > 23 || fields[4] > 59 || fields[5] > 59) {
+      throw invalidDate(text, "time out of range");
+    }
+    long localSecond = epochDay(year, month, day) * SECONDS_PER_DAY
+        + fields[3] * 3600 + fields[4] * 60 + fields[5];
+    int offset = fixedOffset ? offsetSeconds : rules.getOffset(
+        LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC)).getTotalSeconds();
+    return (localSecond - offset) * 1000;
+  }
+
+  /**
+   * Formats a date as "yyyy-MM-dd HH:mm:ss".
+   *
+   * @param time The date, in milliseconds since the epoch.
+   * @return The formatted date.
+   */
+  public String format(long time) {
+    long localSecond = toLocalSecond(time);
+    int secondOfDay = (int) Math.floorMod(localSecond, (long) SECONDS_PER_DAY);
+    char[] chars = new char[19];
+    writeDate(Math.floorDiv(localSecond, SECONDS_PER_DAY), chars);
+    chars[10] = ' ';
+    writeTwoDigits(secondOfDay / 3600, chars, 11);
+    chars[13] = ':';
+    writeTwoDigits(secondOfDay / 60 % 60, chars, 14);
+    chars[16] = ':';
+    writeTwoDigits(secondOfDay % 60, chars, 17);
+    return new String(chars);
+  }
+
+  /**
+   * Formats the day of a date as "dd-MM-yyyy", as shown to the user.
+   *
+   * @param time The date, in milliseconds since the epoch.
+   * @return The formatted day.
+   */
+  public String formatDay(long time) {
+    char[] chars = new char[19];
+    writeDate(Math.floorDiv(toLocalSecond(time), SECONDS_PER_DAY), chars);
+    return new String(new char[] {chars[8], chars[9], '-', chars[5], chars[6], '-',
+        chars[0], chars[1], chars[2], chars[3]});
+  }
+
+  /**
+   * Converts a time to seconds since the epoch in the local time of this codec.
+   *
+   * @param time The time, in milliseconds since the epoch.
+   * @return The local time, in seconds since the epoch.
+   */
+  private long toLocalSecond(long time) {
+    int offset = fixedOffset ? offsetSeconds
+        : rules.getOffset(Instant.ofEpochMilli(time)).getTotalSeconds();
+    return Math.floorDiv(time, 1000) + offset;
+  }
+
+  /**
+   * Calculates the number of days from 1970-01-01 to a date in the proleptic Gregorian calendar.
+   *
+   * @param year  The year.
+   * @param month The month, from 1 to 12.
+   * @param day   The day of the month.
+   * @return The epoch day of the date.
+   */
+  private static long epochDay(int year, int month, int day) {
+    long y = month <= 2 ? year - 1 : year;
+    long era = Math.floorDiv(y, 400);
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * Writes the date of an epoch day as "yyyy-MM-dd" at the start of the given chars.
+   *
+   * @param epochDay The number of days since 1970-01-01.
+   * @param chars    The chars to write to.
+   */
+  private static void writeDate(long epochDay, char[] chars) {
+    long z = epochDay + 719468;
+    long era = Math.floorDiv(z, 146097);
+    long dayOfEra = z - era * 146097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long monthIndex = (5 * dayOfYear + 2) / 153;
+    int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+    int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+    int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+    writeTwoDigits(year / 100, chars, 0);
+    writeTwoDigits(year % 100, chars, 2);
+    chars[4] = '-';
+    writeTwoDigits(month, chars, 5);
+    chars[7] = '-';
+    writeTwoDigits(day, chars, 8);
+  }
+
+  /**
+   * Writes a number from 0 to 99 as two digits.
+   *
+   * @param value  The number to write.
+   * @param chars  The chars to write to.
+   * @param offset The index of the first digit.
+   */
+  private static void writeTwoDigits(int value, char[] chars, int offset) {
+    chars[offset] = (char) ('0' + value / 10);
+    chars[offset + 1] = (char) ('0' + value % 10);
+  }
+
+  /**
+   * Creates the exception thrown for text that is not a valid date.
+   *
+   * @param text   The text that could not be parsed.
+   * @param reason Why the text is not a valid date.
+   * @return The exception to throw.
+   */
+  private static IllegalArgumentException invalidDate(String text, String reason) {
+    return new IllegalArgumentException("Invalid date '" + text + "': " + reason);
+  }
+}
@@ -0,0 +1,481 @@
+package core;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The `ImmutablePlantOverview` class is a version of a plant overview that never changes.
+ * Adding, replacing or removing a plant returns a new version in O(log n) time, which
+ * shares everything but the changed path of its persistent maps with the old version, so
+ * old versions stay valid and keeping them, for undo or for readers on other threads,
+ * costs next to nothing. The plants are kept in insertion order, and indexed by name.
+ *
+ * <p>Every version has a number, which is one higher than that of the version it was made
+ * from, and every plant has the number of the version it was last added or replaced in.
+ * Comparing these numbers tells if a plant or the whole overview has changed.</p>
+ *
+ * <p>The plants of an ImmutablePlantOverview are read-only. To edit a plant, edit a copy of
+ * it and replace the plant with the copy, which keeps its place in the insertion order.</p>
+ *
+ * <p>The plants are also indexed by when they next need water, so that a page of a
+ * PlantQuery in any of its orders is found without visiting the plants before it.</p>
+ */
+public final class ImmutablePlantOverview implements Iterable<Plant> {
+
+  private static final ImmutablePlantOverview EMPTY = new ImmutablePlantOverview(
+      PersistentTreeMap.empty(Comparator.naturalOrder()),
+      PersistentTreeMap.empty(Comparator.naturalOrder()),
+      PersistentTreeMap.empty(Comparator.naturalOrder()), 0, 0);
+
+  private final PersistentTreeMap<Long, Plant> plantsByPosition;
+  private final PersistentTreeMap<String, Slot> plantsByName;
+  private final PersistentTreeMap<WateringKey, Plant> plantsByWateringTime;
+  private final long nextPosition;
+  private final long version;
+  private volatile PlantOverview view;
+
+  /**
+   * A plant and its place in the insertion order, so that a plant can be found by its name
+   * with one lookup.
+   */
+  private static final class Slot {
+    private final long position;
+    private final Plant plant;
+
+    private Slot(long position, Plant plant) {
+      this.position = position;
+      this.plant = plant;
+    }
+  }
+
+  /**
+   * The key of a plant in the index by watering time: when it next needs water, and its
+   * name, which tells plants that need water at the same time apart.
+   */
+  private static final class WateringKey implements Comparable<WateringKey> {
+    private final long time;
+    private final String name;
+
+    private WateringKey(long time, String name) {
+      this.time = time;
+      this.name = name;
+    }
+
+    private static WateringKey of(Plant plant) {
+      return new WateringKey(plant.getNextWateringTime(), plant.getName());
+    }
+
+    @Override
+    public int compareTo(WateringKey other) {
+      int c = Long.compare(time, other.time);
+      return c != 0 ? c : name.compareTo(other.name);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof WateringKey && compareTo((WateringKey) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(time) * 31 + name.hashCode();
+    }
+  }
+
+  private ImmutablePlantOverview(PersistentTreeMap<Long, Plant> plantsByPosition,
+      PersistentTreeMap<String, Slot> plantsByName,
+      PersistentTreeMap<WateringKey, Plant> plantsByWateringTime, long nextPosition,
+      long version) {
+    this.plantsByPosition = plantsByPosition;
+    this.plantsByName = plantsByName;
+    this.plantsByWateringTime = plantsByWateringTime;
+    this.nextPosition = nextPosition;
+    this.version = version;
+  }
+
+  /**
+   * Returns the empty overview.
+   *
+   * @return an overview without plants
+   */
+  public static ImmutablePlantOverview empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates an immutable overview with read-only copies of the plants of a PlantOverview,
+   * in the same order. Its maps are built in O(n log n) time, instead of adding the plants
+   * one at a time. The plants keep their versions, and the version of the immutable overview
+   * is that of the PlantOverview, or that of its newest plant if it is newer.
+   *
+   * @param overview the overview to copy
+   * @return an immutable overview with the same plants
+   */
+  public static ImmutablePlantOverview of(PlantOverview overview) {
+    long version = overview.getVersion();
+    for (Plant plant : overview.getPlantOverview()) {
+      version = Math.max(version, plant.getVersion());
+    }
+    ImmutablePlantOverview result = of(overview, version, false);
+    if (overview.isReadOnly() && overview.getVersion() == version) {
+      result.view = overview;
+    }
+    return result;
+  }
+
+  /**
+   * Creates an immutable overview with read-only copies of the plants of a PlantOverview,
+   * which all get the given version, like when the plants of one version are replaced.
+   *
+   * @param overview the overview to copy
+   * @param version the version of the new overview and its plants
+   * @return an immutable overview with the same plants
+   */
+  public static ImmutablePlantOverview of(PlantOverview overview, long version) {
+    return of(overview, version, true);
+  }
+
+  private static ImmutablePlantOverview of(PlantOverview overview, long version,
+      boolean stampPlants) {
+    List<Map.Entry<Long, Plant>> byPosition = new ArrayList<>();
+    List<Map.Entry<String, Slot>> byName = new ArrayList<>();
+    List<Map.Entry<WateringKey, Plant>> byWateringTime = new ArrayList<>();
+    for (Plant plant : overview.getPlantOverview()) {
+      long position = byPosition.size();
+      Plant kept = stampPlants ? plant.readOnlyCopy(version) : readOnly(plant);
+      byPosition.add(new SimpleImmutableEntry<>(position, kept));
+      byName.add(new SimpleImmutableEntry<>(plant.getName(), new Slot(position, kept)));
+      byWateringTime.add(new SimpleImmutableEntry<>(WateringKey.of(kept), kept));
+    }
+    byName.sort(Map.Entry.comparingByKey());
+    byWateringTime.sort(Map.Entry.comparingByKey());
+    return new ImmutablePlantOverview(
+        PersistentTreeMap.fromSorted(Comparator.naturalOrder(), byPosition),
+        PersistentTreeMap.fromSorted(Comparator.naturalOrder(), byName),
+        PersistentTreeMap.fromSorted(Comparator.naturalOrder(), byWateringTime),
+        byPosition.size(), version);
+  }
+
+  /**
+   * Returns a read-only version of a plant.
+   *
+   * @param plant the plant
+   * @return the plant if it is read-only, or a read-only copy of it
+   */
+  private static Plant readOnly(Plant plant) {
+    return plant.isReadOnly() ? plant : plant.readOnlyCopy();
+  }
+
+  /**
+   * Returns the number of this version.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the number of plants.
+   *
+   * @return the number of plants
+   */
+  public int size() {
+    return plantsByPosition.size();
+  }
+
+  /**
+   * Checks if the overview has no plants.
+   *
+   * @return true if the overview has no plants, false otherwise
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Retrieves a plant by its name, in O(log n) time.
+   *
+   * @param name The name of the plant to search for.
+   * @return The read-only plant with the specified name, or null if not found.
+   */
+  public Plant getPlantByName(String name) {
+    if (name == null) {
+      return null;
+    }
+    Slot slot = plantsByName.get(name);
+    return slot == null ? null : slot.plant;
+  }
+
+  /**
+   * Returns a version of the overview with a plant added, or with the plant of the same name
+   * replaced by it. A replaced plant keeps its place in the insertion order. A read-only copy
+   * of the plant is kept, with the version of the new overview.
+   *
+   * @param plant the plant to add or replace
+   * @return the new version of the overview
+   * @throws IllegalArgumentException if the plant lacks a name or phase
+   */
+  public ImmutablePlantOverview withPlant(Plant plant) {
+    PlantOverview.checkRequiredFields(plant);
+    Plant kept = plant.readOnlyCopy(version + 1);
+    Slot slot = plantsByName.get(plant.getName());
+    long position = slot == null ? nextPosition : slot.position;
+    PersistentTreeMap<WateringKey, Plant> byWateringTime = slot == null
+        ? plantsByWateringTime : plantsByWateringTime.remove(WateringKey.of(slot.plant));
+    return new ImmutablePlantOverview(plantsByPosition.put(position, kept),
+        plantsByName.put(plant.getName(), new Slot(position, kept)),
+        byWateringTime.put(WateringKey.of(kept), kept),
+        slot == null ? nextPosition + 1 : nextPosition, version + 1);
+  }
+
+  /**
+   * Returns a version of the overview without a plant.
+   *
+   * @param name the name of the plant to remove
+   * @return the new version of the overview, or this one if there is no plant with the name
+   */
+  public ImmutablePlantOverview withoutPlant(String name) {
+    Slot slot = name == null ? null : plantsByName.get(name);
+    if (slot == null) {
+      return this;
+    }
+    return new ImmutablePlantOverview(plantsByPosition.remove(slot.position),
+        plantsByName.remove(name), plantsByWateringTime.remove(WateringKey.of(slot.plant)),
+        nextPosition, version + 1);
+  }
+
+  /**
+   * Returns the plants in insertion order.
+   *
+   * @return a new list of the plants
+   */
+  public List<Plant> getPlantOverview() {
+    List<Plant> plants = new ArrayList<>(size());
+    for (Plant plant : this) {
+      plants.add(plant);
+    }
+    return plants;
+  }
+
+  /**
+   * Returns the plants that fulfill a predicate, in insertion order.
+   *
+   * @param predicate the predicate to filter by
+   * @return a new list of the plants that fulfill the predicate
+   */
+  public List<Plant> getPlantsByPredicate(Predicate<Plant> predicate) {
+    List<Plant> plants = new ArrayList<>();
+    for (Plant plant : this) {
+      if (predicate.test(plant)) {
+        plants.add(plant);
+      }
+    }
+    return plants;
+  }
+
+  /**
+   * Returns the plants that need water at a given time, the plant that has needed it the
+   * longest first. Only the plants that need water are visited.
+   *
+   * @param now the time, in milliseconds since the epoch
+   * @return a list of the read-only plants that need water
+   */
+  public List<Plant> getPlantsThatNeedWater(long now) {
+    List<Plant> result = new ArrayList<>();
+    for (Map.Entry<WateringKey, Plant> entry : plantsByWateringTime) {
+      if (!entry.getValue().needsWater(now)) {
+        break;
+      }
+      result.add(entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Finds a page of plants. The page is found in the index of the order of the query, from
+   * where the previous page ended, and the plants in the index are then checked against the
+   * filters of the query. A name prefix in name order, and needing water or not in watering
+   * order, are ranges of their indexes, so only the plants in the range are visited.
+   *
+   * @param query the query
+   * @param now the time to check if plants need water at
+   * @return the page, with the cursor of the next page if there are more plants
+   * @throws IllegalArgumentException if the cursor of the query is not from a query with the
+   *     same order
+   */
+  public PlantPage query(PlantQuery query, long now) {
+    Iterator<Plant> candidates;
+    Predicate<Plant> inRange = plant -> true;
+    String prefix = query.getNamePrefix();
+    switch (query.getSort()) {
+      case NAME:
+        candidates = byNameFrom(query);
+        if (prefix != null) {
+          inRange = plant -> plant.getName().startsWith(prefix);
+        }
+        break;
+      case NEXT_WATERING:
+        candidates = byWateringTimeFrom(query, now);
+        if (query.getWatering() == PlantQuery.Watering.NEEDS_WATER) {
+          inRange = plant -> plant.needsWater(now);
+        }
+        break;
+      default:
+        candidates = byPositionFrom(query);
+        break;
+    }
+    List<Plant> page = new ArrayList<>();
+    while (candidates.hasNext()) {
+      Plant plant = candidates.next();
+      if (!inRange.test(plant)) {
+        break;
+      }
+      if (!query.matches(plant, now)) {
+        continue;
+      }
+      if (page.size() == query.getLimit()) {
+        return new PlantPage(version, page, cursorOf(query.getSort(), page.get(page.size() - 1)));
+      }
+      page.add(plant);
+    }
+    return new PlantPage(version, page, null);
+  }
+
+  private Iterator<Plant> byPositionFrom(PlantQuery query) {
+    String after = cursorValue(query, "i");
+    if (after == null) {
+      return iterator();
+    }
+    try {
+      return values(plantsByPosition.iteratorFrom(Long.parseLong(after), false),
+          Function.identity());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid cursor " + query.getCursor());
+    }
+  }
+
+  private Iterator<Plant> byNameFrom(PlantQuery query) {
+    String from = query.getNamePrefix();
+    boolean inclusive = true;
+    String after = cursorValue(query, "n");
+    if (after != null && (from == null || after.compareTo(from) >= 0)) {
+      from = after;
+      inclusive = false;
+    }
+    Iterator<Map.Entry<String, Slot>> slots = from == null ? plantsByName.iterator()
+        : plantsByName.iteratorFrom(from, inclusive);
+    return values(slots, slot -> slot.plant);
+  }
+
+  private Iterator<Plant> byWateringTimeFrom(PlantQuery query, long now) {
+    WateringKey from = null;
+    boolean inclusive = true;
+    if (query.getWatering() == PlantQuery.Watering.HYDRATED) {
+      // Plants that don't need water need it after now, and every name comes after ""
+      from = new WateringKey(now + 1, "");
+    }
+    String after = cursorValue(query, "w");
+    if (after != null) {
+      int separator = after.indexOf(':');
+      WateringKey afterKey;
+      try {
+        afterKey = new WateringKey(Long.parseLong(after.substring(0, Math.max(separator, 0))),
+            after.substring(separator + 1));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid cursor " + query.getCursor());
+      }
+      if (from == null || afterKey.compareTo(from) >= 0) {
+        from = afterKey;
+        inclusive = false;
+      }
+    }
+    return values(from == null ? plantsByWateringTime.iterator()
+        : plantsByWateringTime.iteratorFrom(from, inclusive), Function.identity());
+  }
+
+  /**
+   * Returns what a cursor holds, after the letter of the order it is from.
+   *
+   * @param query the query with the cursor
+   * @param sortLetter the letter of the order of the query
+   * @return what the cursor holds, or null if the query has no cursor
+   * @throws IllegalArgumentException if the cursor is from another order
+   */
+  private static String cursorValue(PlantQuery query, String sortLetter) {
+    String cursor = query.getCursor();
+    if (cursor == null) {
+      return null;
+    }
+    if (!cursor.startsWith(sortLetter + ":")) {
+      throw new IllegalArgumentException("The cursor " + cursor
+          + " is not from a query in the same order");
+    }
+    return cursor.substring(2);
+  }
+
+  /**
+   * Returns the cursor of the page that ends with a plant: a letter for the order, and the
+   * key of the plant in the index of the order.
+   */
+  private String cursorOf(PlantQuery.Sort sort, Plant last) {
+    switch (sort) {
+      case NAME:
+        return "n:" + last.getName();
+      case NEXT_WATERING:
+        return "w:" + last.getNextWateringTime() + ":" + last.getName();
+      default:
+        return "i:" + plantsByName.get(last.getName()).position;
+    }
+  }
+
+  private static <K, V> Iterator<Plant> values(Iterator<Map.Entry<K, V>> entries,
+      Function<V, Plant> plantOf) {
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return entries.hasNext();
+      }
+
+      @Override
+      public Plant next() {
+        return plantOf.apply(entries.next().getValue());
+      }
+    };
+  }
+
+  /**
+   * Iterates over the plants in insertion order, without copying them.
+   *
+   * @return an iterator over the plants
+   */
+  @Override
+  public Iterator<Plant> iterator() {
+    return values(plantsByPosition.iterator(), Function.identity());
+  }
+
+  /**
+   * Returns this version as a read-only PlantOverview, for code that needs the indexes of
+   * a PlantOverview, like filtering on phases and watering times. The PlantOverview shares
+   * the plants of this version, but builds its indexes anew, so code that only reads or
+   * serializes the plants should use this version directly. The PlantOverview is created the
+   * first time it is asked for, and is then kept along with this version.
+   *
+   * @return a read-only PlantOverview with the plants of this version
+   */
+  public PlantOverview toPlantOverview() {
+    PlantOverview result = view;
+    if (result == null) {
+      // Two threads may both create it, but they create equal overviews
+      result = PlantOverview.readOnlyCopyOf(this, version);
+      view = result;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,325 @@
+package core;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A sorted map that never changes. `put` and `remove` return a new map instead, which shares
+ * all but the O(log n) nodes on the path to the changed key with the old one, so old
+ * versions stay valid and cost little memory. The map is an AVL tree, so lookups, puts and
+ * removes take O(log n) time, and iterating over it visits the keys in sorted order.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentTreeMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+  private final Comparator<? super K> comparator;
+  private final Node<K, V> root;
+  private final int size;
+
+  private PersistentTreeMap(Comparator<? super K> comparator, Node<K, V> root, int size) {
+    this.comparator = comparator;
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns an empty map.
+   *
+   * @param comparator the order of the keys
+   * @return an empty map sorted by the comparator
+   */
+  static <K, V> PersistentTreeMap<K, V> empty(Comparator<? super K> comparator) {
+    return new PersistentTreeMap<>(comparator, null, 0);
+  }
+
+  /**
+   * Builds a map from entries that are already sorted by the comparator, without duplicate
+   * keys. The tree is built in linear time, instead of putting the entries one at a time.
+   *
+   * @param comparator the order of the keys
+   * @param entries the entries, sorted by their keys
+   * @return a map with the entries
+   */
+  static <K, V> PersistentTreeMap<K, V> fromSorted(Comparator<? super K> comparator,
+      List<? extends Map.Entry<K, V>> entries) {
+    return new PersistentTreeMap<>(comparator, build(entries, 0, entries.size()),
+        entries.size());
+  }
+
+  private static <K, V> Node<K, V> build(List<? extends Map.Entry<K, V>> entries, int from,
+      int to) {
+    if (from >= to) {
+      return null;
+    }
+    int middle = (from + to) >>> 1;
+    Map.Entry<K, V> entry = entries.get(middle);
+    return new Node<>(entry.getKey(), entry.getValue(), build(entries, from, middle),
+        build(entries, middle + 1, to));
+  }
+
+  /**
+   * Returns the value of a key.
+   *
+   * @param key the key to look up
+   * @return the value of the key, or null if the map does not contain it
+   */
+  V get(K key) {
+    Node<K, V> node = root;
+    while (node != null) {
+      int c = comparator.compare(key, node.key);
+      if (c == 0) {
+        return node.value;
+      }
+      node = c < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the map contains a key.
+   *
+   * @param key the key to look for
+   * @return true if the map contains the key, false otherwise
+   */
+  boolean containsKey(K key) {
+    Node<K, V> node = root;
+    while (node != null) {
+      int c = comparator.compare(key, node.key);
+      if (c == 0) {
+        return true;
+      }
+      node = c < 0 ? node.left : node.right;
+    }
+    return false;
+  }
+
+  /**
+   * Returns a map where a key has the given value.
+   *
+   * @param key the key
+   * @param value the new value of the key
+   * @return a new map with the key set to the value
+   */
+  PersistentTreeMap<K, V> put(K key, V value) {
+    int newSize = containsKey(key) ? size : size + 1;
+    return new PersistentTreeMap<>(comparator, put(root, key, value), newSize);
+  }
+
+  private Node<K, V> put(Node<K, V> node, K key, V value) {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+    int c = comparator.compare(key, node.key);
+    if (c < 0) {
+      return balance(node.key, node.value, put(node.left, key, value), node.right);
+    } else if (c > 0) {
+      return balance(node.key, node.value, node.left, put(node.right, key, value));
+    }
+    return new Node<>(key, value, node.left, node.right);
+  }
+
+  /**
+   * Returns a map without a key.
+   *
+   * @param key the key to remove
+   * @return a new map without the key, or this map if it does not contain the key
+   */
+  PersistentTreeMap<K, V> remove(K key) {
+    if (!containsKey(key)) {
+      return this;
+    }
+    return new PersistentTreeMap<>(comparator, remove(root, key), size - 1);
+  }
+
+  private Node<K, V> remove(Node<K, V> node, K key) {
+    int c = comparator.compare(key, node.key);
+    if (c < 0) {
+      return balance(node.key, node.value, remove(node.left, key), node.right);
+    } else if (c > 0) {
+      return balance(node.key, node.value, node.left, remove(node.right, key));
+    }
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    Node<K, V> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+  }
+
+  private static <K, V> Node<K, V> removeFirst(Node<K, V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node.key, node.value, removeFirst(node.left), node.right);
+  }
+
+  /**
+   * Creates a node from subtrees whose heights differ by at most two, rotating it if they
+   * differ by two, so that the heights of the subtrees of every node differ by at most one.
+   */
+  private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left,
+      Node<K, V> right) {
+    int leftHeight = height(left);
+    int rightHeight = height(right);
+    if (leftHeight > rightHeight + 1) {
+      if (height(left.left) >= height(left.right)) {
+        return new Node<>(left.key, left.value, left.left,
+            new Node<>(key, value, left.right, right));
+      }
+      Node<K, V> middle = left.right;
+      return new Node<>(middle.key, middle.value,
+          new Node<>(left.key, left.value, left.left, middle.left),
+          new Node<>(key, value, middle.right, right));
+    }
+    if (rightHeight > leftHeight + 1) {
+      if (height(right.right) >= height(right.left)) {
+        return new Node<>(right.key, right.value,
+            new Node<>(key, value, left, right.left), right.right);
+      }
+      Node<K, V> middle = right.left;
+      return new Node<>(middle.key, middle.value,
+          new Node<>(key, value, left, middle.left),
+          new Node<>(right.key, right.value, middle.right, right.right));
+    }
+    return new Node<>(key, value, left, right);
+  }
+
+  private static int height(Node<?, ?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  /**
+   * Returns the number of keys in the map.
+   *
+   * @return the number of keys
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the height of the tree, which is at most about 1.44 log2(n).
+   *
+   * @return the height of the tree
+   */
+  int treeHeight() {
+    return height(root);
+  }
+
+  /**
+   * Iterates over the entries in the order of their keys.
+   *
+   * @return an iterator over the entries
+   */
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    return new EntryIterator(root);
+  }
+
+  /**
+   * Iterates over the entries in the order of their keys, starting at a key. Finding where
+   * to start takes O(log n) time, so a page of a large map can be read without visiting the
+   * entries before it.
+   *
+   * @param from the key to start at
+   * @param inclusive whether to include the entry of `from`, if the map contains it
+   * @return an iterator over the entries with keys after `from`, or equal to it if inclusive
+   */
+  Iterator<Map.Entry<K, V>> iteratorFrom(K from, boolean inclusive) {
+    EntryIterator iterator = new EntryIterator(null);
+    Node<K, V> node = root;
+    while (node != null) {
+      int c = comparator.compare(from, node.key);
+      if (c < 0 || c == 0 && inclusive) {
+        iterator.path.push(node);
+        node = c == 0 ? null : node.left;
+      } else {
+        node = node.right;
+      }
+    }
+    return iterator;
+  }
+
+  /**
+   * Iterates over the entries in order, keeping the path to the next entry on a stack.
+   */
+  private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+    private final Deque<Node<K, V>> path = new ArrayDeque<>();
+
+    private EntryIterator(Node<K, V> start) {
+      pushLeft(start);
+    }
+
+    private void pushLeft(Node<K, V> node) {
+      for (; node != null; node = node.left) {
+        path.push(node);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !path.isEmpty();
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (path.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      Node<K, V> node = path.pop();
+      pushLeft(node.right);
+      return node;
+    }
+  }
+
+  /**
+   * A node of the tree, which is also the entry of its key.
+   */
+  private static final class Node<K, V> implements Map.Entry<K, V> {
+    private final K key;
+    private final V value;
+    private final Node<K, V> left;
+    private final Node<K, V> right;
+    private final int height;
+
+    private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException("The map can't be changed");
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+}
@@ -1,20 +1,24 @@
 package core;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
 
 /**
  * The `Plant` class represents a plant with various attributes such as 
  * name, growth phase, water interval, creation date, and last watered date.
+ * The dates are stored as milliseconds since the epoch, and the `Date` methods
+ * are adapters around them.
  */
 public class Plant {
+  private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
   private String name;
   private String phase;
+  private PlantPhase plantPhase;
   private int waterInterval;
-  private Date creationDate;
-  private Date lastWatered;
+  private long creationTime;
+  private long lastWateredTime;
+  private long version;
+  private boolean readOnly;
   
   /**
    * Constructs a new `Plant` object with the given attributes.
@@ -26,11 +30,26 @@ public class Plant {
    * @param lastWatered   The date when the plant was last watered
    */
   public Plant(String name, String phase, int waterInterval, Date creationDate, Date lastWatered) {
+    this(name, phase, waterInterval, creationDate.getTime(), lastWatered.getTime());
+  }
+
+  /**
+   * Constructs a new `Plant` object with the given attributes, with the dates given
+   * in milliseconds since the epoch.
+   *
+   * @param name            The name of the plant.
+   * @param phase           The growth phase of the plant.
+   * @param waterInterval   The number of days between watering.
+   * @param creationTime    The time when the plant was created.
+   * @param lastWateredTime The time when the plant was last watered
+   */
+  public Plant(String name, String phase, int waterInterval, long creationTime,
+      long lastWateredTime) {
     this.name = name;
-    this.phase = phase;
+    setPhaseFields(phase);
     this.waterInterval = waterInterval;
-    this.creationDate = new Date(creationDate.getTime());
-    this.lastWatered = new Date(lastWatered.getTime());
+    this.creationTime = creationTime;
+    this.lastWateredTime = lastWateredTime;
   }
 
   /**
@@ -54,7 +73,7 @@ public class Plant {
    * @param waterInterval The number of days between watering.
    */
   public Plant(String name, String phase, int waterInterval) {
-    this(name, phase, waterInterval, new Date());
+    this(name, phase, waterInterval, System.currentTimeMillis(), System.currentTimeMillis());
   }
 
   /**
@@ -65,7 +84,7 @@ public class Plant {
    */
   public Plant(Plant selectedPlant) {
     this(selectedPlant.getName(), selectedPlant.getPhase(), selectedPlant.getWaterInterval(),
-        selectedPlant.getCreationDate());
+        selectedPlant.getCreationTime(), selectedPlant.getCreationTime());
   }
 
   /**
@@ -83,6 +102,7 @@ public class Plant {
    * @param newName The new name to set for the plant.
    */
   public void setName(String newName) {
+    checkWritable();
     this.name = newName;
   }
 
@@ -101,7 +121,28 @@ public class Plant {
    * @param newPhase The new growth phase to set for the plant.
    */
   public void setPhase(String newPhase) {
-    this.phase = newPhase;
+    checkWritable();
+    setPhaseFields(newPhase);
+  }
+
+  /**
+   * Retrieves the growth phase of the plant as a `PlantPhase`.
+   *
+   * @return The growth phase of the plant, or null if the phase is not one of the known phases.
+   */
+  public PlantPhase getPlantPhase() {
+    return this.plantPhase;
+  }
+
+  /**
+   * Sets both the phase string and the typed phase. Known phases share the display name
+   * of their `PlantPhase`, instead of each plant holding its own copy of the string.
+   *
+   * @param newPhase The new growth phase.
+   */
+  private void setPhaseFields(String newPhase) {
+    this.plantPhase = PlantPhase.fromString(newPhase);
+    this.phase = plantPhase != null ? plantPhase.toString() : newPhase;
   }
 
   /**
@@ -119,6 +160,7 @@ public class Plant {
    * @param newWaterInterval The new water interval to set for the plant.
    */
   public void setWaterInterval(int newWaterInterval) {
+    checkWritable();
     this.waterInterval = newWaterInterval;
   }
 
@@ -128,12 +170,36 @@ public class Plant {
    * @return The creation date of the plant as a `Date` object.
    */
   public Date getCreationDate() {
-    return new Date(this.creationDate.getTime());
+    return new Date(this.creationTime);
   }
 
-  
+  /**
+   * Retrieves the creation date of the plant, without allocating a `Date`.
+   *
+   * @return The creation date of the plant, in milliseconds since the epoch.
+   */
+  public long getCreationTime() {
+    return this.creationTime;
+  }
+
+  /**
+   * Sets the creation date of the plant.
+   *
+   * @param newCreationDate The new creation date.
+   */
   public void setCreationDate(Date newCreationDate) {
-    this.creationDate = new Date(this.creationDate.getTime());
+    checkWritable();
+    this.creationTime = newCreationDate.getTime();
+  }
+
+  /**
+   * Sets the creation date of the plant.
+   *
+   * @param newTime The new creation date, in milliseconds since the epoch.
+   */
+  public void setCreationTime(long newTime) {
+    checkWritable();
+    this.creationTime = newTime;
   }
 
   /**
@@ -142,7 +208,17 @@ public class Plant {
    * @param newDate The new date to set as the last watered date.
    */
   public void setLastWatered(Date newDate) {
-    this.lastWatered = new Date(newDate.getTime());
+    setLastWateredTime(newDate.getTime());
+  }
+
+  /**
+   * Sets the last watered date of the plant.
+   *
+   * @param newTime The new last watered date, in milliseconds since the epoch.
+   */
+  public void setLastWateredTime(long newTime) {
+    checkWritable();
+    this.lastWateredTime = newTime;
   }
 
   /**
@@ -151,7 +227,78 @@ public class Plant {
    * @return The last watered date of the plant as a `Date` object.
    */
   public Date getLastWatered() {
-    return new Date(this.lastWatered.getTime());
+    return new Date(this.lastWateredTime);
+  }
+
+  /**
+   * Retrieves the last watered date of the plant, without allocating a `Date`.
+   *
+   * @return The last watered date of the plant, in milliseconds since the epoch.
+   */
+  public long getLastWateredTime() {
+    return this.lastWateredTime;
+  }
+
+  /**
+   * Retrieves the version of the plant, which is the version of the overview it was last
+   * changed in, or 0 if it has not been changed in a versioned overview.
+   *
+   * @return The version of the plant.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Sets the version of the plant.
+   *
+   * @param newVersion The new version.
+   */
+  public void setVersion(long newVersion) {
+    checkWritable();
+    this.version = newVersion;
+  }
+
+  /**
+   * Checks if the plant is read-only, like the plants of an overview snapshot.
+   *
+   * @return `true` if the setters of the plant throw, `false` otherwise.
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Creates a read-only copy of the plant, including its dates and version.
+   *
+   * @return A copy whose setters throw UnsupportedOperationException.
+   */
+  Plant readOnlyCopy() {
+    return readOnlyCopy(version);
+  }
+
+  /**
+   * Creates a read-only copy of the plant, including its dates, with another version.
+   *
+   * @param version The version of the copy.
+   * @return A copy whose setters throw UnsupportedOperationException.
+   */
+  Plant readOnlyCopy(long version) {
+    Plant copy = new Plant(name, phase, waterInterval, creationTime, lastWateredTime);
+    copy.version = version;
+    copy.readOnly = true;
+    return copy;
+  }
+
+  /**
+   * Throws if the plant is read-only.
+   *
+   * @throws UnsupportedOperationException If the plant is read-only.
+   */
+  private void checkWritable() {
+    if (readOnly) {
+      throw new UnsupportedOperationException(name + " is read-only");
+    }
   }
 
   /**
@@ -160,7 +307,18 @@ public class Plant {
    * @return The number of days since the plant's creation.
    */
   public int lifeSpan() {
-    return daysBetween(getCreationDate(), new Date());
+    return lifeSpan(System.currentTimeMillis());
+  }
+
+  /**
+   * Calculates the lifespan of the plant in days at a given time. Scans over many plants
+   * should read the time once and pass it to each plant.
+   *
+   * @param now The current time, in milliseconds since the epoch.
+   * @return The number of days since the plant's creation.
+   */
+  public int lifeSpan(long now) {
+    return daysBetween(creationTime, now);
   }
 
   /**
@@ -169,7 +327,32 @@ public class Plant {
    * @return `true` if the plant needs watering, `false` otherwise.
    */
   public boolean needsWater() {
-    return daysBetween(lastWatered, new Date()) >= waterInterval;
+    return needsWater(System.currentTimeMillis());
+  }
+
+  /**
+   * Checks if the plant needs watering at a given time. Scans over many plants
+   * should read the time once and pass it to each plant.
+   *
+   * @param now The current time, in milliseconds since the epoch.
+   * @return `true` if the plant needs watering, `false` otherwise.
+   */
+  public boolean needsWater(long now) {
+    return now >= getNextWateringTime();
+  }
+
+  /**
+   * Calculates when the plant next needs watering, which is when whole days since it was
+   * last watered reach the water interval, as counted by `daysBetween`.
+   *
+   * @return The time, in milliseconds since the epoch, from which the plant needs water.
+   */
+  public long getNextWateringTime() {
+    if (waterInterval > 0) {
+      return lastWateredTime + waterInterval * MILLIS_PER_DAY;
+    }
+    // daysBetween rounds towards zero, so a day is counted a millisecond after -1 days
+    return lastWateredTime + (waterInterval - 1) * MILLIS_PER_DAY + 1;
   }
   
   /**
@@ -180,11 +363,11 @@ public class Plant {
    */
   @Override
   public String toString() {
-    SimpleDateFormat dateFormat = new SimpleDateFormat("dd-MM-yyyy");
+    DateCodec dateCodec = DateCodec.systemDefault();
     return "Name: " + getName() + "\n" + "Phase: " + getPhase() + "\n" 
         + "Water interval: " + getWaterInterval() + " day(s) \n" + "Lifespan: "
-        + lifeSpan() + "\n" + "Creation date: " + dateFormat.format(getCreationDate())
-        + "\n" + "Last watered: " + dateFormat.format(getLastWatered());
+        + lifeSpan() + "\n" + "Creation date: " + dateCodec.formatDay(getCreationTime())
+        + "\n" + "Last watered: " + dateCodec.formatDay(getLastWateredTime());
   }
 
   /**
@@ -195,8 +378,18 @@ public class Plant {
    * @return The number of days between the two dates.
    */
   public static int daysBetween(Date firstDate, Date secondDate) {
-    Long daysBetween = ChronoUnit.DAYS.between(firstDate.toInstant(), secondDate.toInstant());
-    return daysBetween.intValue();
+    return daysBetween(firstDate.getTime(), secondDate.getTime());
+  }
+
+  /**
+   * Calculates the number of whole days between two times, rounded towards zero.
+   *
+   * @param firstTime  The first time, in milliseconds since the epoch.
+   * @param secondTime The second time, in milliseconds since the epoch.
+   * @return The number of days between the two times.
+   */
+  public static int daysBetween(long firstTime, long secondTime) {
+    return (int) ((secondTime - firstTime) / MILLIS_PER_DAY);
   }
 
   /**
@@ -206,8 +399,7 @@ public class Plant {
    * @return The formatted date string.
    */
   public static String toStringDate(Date date) {
-    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    return dateFormat.format(date);
+    return DateCodec.systemDefault().format(date.getTime());
   }
 
   /**
@@ -218,10 +410,9 @@ public class Plant {
    */
   public static Date fromStringToDate(String s) {
     Date date = null;
-    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     try {
-      date = dateFormat.parse(s);
-    } catch (ParseException e) {
+      date = new Date(DateCodec.systemDefault().parse(s));
+    } catch (IllegalArgumentException e) {
       System.err.println(e.toString());
     }
     return date;
@@ -0,0 +1,132 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The `PlantBatchResult` class holds the result of applying a batch of PlantOperations:
+ * whether the batch was applied, the version of the overview after it, and the outcome of
+ * every operation, in the order of the operations. A batch is applied as a whole or not at
+ * all, so if one operation fails, it is the only one that is marked as failed, and the
+ * others are marked as not applied.
+ */
+public class PlantBatchResult {
+
+  /**
+   * What happened to an operation.
+   */
+  public enum Status {
+    /** The operation was applied. */
+    APPLIED,
+    /** The operation could not be applied, so the batch was not applied. */
+    FAILED,
+    /** The operation was not applied, since another operation in the batch failed. */
+    NOT_APPLIED
+  }
+
+  /**
+   * The outcome of one operation.
+   */
+  public static final class Outcome {
+    private final Status status;
+    private final Plant plant;
+    private final String message;
+
+    /**
+     * Constructs an outcome.
+     *
+     * @param status  What happened to the operation.
+     * @param plant   The plant after the operation, or null if it was deleted or not applied.
+     * @param message Why the operation failed, or null.
+     */
+    public Outcome(Status status, Plant plant, String message) {
+      if (status == null) {
+        throw new IllegalArgumentException("An outcome needs a status");
+      }
+      this.status = status;
+      this.plant = plant != null ? copy(plant) : null;
+      this.message = message;
+    }
+
+    /**
+     * Retrieves what happened to the operation.
+     *
+     * @return The status.
+     */
+    public Status getStatus() {
+      return status;
+    }
+
+    /**
+     * Retrieves the plant after the operation.
+     *
+     * @return A copy of the plant, or null if it was deleted or the operation was not
+     *     applied.
+     */
+    public Plant getPlant() {
+      return plant != null ? copy(plant) : null;
+    }
+
+    private static Plant copy(Plant plant) {
+      Plant copy = new Plant(plant.getName(), plant.getPhase(), plant.getWaterInterval(),
+          plant.getCreationTime(), plant.getLastWateredTime());
+      copy.setVersion(plant.getVersion());
+      return copy;
+    }
+
+    /**
+     * Retrieves why the operation failed.
+     *
+     * @return The message, or null if the operation did not fail.
+     */
+    public String getMessage() {
+      return message;
+    }
+  }
+
+  private final boolean applied;
+  private final long version;
+  private final List<Outcome> outcomes;
+
+  /**
+   * Constructs a result.
+   *
+   * @param applied  Whether the batch was applied.
+   * @param version  The version of the overview after the batch, or the version it was
+   *                 checked against if it was not applied.
+   * @param outcomes The outcomes of the operations, in order.
+   */
+  public PlantBatchResult(boolean applied, long version, List<Outcome> outcomes) {
+    this.applied = applied;
+    this.version = version;
+    this.outcomes = new ArrayList<>(outcomes);
+  }
+
+  /**
+   * Checks if the batch was applied.
+   *
+   * @return True if every operation was applied, false if none were.
+   */
+  public boolean isApplied() {
+    return applied;
+  }
+
+  /**
+   * Retrieves the version of the overview after the batch.
+   *
+   * @return The version.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Retrieves the outcomes of the operations.
+   *
+   * @return An unmodifiable list of the outcomes, in the order of the operations.
+   */
+  public List<Outcome> getOutcomes() {
+    return Collections.unmodifiableList(outcomes);
+  }
+}
@@ -0,0 +1,214 @@
+package core;
+
+/**
+ * The `PlantChange` class represents a single change to a PlantOverview: adding, editing,
+ * watering or deleting a plant. Changes other than deletes hold the state of the plant after
+ * the change, so applying a change more than once gives the same result as applying it once.
+ * A change also has the version of the overview it was made in, which is the version of its
+ * plant, so that replaying changes restores the versions too.
+ */
+public class PlantChange {
+
+  /**
+   * The kinds of changes that can be made to a plant.
+   */
+  public enum Type {
+    ADD,
+    EDIT,
+    WATER,
+    DELETE
+  }
+
+  private final Type type;
+  private final String name;
+  private final Plant plant;
+  private final long version;
+
+  /**
+   * Constructs a change. Use the static factory methods instead.
+   *
+   * @param type    The kind of change.
+   * @param name    The name of the changed plant.
+   * @param plant   The state of the plant after the change, or null for a delete.
+   * @param version The version of the change.
+   */
+  private PlantChange(Type type, String name, Plant plant, long version) {
+    this.type = type;
+    this.name = name;
+    this.plant = plant;
+    this.version = version;
+  }
+
+  /**
+   * Creates a change of the given type. This is used when changes are read back.
+   *
+   * @param type  The kind of change.
+   * @param name  The name of the changed plant.
+   * @param plant The state of the plant after the change, or null for a delete.
+   * @return The change.
+   * @throws IllegalArgumentException If the plant is missing for a change other than a delete.
+   */
+  public static PlantChange of(Type type, String name, Plant plant) {
+    return of(type, name, plant, plant != null ? plant.getVersion() : 0);
+  }
+
+  /**
+   * Creates a change of the given type with a version. This is used when changes are read
+   * back, since a delete has no plant to hold its version.
+   *
+   * @param type    The kind of change.
+   * @param name    The name of the changed plant.
+   * @param plant   The state of the plant after the change, or null for a delete.
+   * @param version The version of the change, which is used for deletes only.
+   * @return The change.
+   * @throws IllegalArgumentException If the plant is missing for a change other than a delete.
+   */
+  public static PlantChange of(Type type, String name, Plant plant, long version) {
+    if (type == null || name == null) {
+      throw new IllegalArgumentException("A change needs a type and a name");
+    }
+    if (type == Type.DELETE) {
+      return delete(name, version);
+    }
+    if (plant == null) {
+      throw new IllegalArgumentException("A change of type " + type + " needs a plant");
+    }
+    Plant copy = copy(plant);
+    return new PlantChange(type, name, copy, copy.getVersion());
+  }
+
+  /**
+   * Creates a change that adds a plant.
+   *
+   * @param plant The added plant.
+   * @return The change.
+   */
+  public static PlantChange add(Plant plant) {
+    return of(Type.ADD, plant.getName(), plant);
+  }
+
+  /**
+   * Creates a change that edits the phase or water interval of a plant.
+   *
+   * @param plant The edited plant.
+   * @return The change.
+   */
+  public static PlantChange edit(Plant plant) {
+    return of(Type.EDIT, plant.getName(), plant);
+  }
+
+  /**
+   * Creates a change that waters a plant.
+   *
+   * @param plant The watered plant.
+   * @return The change.
+   */
+  public static PlantChange water(Plant plant) {
+    return of(Type.WATER, plant.getName(), plant);
+  }
+
+  /**
+   * Creates a change that deletes a plant.
+   *
+   * @param name The name of the deleted plant.
+   * @return The change.
+   */
+  public static PlantChange delete(String name) {
+    return delete(name, 0);
+  }
+
+  /**
+   * Creates a change that deletes a plant in a given version of the overview.
+   *
+   * @param name    The name of the deleted plant.
+   * @param version The version of the overview without the plant.
+   * @return The change.
+   */
+  public static PlantChange delete(String name, long version) {
+    return new PlantChange(Type.DELETE, name, null, version);
+  }
+
+  /**
+   * Retrieves the kind of change.
+   *
+   * @return The kind of change.
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Retrieves the name of the changed plant.
+   *
+   * @return The name of the changed plant.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Retrieves the state of the plant after the change.
+   *
+   * @return A copy of the plant after the change, or null for a delete.
+   */
+  public Plant getPlant() {
+    return plant != null ? copy(plant) : null;
+  }
+
+  /**
+   * Retrieves the version of the overview the change was made in.
+   *
+   * @return The version of the change, or 0 if it is not versioned.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Applies the change to an overview. A plant that is not in the overview is added, and
+   * a plant that is already in it gets the state of the change, so that changes can be
+   * replayed on top of an overview that already has some of them. The version of the overview
+   * is raised to the version of the change, if it is lower.
+   *
+   * @param overview The overview to change.
+   */
+  public void applyTo(PlantOverview overview) {
+    if (version > overview.getVersion()) {
+      overview.setVersion(version);
+    }
+    if (type == Type.DELETE) {
+      overview.deletePlant(name);
+      return;
+    }
+    Plant existing = overview.getPlantByName(name);
+    if (existing == null) {
+      overview.addPlant(copy(plant));
+    } else {
+      overview.update(existing, () -> {
+        existing.setPhase(plant.getPhase());
+        existing.setWaterInterval(plant.getWaterInterval());
+        existing.setCreationTime(plant.getCreationTime());
+        existing.setLastWateredTime(plant.getLastWateredTime());
+        existing.setVersion(plant.getVersion());
+      });
+    }
+  }
+
+  /**
+   * Copies a plant, including its dates and version.
+   *
+   * @param plant The plant to copy.
+   * @return The copy.
+   */
+  private static Plant copy(Plant plant) {
+    Plant copy = new Plant(plant.getName(), plant.getPhase(), plant.getWaterInterval(),
+        plant.getCreationTime(), plant.getLastWateredTime());
+    copy.setVersion(plant.getVersion());
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return type + " " + name;
+  }
+}
@@ -0,0 +1,175 @@
+package core;
+
+/**
+ * The `PlantOperation` class describes a change that a client asks for: adding, editing,
+ * watering or deleting a plant. Unlike a PlantChange, which holds the state of the plant
+ * after a change that was made, an operation only holds what should change, and is checked
+ * against the overview when it is applied. Operations are sent in batches, which are
+ * applied together or not at all.
+ *
+ * <p>An operation can be made conditional with `ifVersion`, in which case it fails if the
+ * plant does not have the version it was read with.</p>
+ */
+public class PlantOperation {
+
+  /**
+   * The expected version of a plant that makes an operation unconditional.
+   */
+  public static final long ANY_VERSION = -1;
+
+  private final PlantChange.Type type;
+  private final String name;
+  private final String phase;
+  private final Integer waterInterval;
+  private final long expectedVersion;
+
+  /**
+   * Constructs an operation. Use the static factory methods instead.
+   *
+   * @param type            The kind of operation.
+   * @param name            The name of the plant.
+   * @param phase           The phase of the plant, or null to keep it.
+   * @param waterInterval   The water interval of the plant, or null to keep it.
+   * @param expectedVersion The version the plant must have, or ANY_VERSION.
+   */
+  private PlantOperation(PlantChange.Type type, String name, String phase,
+      Integer waterInterval, long expectedVersion) {
+    this.type = type;
+    this.name = name;
+    this.phase = phase;
+    this.waterInterval = waterInterval;
+    this.expectedVersion = expectedVersion;
+  }
+
+  /**
+   * Creates an operation of the given type. This is used when operations are read back.
+   *
+   * @param type            The kind of operation.
+   * @param name            The name of the plant.
+   * @param phase           The phase of the plant, or null to keep it.
+   * @param waterInterval   The water interval of the plant, or null to keep it.
+   * @param expectedVersion The version the plant must have, or ANY_VERSION.
+   * @return The operation.
+   * @throws IllegalArgumentException If the type or name is missing, or if an add lacks a
+   *     phase or water interval.
+   */
+  public static PlantOperation of(PlantChange.Type type, String name, String phase,
+      Integer waterInterval, long expectedVersion) {
+    if (type == null || name == null) {
+      throw new IllegalArgumentException("An operation needs a type and a name");
+    }
+    if (type == PlantChange.Type.ADD && (phase == null || waterInterval == null)) {
+      throw new IllegalArgumentException("Adding a plant needs a phase and a water interval");
+    }
+    if (type == PlantChange.Type.ADD && expectedVersion != ANY_VERSION) {
+      throw new IllegalArgumentException("A plant that is added has no version yet");
+    }
+    return new PlantOperation(type, name, phase, waterInterval,
+        expectedVersion < 0 ? ANY_VERSION : expectedVersion);
+  }
+
+  /**
+   * Creates an operation that adds a plant.
+   *
+   * @param name          The name of the plant.
+   * @param phase         The phase of the plant.
+   * @param waterInterval The water interval of the plant.
+   * @return The operation.
+   */
+  public static PlantOperation add(String name, String phase, int waterInterval) {
+    return of(PlantChange.Type.ADD, name, phase, waterInterval, ANY_VERSION);
+  }
+
+  /**
+   * Creates an operation that edits the phase and water interval of a plant.
+   *
+   * @param name          The name of the plant.
+   * @param phase         The new phase, or null to keep the current phase.
+   * @param waterInterval The new water interval, or null to keep the current one.
+   * @return The operation.
+   */
+  public static PlantOperation edit(String name, String phase, Integer waterInterval) {
+    return of(PlantChange.Type.EDIT, name, phase, waterInterval, ANY_VERSION);
+  }
+
+  /**
+   * Creates an operation that waters a plant.
+   *
+   * @param name The name of the plant.
+   * @return The operation.
+   */
+  public static PlantOperation water(String name) {
+    return of(PlantChange.Type.WATER, name, null, null, ANY_VERSION);
+  }
+
+  /**
+   * Creates an operation that deletes a plant.
+   *
+   * @param name The name of the plant.
+   * @return The operation.
+   */
+  public static PlantOperation delete(String name) {
+    return of(PlantChange.Type.DELETE, name, null, null, ANY_VERSION);
+  }
+
+  /**
+   * Returns the same operation, on the condition that the plant has a version.
+   *
+   * @param version The version the plant was read with.
+   * @return The conditional operation.
+   * @throws IllegalArgumentException If this operation adds a plant.
+   */
+  public PlantOperation ifVersion(long version) {
+    return of(type, name, phase, waterInterval, version);
+  }
+
+  /**
+   * Retrieves the kind of operation.
+   *
+   * @return The type.
+   */
+  public PlantChange.Type getType() {
+    return type;
+  }
+
+  /**
+   * Retrieves the name of the plant.
+   *
+   * @return The name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Retrieves the phase of the plant.
+   *
+   * @return The phase, or null to keep the current phase.
+   */
+  public String getPhase() {
+    return phase;
+  }
+
+  /**
+   * Retrieves the water interval of the plant.
+   *
+   * @return The water interval, or null to keep the current one.
+   */
+  public Integer getWaterInterval() {
+    return waterInterval;
+  }
+
+  /**
+   * Retrieves the version the plant must have.
+   *
+   * @return The version, or ANY_VERSION if the operation is unconditional.
+   */
+  public long getExpectedVersion() {
+    return expectedVersion;
+  }
+
+  @Override
+  public String toString() {
+    return type + " " + name;
+  }
+}
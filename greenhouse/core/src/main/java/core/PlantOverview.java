@@ -1,33 +1,244 @@
 package core;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 
 /**
  * The `PlantOverview` class represents a collection of `Plant` objects.
  * It allows you to manage and retrieve information about various plants.
+ * The plants are indexed by name, in insertion order, so lookups, duplicate checks,
+ * additions and deletions take constant time. They are also grouped by growth phase, in
+ * overview order, so filtering on a phase takes time proportional to the number of matching
+ * plants, and sorted by when they next need water, so finding the plants that need water
+ * does not have to check every plant.
+ *
+ * <p>The indexes are kept by the overview, not by its plants, so a plant in an overview
+ * must be changed through the methods of the overview, like `editPlant` and `waterPlant`,
+ * which index it again. Changing it through its own setters leaves the indexes as they
+ * were.</p>
+ *
+ * <p>A read-only snapshot of an overview can be taken with `snapshot`. Snapshots can be
+ * shared between threads, since neither they nor their plants can be changed, and reading
+ * or filtering them writes nothing: an overview filtered from a snapshot builds indexes of
+ * its own and leaves the shared plants alone. Taking a
+ * snapshot copies every plant, so an overview that is changed and read by many threads
+ * at once is better kept as an `ImmutablePlantOverview`, whose versions share their plants.</p>
  */
 public class PlantOverview {
-  private List<Plant> plantOverview;
+  private Set<Plant> plants;
+  private Map<String, Plant> plantsByName;
+  private Map<Plant, IndexEntry> entries = new IdentityHashMap<>();
+  private Map<PlantPhase, NavigableMap<Long, Plant>> plantsByPhase =
+      new EnumMap<>(PlantPhase.class);
+  private NavigableSet<IndexEntry> plantsByWateringTime = new TreeSet<>();
+  private long nextPosition;
+  private long version;
+  private boolean readOnly;
 
   /**
-   * Constructor that creates a new arraylist.
+   * Constructor that creates a new, empty overview.
    */
   public PlantOverview() {
-    plantOverview = new ArrayList<>();
+    plants = new LinkedHashSet<>();
+    plantsByName = new HashMap<>();
   }
 
   /**
    * This constructor creates a new PlantOverview object using the provided list of
    * plant objects. It makes a shallow copy of the list, allowing for a new instance
-   * to be created without modifying the original list.
+   * to be created without modifying the original list. If several plants share a name,
+   * only the first one is kept.
    *
    * @param plantOverview A list of plant objects used to initialize the PlantOverview.
    */
   public PlantOverview(List<Plant> plantOverview) {
-    this.plantOverview = new ArrayList<>(plantOverview);
+    this();
+    for (Plant plant : plantOverview) {
+      if (!plantsByName.containsKey(plant.getName())) {
+        insert(plant);
+      }
+    }
+  }
+
+  /**
+   * Creates an overview that takes over the already validated collections of a builder.
+   *
+   * @param builder the builder holding the plants
+   */
+  private PlantOverview(Builder builder) {
+    plants = builder.plants;
+    plantsByName = builder.plantsByName;
+    IndexEntry[] byWateringTime = new IndexEntry[plants.size()];
+    for (Plant plant : plants) {
+      IndexEntry entry = new IndexEntry(plant, nextPosition++);
+      entries.put(plant, entry);
+      indexPhase(entry);
+      byWateringTime[(int) entry.position] = entry;
+    }
+    // Sorting once and building the tree from the sorted entries is much faster than
+    // inserting the entries one at a time
+    Arrays.sort(byWateringTime);
+    plantsByWateringTime.addAll(new SortedEntries(byWateringTime));
+  }
+
+  /**
+   * Returns a builder for loading many plants into a new overview at once.
+   *
+   * @return a new, empty builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builder for bulk loading plants into a PlantOverview. Each plant is validated once,
+   * as it is added, and the built overview takes over the builder's collections
+   * instead of copying them.
+   */
+  public static class Builder {
+    private Set<Plant> plants = new LinkedHashSet<>();
+    private Map<String, Plant> plantsByName = new HashMap<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a plant to the overview being built.
+     *
+     * @param plant the plant to add
+     * @return this builder
+     * @throws IllegalArgumentException if the plant lacks a name or phase,
+     *     or if a plant with the same name has already been added
+     */
+    public Builder add(Plant plant) {
+      checkRequiredFields(plant);
+      if (plantsByName.putIfAbsent(plant.getName(), plant) != null) {
+        throw new IllegalArgumentException("There already exists a plant named "
+        + plant.getName());
+      }
+      plants.add(plant);
+      return this;
+    }
+
+    /**
+     * Adds all the given plants, in order, to the overview being built.
+     *
+     * @param plants the plants to add
+     * @return this builder
+     * @throws IllegalArgumentException if one of the plants is invalid or a duplicate
+     */
+    public Builder addAll(Collection<Plant> plants) {
+      for (Plant plant : plants) {
+        add(plant);
+      }
+      return this;
+    }
+
+    /**
+     * Builds the overview. The builder is emptied, so it can be reused.
+     *
+     * @return a new PlantOverview with the added plants
+     */
+    public PlantOverview build() {
+      PlantOverview overview = new PlantOverview(this);
+      plants = new LinkedHashSet<>();
+      plantsByName = new HashMap<>();
+      return overview;
+    }
+  }
+
+  /**
+   * Takes a read-only snapshot of the overview. The snapshot holds read-only copies of the
+   * plants, so later changes to this overview are not seen in it, and it can't be changed.
+   * Taking a snapshot of a snapshot returns the same snapshot.
+   *
+   * @return a read-only snapshot of the overview
+   */
+  public PlantOverview snapshot() {
+    if (readOnly) {
+      return this;
+    }
+    return readOnlyCopyOf(plants, version);
+  }
+
+  /**
+   * Creates a read-only overview with read-only copies of the given plants. Plants that are
+   * already read-only can't change, so they are shared instead of copied.
+   *
+   * @param plants the plants to copy, in order
+   * @param version the version of the overview
+   * @return a read-only overview with the copies
+   */
+  static PlantOverview readOnlyCopyOf(Iterable<Plant> plants, long version) {
+    Builder builder = builder();
+    for (Plant plant : plants) {
+      builder.add(plant.isReadOnly() ? plant : plant.readOnlyCopy());
+    }
+    PlantOverview snapshot = builder.build();
+    snapshot.version = version;
+    snapshot.readOnly = true;
+    return snapshot;
+  }
+
+  /**
+   * Returns the version of the overview, which a versioned store, like an
+   * ImmutablePlantOverview, increases with every change. The plants changed in a version
+   * have that version.
+   *
+   * @return the version of the overview, or 0 if it is not versioned
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Sets the version of the overview, like when it is loaded.
+   *
+   * @param version the new version
+   */
+  public void setVersion(long version) {
+    checkWritable();
+    this.version = version;
+  }
+
+  /**
+   * Checks if the overview is a read-only snapshot.
+   *
+   * @return true if the overview can't be changed, false otherwise.
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Throws if the overview is a read-only snapshot.
+   *
+   * @throws UnsupportedOperationException if the overview is read-only
+   */
+  private void checkWritable() {
+    if (readOnly) {
+      throw new UnsupportedOperationException("The overview is a read-only snapshot");
+    }
   }
 
   /**
@@ -36,8 +247,97 @@ public class PlantOverview {
    * @param newPlant the plant to be added
    */
   public void addPlant(Plant newPlant) {
+    checkWritable();
     checkAddPlant(newPlant);
-    plantOverview.add(newPlant);
+    insert(newPlant);
+  }
+
+  /**
+   * Appends a plant to the overview and its indexes.
+   *
+   * @param plant the plant to insert
+   */
+  private void insert(Plant plant) {
+    plants.add(plant);
+    index(new IndexEntry(plant, nextPosition++));
+  }
+
+  /**
+   * Adds a plant to the indexes of this overview. If another plant already uses its name,
+   * that plant keeps it.
+   *
+   * @param entry the plant to index, with its position and indexed properties
+   */
+  private void index(IndexEntry entry) {
+    entries.put(entry.plant, entry);
+    plantsByName.putIfAbsent(entry.name, entry.plant);
+    indexPhase(entry);
+    plantsByWateringTime.add(entry);
+  }
+
+  /**
+   * Adds a plant to the group of its growth phase, if the phase is a known one. The group is
+   * ordered by the position of the plant in the overview, so changing a plant does not move
+   * it within its group.
+   *
+   * @param entry the plant to index
+   */
+  private void indexPhase(IndexEntry entry) {
+    if (entry.phase != null) {
+      plantsByPhase.computeIfAbsent(entry.phase, p -> new TreeMap<>())
+          .put(entry.position, entry.plant);
+    }
+  }
+
+  /**
+   * Removes a plant from the indexes, using the properties it was indexed with.
+   *
+   * @param plant the plant to remove
+   * @return the entry the plant was indexed with
+   */
+  private IndexEntry unindex(Plant plant) {
+    IndexEntry entry = entries.remove(plant);
+    plantsByName.remove(entry.name, plant);
+    if (entry.phase != null) {
+      plantsByPhase.get(entry.phase).remove(entry.position);
+    }
+    plantsByWateringTime.remove(entry);
+    return entry;
+  }
+
+  /**
+   * Changes a plant of this overview, and indexes it again afterwards, at the same position.
+   * A plant that is not in this overview is changed without touching the indexes.
+   *
+   * @param plant the plant to change
+   * @param change makes the change
+   * @return the result of the change
+   */
+  private <T> T update(Plant plant, Supplier<T> change) {
+    if (!entries.containsKey(plant)) {
+      return change.get();
+    }
+    IndexEntry entry = unindex(plant);
+    try {
+      return change.get();
+    } finally {
+      index(new IndexEntry(plant, entry.position));
+    }
+  }
+
+  /**
+   * Changes a plant of this overview through its setters, and indexes it again afterwards.
+   * This is for the classes of the model that change plants in place, like PlantChange.
+   *
+   * @param plant the plant to change
+   * @param change makes the change
+   */
+  void update(Plant plant, Runnable change) {
+    checkWritable();
+    update(plant, () -> {
+      change.run();
+      return null;
+    });
   }
 
 
@@ -48,10 +348,19 @@ public class PlantOverview {
    * @param newPlant the plant to be checked
    */
   public void checkAddPlant(Plant newPlant) {
-    if (getPlantNames().contains(newPlant.getName())) {
+    if (plantsByName.containsKey(newPlant.getName())) {
       throw new IllegalArgumentException("There already exists a plant named "
       + newPlant.getName());
     }
+    checkRequiredFields(newPlant);
+  }
+
+  /**
+   * Checks that all the inputfields of a plant have values.
+   *
+   * @param newPlant the plant to be checked
+   */
+  static void checkRequiredFields(Plant newPlant) {
     if (newPlant.getName() == null || newPlant.getName().equals("")) {
       throw new IllegalArgumentException("Choose a name for your plant");
     }
@@ -66,7 +375,7 @@ public class PlantOverview {
    * @return a copy of the plantOverview.
    */
   public List<Plant> getPlantOverview() {
-    return new ArrayList<>(plantOverview);
+    return new ArrayList<>(plants);
   }
 
   /**
@@ -76,16 +385,127 @@ public class PlantOverview {
    * @return a list of plants that fulfilles the predicate.
    */
   public List<Plant> getPlantsByPredicate(Predicate<Plant> predicate) {
-    return getPlantOverview().stream().filter(predicate).toList();
+    return plants.stream().filter(predicate).toList();
+  }
+
+  /**
+   * Returns the plants in a given growth phase, in insertion order.
+   *
+   * @param phase the growth phase
+   * @return a list of the plants in the phase.
+   */
+  public List<Plant> getPlantsByPhase(PlantPhase phase) {
+    NavigableMap<Long, Plant> phasePlants = plantsByPhase.get(phase);
+    return phasePlants == null ? new ArrayList<>() : new ArrayList<>(phasePlants.values());
+  }
+
+  /**
+   * Returns the plants that need water now, in insertion order.
+   *
+   * @return a list of the plants that need water.
+   */
+  public List<Plant> getPlantsThatNeedWater() {
+    return getPlantsThatNeedWater(System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the plants that need water at a given time, in insertion order.
+   * Only the plants that need water are visited.
+   *
+   * @param time the time, in milliseconds since the epoch
+   * @return a list of the plants that need water at the given time.
+   */
+  public List<Plant> getPlantsThatNeedWater(long time) {
+    List<IndexEntry> result = new ArrayList<>();
+    for (IndexEntry entry : plantsByWateringTime) {
+      if (entry.wateringTime > time) {
+        break;
+      }
+      result.add(entry);
+    }
+    return inInsertionOrder(result);
+  }
+
+  /**
+   * Waters every plant that needs water at a given time, at that time. Only the plants that
+   * need water are visited.
+   *
+   * @param time the time, in milliseconds since the epoch
+   * @return a list of the watered plants, in insertion order.
+   * @throws UnsupportedOperationException if the overview is read-only
+   */
+  public List<Plant> waterPlantsThatNeedWater(long time) {
+    checkWritable();
+    List<Plant> plants = getPlantsThatNeedWater(time);
+    for (Plant plant : plants) {
+      update(plant, () -> {
+        plant.setLastWateredTime(time);
+        return null;
+      });
+    }
+    return plants;
   }
 
   /**
-   * Returns a list of plant names.
+   * Waters a plant at a given time. If there is no plant with the name, no action is taken.
    *
-   * @return a list of strings with plant names.
+   * @param name the name of the plant to water
+   * @param time the time, in milliseconds since the epoch
+   * @throws UnsupportedOperationException if the overview is read-only
    */
-  private List<String> getPlantNames() {
-    return getPlantOverview().stream().map(p -> p.getName()).toList();
+  public void waterPlant(String name, long time) {
+    checkWritable();
+    Plant plant = plantsByName.get(name);
+    if (plant != null) {
+      update(plant, () -> {
+        plant.setLastWateredTime(time);
+        return null;
+      });
+    }
+  }
+
+  /**
+   * Returns the plants that do not need water now, in insertion order.
+   *
+   * @return a list of the hydrated plants.
+   */
+  public List<Plant> getHydratedPlants() {
+    return getHydratedPlants(System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the plants that do not need water at a given time, in insertion order.
+   * Only the plants that do not need water are visited.
+   *
+   * @param time the time, in milliseconds since the epoch
+   * @return a list of the hydrated plants.
+   */
+  public List<Plant> getHydratedPlants(long time) {
+    List<IndexEntry> result = new ArrayList<>();
+    Iterator<IndexEntry> iterator = plantsByWateringTime.descendingIterator();
+    while (iterator.hasNext()) {
+      IndexEntry entry = iterator.next();
+      if (entry.wateringTime <= time) {
+        break;
+      }
+      result.add(entry);
+    }
+    return inInsertionOrder(result);
+  }
+
+  /**
+   * Sorts indexed plants by the order they were added in.
+   *
+   * @param entries entries of this overview
+   * @return the plants of the entries, in insertion order
+   */
+  private static List<Plant> inInsertionOrder(List<IndexEntry> entries) {
+    entries.sort(Comparator.comparingLong(entry -> entry.position));
+    List<Plant> plants = new ArrayList<>(entries.size());
+    for (IndexEntry entry : entries) {
+      plants.add(entry.plant);
+    }
+    return plants;
   }
 
   /**
@@ -96,12 +516,7 @@ public class PlantOverview {
    * @return The plant object with the specified name, or null if not found.
    */
   public Plant getPlantByName(String name) {
-    for (Plant p : plantOverview) {
-      if (name.equals(p.getName())) {
-        return p;
-      }
-    }
-    return null;
+    return plantsByName.get(name);
   }
 
   /**
@@ -116,8 +531,25 @@ public class PlantOverview {
    * @return A message indicating the outcome of the edit operation.
    */
   public String editPlant(String name, String newPhase, String newWaterInterval) {
-    Plant oldPlant = getPlantByName(name);
+    checkWritable();
+    Plant plant = getPlantByName(name);
+    return update(plant, () -> applyEdit(plant, newPhase, newWaterInterval));
+  }
 
+  /**
+   * Edits the growth phase and water interval of a plant, the way `editPlant` does, for a
+   * plant that is not in a PlantOverview, like a copy that replaces a plant in an
+   * ImmutablePlantOverview. A plant that is in a PlantOverview is not indexed again, so it
+   * should be edited with `editPlant` instead.
+   *
+   * @param oldPlant The plant to be edited.
+   * @param newPhase The new growth phase to assign to the plant, or null if no change is intended.
+   * @param newWaterInterval The new water interval (in days) to assign to the plant,
+   or null if no change is intended.
+   *
+   * @return A message indicating the outcome of the edit operation.
+   */
+  public static String applyEdit(Plant oldPlant, String newPhase, String newWaterInterval) {
     if (newPhase == null && newWaterInterval == null) {
       return "Error: No changes selected";
     }
@@ -158,27 +590,18 @@ public class PlantOverview {
     if (filter == null) {
       return new PlantOverview(overview.getPlantOverview());
     }
-    Predicate<Plant> filterPredicate;
+    PlantPhase phase = PlantPhase.fromString(filter);
+    if (phase != null) {
+      return new PlantOverview(overview.getPlantsByPhase(phase));
+    }
     switch (filter) {
-      case "Seed":
-        filterPredicate = p -> p.getPhase().equals("Seed");
-        break;
-      case "Young plant":
-        filterPredicate = p -> p.getPhase().equals("Young plant");
-        break;
-      case "Grown plant":
-        filterPredicate = p -> p.getPhase().equals("Grown plant");
-        break;
       case "Needs water":
-        filterPredicate = Plant::needsWater;
-        break;
+        return new PlantOverview(overview.getPlantsThatNeedWater());
       case "Is hydrated":
-        filterPredicate = p -> !p.needsWater();
-        break;
+        return new PlantOverview(overview.getHydratedPlants());
       default:
         return new PlantOverview(overview.getPlantOverview());
     }
-    return new PlantOverview(overview.getPlantsByPredicate(filterPredicate));
   }
 
   /**
@@ -191,9 +614,11 @@ public class PlantOverview {
    * @param name The name of the plant to be deleted.
    */
   public void deletePlant(String name) {
-    Plant p = getPlantByName(name);
-    if (plantOverview.contains(p)) {
-      plantOverview.remove(p);
+    checkWritable();
+    Plant p = plantsByName.get(name);
+    if (p != null) {
+      unindex(p);
+      plants.remove(p);
     }
   }
 
@@ -209,11 +634,11 @@ public class PlantOverview {
    */
   public String status() {
     StringBuilder result = new StringBuilder();
-    if (plantOverview.isEmpty()) {
+    if (plants.isEmpty()) {
       return result.append("Welcome to your Greenhouse!").toString(); 
     }
     
-    List<Plant> plants = getPlantsByPredicate(p -> p.needsWater());
+    List<Plant> plants = getPlantsThatNeedWater();
     if (plants.isEmpty()) {
       result.append("All your plants are happy today<33"); 
     } else {
@@ -241,9 +666,105 @@ public class PlantOverview {
    * @return true if changing to the specified new growth phase would be considered a downgrade;
    false otherwise.
    */
-  private boolean isPhaseDowngrade(Plant plant, String newPhase) {
-    return (plant.getPhase().equals("Young plant") && newPhase.equals("Seed"))
-        || (plant.getPhase().equals("Grown plant") && (newPhase.equals("Seed")
-        || newPhase.equals("Young plant")));
+  private static boolean isPhaseDowngrade(Plant plant, String newPhase) {
+    PlantPhase oldPlantPhase = plant.getPlantPhase();
+    PlantPhase newPlantPhase = PlantPhase.fromString(newPhase);
+    return oldPlantPhase != null && newPlantPhase != null && newPlantPhase.isBefore(oldPlantPhase);
+  }
+
+  /**
+   * A plant of an overview, with its position in the overview and the properties it is
+   * indexed by, as they were when it was indexed. The entries are ordered by when the plant
+   * next needs water, and then by position.
+   */
+  private static final class IndexEntry implements Comparable<IndexEntry> {
+    private final Plant plant;
+    private final long position;
+    private final String name;
+    private final PlantPhase phase;
+    private final long wateringTime;
+
+    private IndexEntry(Plant plant, long position) {
+      this.plant = plant;
+      this.position = position;
+      this.name = plant.getName();
+      this.phase = plant.getPlantPhase();
+      this.wateringTime = plant.getNextWateringTime();
+    }
+
+    @Override
+    public int compareTo(IndexEntry other) {
+      int result = Long.compare(wateringTime, other.wateringTime);
+      return result != 0 ? result : Long.compare(position, other.position);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof IndexEntry && compareTo((IndexEntry) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(position);
+    }
+  }
+
+  /**
+   * A sorted array of entries, viewed as a SortedSet in watering order. A TreeSet with the
+   * same ordering builds its tree from such a set in linear time.
+   */
+  private static final class SortedEntries extends AbstractSet<IndexEntry>
+      implements SortedSet<IndexEntry> {
+    private final IndexEntry[] entries;
+
+    private SortedEntries(IndexEntry[] entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    public Iterator<IndexEntry> iterator() {
+      return Arrays.asList(entries).iterator();
+    }
+
+    @Override
+    public int size() {
+      return entries.length;
+    }
+
+    @Override
+    public Comparator<? super IndexEntry> comparator() {
+      return null;
+    }
+
+    @Override
+    public IndexEntry first() {
+      if (entries.length == 0) {
+        throw new NoSuchElementException();
+      }
+      return entries[0];
+    }
+
+    @Override
+    public IndexEntry last() {
+      if (entries.length == 0) {
+        throw new NoSuchElementException();
+      }
+      return entries[entries.length - 1];
+    }
+
+    @Override
+    public SortedSet<IndexEntry> subSet(IndexEntry fromElement, IndexEntry toElement) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedSet<IndexEntry> headSet(IndexEntry toElement) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedSet<IndexEntry> tailSet(IndexEntry fromElement) {
+      throw new UnsupportedOperationException();
+    }
   }
 }
@@ -0,0 +1,122 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `PlantOverviewDelta` class holds everything that changed in a plant overview between
+ * two versions of it: the plants that were added or changed, with their state in the newer
+ * version, and the names of the plants that were deleted, as delete changes. Applying the
+ * delta to a copy of the older version gives a copy of the newer version, so a client that
+ * has one version can catch up without fetching the whole overview again.
+ */
+public class PlantOverviewDelta {
+
+  private final long since;
+  private final long version;
+  private final List<PlantChange> changes;
+
+  /**
+   * Constructs a delta.
+   *
+   * @param since   The version the delta starts from.
+   * @param version The version the delta leads to.
+   * @param changes The changes, at most one for each plant, in the order they were made.
+   * @throws IllegalArgumentException If `since` is newer than `version`.
+   */
+  public PlantOverviewDelta(long since, long version, List<PlantChange> changes) {
+    if (since > version) {
+      throw new IllegalArgumentException("A delta can't lead to an older version");
+    }
+    this.since = since;
+    this.version = version;
+    this.changes = new ArrayList<>(changes);
+  }
+
+  /**
+   * Creates a delta from every change made between two versions, keeping only the last
+   * change of each plant. A plant that was added since the older version is still added
+   * by the delta, even if it was changed after it was added, since a plant that is deleted
+   * and added again moves to the end of the overview.
+   *
+   * @param since   The version the changes start from.
+   * @param version The version the changes lead to.
+   * @param changes The changes, in the order they were made.
+   * @return The delta.
+   */
+  public static PlantOverviewDelta compact(long since, long version,
+      List<PlantChange> changes) {
+    Map<String, PlantChange> lastChanges = new LinkedHashMap<>();
+    for (PlantChange change : changes) {
+      PlantChange previous = lastChanges.remove(change.getName());
+      PlantChange last = change;
+      if (previous != null && previous.getType() == PlantChange.Type.ADD
+          && change.getType() != PlantChange.Type.DELETE) {
+        last = PlantChange.add(change.getPlant());
+      }
+      lastChanges.put(change.getName(), last);
+    }
+    return new PlantOverviewDelta(since, version, new ArrayList<>(lastChanges.values()));
+  }
+
+  /**
+   * Retrieves the version the delta starts from.
+   *
+   * @return The older version.
+   */
+  public long getSince() {
+    return since;
+  }
+
+  /**
+   * Retrieves the version the delta leads to.
+   *
+   * @return The newer version.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Retrieves the changes of the delta.
+   *
+   * @return An unmodifiable list of the changes.
+   */
+  public List<PlantChange> getChanges() {
+    return Collections.unmodifiableList(changes);
+  }
+
+  /**
+   * Checks if nothing changed between the two versions.
+   *
+   * @return True if the delta has no changes, false otherwise.
+   */
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  /**
+   * Applies the delta to an overview with the version it starts from, which then gets the
+   * version it leads to. Added plants are put at the end of the overview, like on the server.
+   *
+   * @param overview The overview to change.
+   * @throws IllegalStateException If the overview does not have the version the delta
+   *     starts from.
+   */
+  public void applyTo(PlantOverview overview) {
+    if (overview.getVersion() != since) {
+      throw new IllegalStateException("The delta starts from version " + since
+          + ", not " + overview.getVersion());
+    }
+    for (PlantChange change : changes) {
+      if (change.getType() == PlantChange.Type.ADD) {
+        overview.deletePlant(change.getName());
+      }
+      change.applyTo(overview);
+    }
+    overview.setVersion(version);
+  }
+}
@@ -0,0 +1,56 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The `PlantPage` class holds a page of plants found by a PlantQuery, with the version of
+ * the overview it was read from and the cursor of the next page.
+ */
+public class PlantPage {
+
+  private final long version;
+  private final List<Plant> plants;
+  private final String nextCursor;
+
+  /**
+   * Constructs a page.
+   *
+   * @param version    The version of the overview the page was read from.
+   * @param plants     The plants of the page, in order.
+   * @param nextCursor The cursor of the next page, or null if this is the last page.
+   */
+  public PlantPage(long version, List<Plant> plants, String nextCursor) {
+    this.version = version;
+    this.plants = new ArrayList<>(plants);
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Retrieves the version of the overview the page was read from.
+   *
+   * @return The version.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Retrieves the plants of the page.
+   *
+   * @return An unmodifiable list of the plants, in order.
+   */
+  public List<Plant> getPlants() {
+    return Collections.unmodifiableList(plants);
+  }
+
+  /**
+   * Retrieves the cursor of the next page.
+   *
+   * @return The cursor, or null if this is the last page.
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
@@ -0,0 +1,69 @@
+package core;
+
+/**
+ * The `PlantPatch` class holds a partial update of a plant: only the fields that are set
+ * are changed, and the plant can be watered at the same time. It is the body of a PATCH
+ * request, so that clients send typed values instead of building query strings.
+ */
+public class PlantPatch {
+
+  private final String name;
+  private final String phase;
+  private final Integer waterInterval;
+  private final boolean water;
+
+  /**
+   * Constructs a patch.
+   *
+   * @param name          The name of the plant to update.
+   * @param phase         The new phase, or null to keep the current phase.
+   * @param waterInterval The new water interval, or null to keep the current one.
+   * @param water         Whether to water the plant.
+   * @throws IllegalArgumentException If the name is missing.
+   */
+  public PlantPatch(String name, String phase, Integer waterInterval, boolean water) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("A patch needs the name of the plant");
+    }
+    this.name = name;
+    this.phase = phase;
+    this.waterInterval = waterInterval;
+    this.water = water;
+  }
+
+  /**
+   * Retrieves the name of the plant to update.
+   *
+   * @return The name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Retrieves the new phase of the plant.
+   *
+   * @return The phase, or null to keep the current phase.
+   */
+  public String getPhase() {
+    return phase;
+  }
+
+  /**
+   * Retrieves the new water interval of the plant.
+   *
+   * @return The water interval, or null to keep the current one.
+   */
+  public Integer getWaterInterval() {
+    return waterInterval;
+  }
+
+  /**
+   * Checks if the plant should be watered.
+   *
+   * @return True if the plant should be watered, false otherwise.
+   */
+  public boolean isWater() {
+    return water;
+  }
+}
@@ -0,0 +1,60 @@
+package core;
+
+/**
+ * The `PlantPhase` enum represents the growth phases a plant goes through, in order.
+ * Each phase has the display name that is shown in the app and written to JSON.
+ */
+public enum PlantPhase {
+  SEED("Seed"),
+  YOUNG_PLANT("Young plant"),
+  GROWN_PLANT("Grown plant");
+
+  private static final PlantPhase[] PHASES = values();
+
+  private final String displayName;
+
+  /**
+   * Constructs a growth phase with the given display name.
+   *
+   * @param displayName The name of the phase, as shown to the user.
+   */
+  PlantPhase(String displayName) {
+    this.displayName = displayName;
+  }
+
+  /**
+   * Checks if this phase comes before another phase, i.e. if changing a plant
+   * from the other phase to this one would be a downgrade.
+   *
+   * @param other The phase to compare with.
+   * @return true if this phase comes before the other phase, false otherwise.
+   */
+  public boolean isBefore(PlantPhase other) {
+    return ordinal() < other.ordinal();
+  }
+
+  /**
+   * Finds the phase with the given display name.
+   *
+   * @param phase The display name of the phase, like "Young plant".
+   * @return The matching phase, or null if there is no phase with that name.
+   */
+  public static PlantPhase fromString(String phase) {
+    for (PlantPhase plantPhase : PHASES) {
+      if (plantPhase.displayName.equals(phase)) {
+        return plantPhase;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the display name of the phase.
+   *
+   * @return The display name of the phase, like "Young plant".
+   */
+  @Override
+  public String toString() {
+    return displayName;
+  }
+}
@@ -0,0 +1,275 @@
+package core;
+
+/**
+ * The `PlantQuery` class describes a page of plants to read from an overview: which plants
+ * to include, which order to list them in, and where the page starts. Pages are found with
+ * cursors instead of offsets: the cursor of a page tells where the previous page ended, so
+ * plants that are added or deleted meanwhile don't make the next page skip or repeat plants.
+ *
+ * <p>A query is built with `builder()`, and is evaluated by
+ * `ImmutablePlantOverview.query`, which uses the index of the sort order to find the page
+ * without visiting the plants before it.</p>
+ */
+public final class PlantQuery {
+
+  /**
+   * The default number of plants in a page.
+   */
+  public static final int DEFAULT_LIMIT = 100;
+
+  /**
+   * The highest number of plants in a page.
+   */
+  public static final int MAX_LIMIT = 1000;
+
+  /**
+   * Which plants to include, by whether they need water.
+   */
+  public enum Watering {
+    ANY,
+    NEEDS_WATER,
+    HYDRATED
+  }
+
+  /**
+   * The orders plants can be listed in.
+   */
+  public enum Sort {
+    /** The order the plants were added in. */
+    INSERTION,
+    /** By name. */
+    NAME,
+    /** By when they next need water, the plants that have needed it longest first. */
+    NEXT_WATERING
+  }
+
+  private final PlantPhase phase;
+  private final Watering watering;
+  private final String namePrefix;
+  private final Sort sort;
+  private final String cursor;
+  private final int limit;
+
+  private PlantQuery(Builder builder) {
+    this.phase = builder.phase;
+    this.watering = builder.watering;
+    this.namePrefix = builder.namePrefix;
+    this.sort = builder.sort;
+    this.cursor = builder.cursor;
+    this.limit = builder.limit;
+  }
+
+  /**
+   * Returns a builder for a query, which by default includes all plants, in insertion order,
+   * from the first page.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns a query for one of the filters of the app, like "Seed" or "Needs water", that
+   * includes the same plants as `PlantOverview.filterPlantOverview` does.
+   *
+   * @param filter the name of the filter, or null for all plants
+   * @return a builder for the query
+   */
+  public static Builder forFilter(String filter) {
+    Builder builder = builder();
+    PlantPhase filterPhase = PlantPhase.fromString(filter);
+    if (filterPhase != null) {
+      builder.phase(filterPhase);
+    } else if ("Needs water".equals(filter)) {
+      builder.watering(Watering.NEEDS_WATER);
+    } else if ("Is hydrated".equals(filter)) {
+      builder.watering(Watering.HYDRATED);
+    }
+    return builder;
+  }
+
+  /**
+   * Returns a builder for the query of the page after a page of this query.
+   *
+   * @param nextCursor the cursor of the next page
+   * @return a builder for the same query, from the cursor
+   */
+  public Builder next(String nextCursor) {
+    return builder().phase(phase).watering(watering).namePrefix(namePrefix).sort(sort)
+        .limit(limit).cursor(nextCursor);
+  }
+
+  /**
+   * Retrieves the phase of the plants to include.
+   *
+   * @return the phase, or null for all phases
+   */
+  public PlantPhase getPhase() {
+    return phase;
+  }
+
+  /**
+   * Retrieves which plants to include by whether they need water.
+   *
+   * @return the watering filter
+   */
+  public Watering getWatering() {
+    return watering;
+  }
+
+  /**
+   * Retrieves the prefix of the names of the plants to include.
+   *
+   * @return the prefix, or null for all names
+   */
+  public String getNamePrefix() {
+    return namePrefix;
+  }
+
+  /**
+   * Retrieves the order to list the plants in.
+   *
+   * @return the order
+   */
+  public Sort getSort() {
+    return sort;
+  }
+
+  /**
+   * Retrieves where the page starts.
+   *
+   * @return the cursor of the previous page, or null for the first page
+   */
+  public String getCursor() {
+    return cursor;
+  }
+
+  /**
+   * Retrieves the highest number of plants in the page.
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Checks if a plant is included by the filters of the query. The order and cursor are
+   * not checked.
+   *
+   * @param plant the plant
+   * @param now the time to check if the plant needs water at
+   * @return true if the plant is included, false otherwise
+   */
+  public boolean matches(Plant plant, long now) {
+    if (phase != null && plant.getPlantPhase() != phase) {
+      return false;
+    }
+    if (namePrefix != null && !plant.getName().startsWith(namePrefix)) {
+      return false;
+    }
+    switch (watering) {
+      case NEEDS_WATER:
+        return plant.needsWater(now);
+      case HYDRATED:
+        return !plant.needsWater(now);
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * A builder for a query.
+   */
+  public static final class Builder {
+    private PlantPhase phase;
+    private Watering watering = Watering.ANY;
+    private String namePrefix;
+    private Sort sort = Sort.INSERTION;
+    private String cursor;
+    private int limit = DEFAULT_LIMIT;
+
+    private Builder() {
+    }
+
+    /**
+     * Only includes plants in a phase.
+     *
+     * @param phase the phase, or null for all phases
+     * @return this builder
+     */
+    public Builder phase(PlantPhase phase) {
+      this.phase = phase;
+      return this;
+    }
+
+    /**
+     * Only includes plants by whether they need water.
+     *
+     * @param watering the watering filter
+     * @return this builder
+     */
+    public Builder watering(Watering watering) {
+      this.watering = watering == null ? Watering.ANY : watering;
+      return this;
+    }
+
+    /**
+     * Only includes plants whose names start with a prefix.
+     *
+     * @param namePrefix the prefix, or null or empty for all names
+     * @return this builder
+     */
+    public Builder namePrefix(String namePrefix) {
+      this.namePrefix = namePrefix == null || namePrefix.isEmpty() ? null : namePrefix;
+      return this;
+    }
+
+    /**
+     * Sets the order to list the plants in.
+     *
+     * @param sort the order
+     * @return this builder
+     */
+    public Builder sort(Sort sort) {
+      this.sort = sort == null ? Sort.INSERTION : sort;
+      return this;
+    }
+
+    /**
+     * Starts the page after the page a cursor came from.
+     *
+     * @param cursor the cursor of the previous page, or null or empty for the first page
+     * @return this builder
+     */
+    public Builder cursor(String cursor) {
+      this.cursor = cursor == null || cursor.isEmpty() ? null : cursor;
+      return this;
+    }
+
+    /**
+     * Sets the highest number of plants in the page.
+     *
+     * @param limit the limit, from 1 to MAX_LIMIT
+     * @return this builder
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public Builder limit(int limit) {
+      if (limit < 1 || limit > MAX_LIMIT) {
+        throw new IllegalArgumentException("The limit must be from 1 to " + MAX_LIMIT);
+      }
+      this.limit = limit;
+      return this;
+    }
+
+    /**
+     * Builds the query.
+     *
+     * @return the query
+     */
+    public PlantQuery build() {
+      return new PlantQuery(this);
+    }
+  }
+}
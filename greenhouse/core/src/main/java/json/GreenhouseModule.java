@@ -1,14 +1,23 @@
 package json;
 
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import core.ImmutablePlantOverview;
 import core.Plant;
+import core.PlantBatchResult;
+import core.PlantChange;
 import core.PlantOverview;
+import core.PlantOverviewDelta;
+import core.PlantOperation;
+import core.PlantPage;
+import core.PlantPatch;
 
 /**
  * A custom Jackson module for serializing and deserializing greenhouse-related objects.
  * This class extends Jackson's `SimpleModule` and is designed to be used 
  * with Jackson's ObjectMapper to handle the serialization and 
- * deserialization of `Plant` and `PlantOverview` objects in a JSON format.
+ * deserialization of `Plant`, `PlantOverview`, `PlantChange`, `PlantOverviewDelta`,
+ * `PlantPage`, `PlantOperation`, `PlantBatchResult` and `PlantPatch` objects in a JSON
+ * format. An `ImmutablePlantOverview` is written like a `PlantOverview`, and read back as one.
  * It registers custom serializers and deserializers for these classes.
  */
 public class GreenhouseModule extends SimpleModule {
@@ -18,18 +27,33 @@ public class GreenhouseModule extends SimpleModule {
   * Constructs a new GreenhouseModule with custom serializers and deserializers.
   * The module is configured with a name and version information. 
   * It also registers custom serializers
-  * and deserializers for the `Plant` and `PlantOverview` classes.
+  * and deserializers for the `Plant`, `PlantOverview`, `PlantChange`,
+  * `PlantOverviewDelta`, `PlantPage`, `PlantOperation`, `PlantBatchResult` and
+  * `PlantPatch` classes.
   */
   
   public GreenhouseModule() {
     super(NAME);
-    // Register custom serializers for Plant and PlantOverview
+    // Register custom serializers for the greenhouse classes
     addSerializer(Plant.class, new PlantSerializer());
     addSerializer(PlantOverview.class, new PlantOverviewSerializer());
+    addSerializer(ImmutablePlantOverview.class, new ImmutablePlantOverviewSerializer());
+    addSerializer(PlantChange.class, new PlantChangeSerializer());
+    addSerializer(PlantOverviewDelta.class, new PlantOverviewDeltaSerializer());
+    addSerializer(PlantPage.class, new PlantPageSerializer());
+    addSerializer(PlantOperation.class, new PlantOperationSerializer());
+    addSerializer(PlantBatchResult.class, new PlantBatchResultSerializer());
+    addSerializer(PlantPatch.class, new PlantPatchSerializer());
 
-    // Register custom deserializers for Plant and PlantOverview
+    // Register custom deserializers for the greenhouse classes
     addDeserializer(Plant.class, new PlantDeserializer());
     addDeserializer(PlantOverview.class, new PlantOverviewDeserializer());
+    addDeserializer(PlantChange.class, new PlantChangeDeserializer());
+    addDeserializer(PlantOverviewDelta.class, new PlantOverviewDeltaDeserializer());
+    addDeserializer(PlantPage.class, new PlantPageDeserializer());
+    addDeserializer(PlantOperation.class, new PlantOperationDeserializer());
+    addDeserializer(PlantBatchResult.class, new PlantBatchResultDeserializer());
+    addDeserializer(PlantPatch.class, new PlantPatchDeserializer());
   }
     
 } 
\ No newline at end of file
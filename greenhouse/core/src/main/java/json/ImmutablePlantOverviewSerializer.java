@@ -0,0 +1,29 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import core.ImmutablePlantOverview;
+import java.io.IOException;
+
+/**
+ * Serializer for converting an ImmutablePlantOverview to the same JSON representation as a
+ * PlantOverview with the same plants and version. The plants are written straight from the
+ * persistent map of the version, without building the indexes of a PlantOverview first.
+ */
+public class ImmutablePlantOverviewSerializer extends JsonSerializer<ImmutablePlantOverview> {
+  /**
+   * Serialize an ImmutablePlantOverview to a JSON representation, like the
+   * PlantOverviewSerializer does for a PlantOverview.
+   *
+   * @param overview    The ImmutablePlantOverview to be serialized.
+   * @param jsonGen     The JsonGenerator used to write the JSON data.
+   * @param serializers The SerializerProvider for handling serialization operations.
+   * @throws IOException If an I/O error occurs during JSON writing.
+   */
+  @Override
+  public void serialize(ImmutablePlantOverview overview, JsonGenerator jsonGen,
+      SerializerProvider serializers) throws IOException {
+    PlantOverviewSerializer.serialize(overview, overview.getVersion(), jsonGen, serializers);
+  }
+}
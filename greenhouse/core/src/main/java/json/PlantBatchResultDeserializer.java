@@ -0,0 +1,111 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import core.Plant;
+import core.PlantBatchResult;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom JSON deserializer for deserializing a JSON representation of a PlantBatchResult
+ * object, as written by the PlantBatchResultSerializer. An outcome that cannot be read is
+ * reported as an error, since the outcomes are matched with the operations by their order.
+ */
+public class PlantBatchResultDeserializer extends JsonDeserializer<PlantBatchResult> {
+
+  private PlantDeserializer plantDeserializer = new PlantDeserializer();
+
+  /**
+    * Deserializes a JSON representation of a PlantBatchResult object, by walking the tokens
+    * of the provided JsonParser.
+    *
+    * @param p     The JsonParser used to read the JSON data.
+    * @param ctxt  The DeserializationContext for handling deserialization operations.
+    * @return      A PlantBatchResult object deserialized from the JSON data.
+    * @throws IOException If an I/O error occurs during JSON parsing, or if the result is
+    *     invalid.
+    */
+  @Override
+  public PlantBatchResult deserialize(JsonParser p, DeserializationContext ctxt)
+      throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      return ctxt.reportInputMismatch(PlantBatchResult.class, "Expected a batch result object");
+    }
+    boolean applied = false;
+    long version = -1;
+    List<PlantBatchResult.Outcome> outcomes = new ArrayList<>();
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      switch (fieldName) {
+        case "Applied":
+          applied = token == JsonToken.VALUE_TRUE;
+          break;
+        case "Version":
+          version = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : -1;
+          break;
+        case "Results":
+          outcomes.clear();
+          if (token != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            break;
+          }
+          while (p.nextToken() != JsonToken.END_ARRAY) {
+            outcomes.add(deserializeOutcome(p, ctxt));
+          }
+          break;
+        default:
+          p.skipChildren();
+          break;
+      }
+    }
+    if (version < 0) {
+      return ctxt.reportInputMismatch(PlantBatchResult.class,
+          "A batch result needs the version of the overview");
+    }
+    return new PlantBatchResult(applied, version, outcomes);
+  }
+
+  private PlantBatchResult.Outcome deserializeOutcome(JsonParser p, DeserializationContext ctxt)
+      throws IOException {
+    if (p.currentToken() != JsonToken.START_OBJECT) {
+      return ctxt.reportInputMismatch(PlantBatchResult.class, "Expected an outcome object");
+    }
+    String status = null;
+    Plant plant = null;
+    String message = null;
+    for (JsonToken token = p.nextToken(); token == JsonToken.FIELD_NAME;
+        token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      switch (fieldName) {
+        case "Status":
+          status = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Plant":
+          plant = plantDeserializer.deserialize(p, ctxt);
+          break;
+        case "Message":
+          message = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        default:
+          p.skipChildren();
+          break;
+      }
+    }
+    try {
+      return new PlantBatchResult.Outcome(
+          status != null ? PlantBatchResult.Status.valueOf(status) : null, plant, message);
+    } catch (IllegalArgumentException e) {
+      return ctxt.reportInputMismatch(PlantBatchResult.class, "Invalid outcome: %s",
+          e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import core.PlantBatchResult;
+import java.io.IOException;
+
+/**
+ * Serializer for converting a PlantBatchResult object to a JSON representation.
+ * It writes a JSON object with an "Applied" field telling if the batch was applied, a
+ * "Version" field with the version of the overview after it, and a "Results" field with an
+ * array of the outcomes of the operations, in order. Every outcome has a "Status", and a
+ * "Plant" with the plant after the operation or a "Message" telling why it failed.
+ */
+public class PlantBatchResultSerializer extends JsonSerializer<PlantBatchResult> {
+
+  /**
+  * Serialize a PlantBatchResult object to a JSON representation.
+  *
+  * @param result      The PlantBatchResult object to be serialized.
+  * @param gen         The JsonGenerator used to write the JSON data.
+  * @param serializers The SerializerProvider for handling serialization operations.
+  * @throws IOException If an I/O error occurs during JSON writing.
+  */
+  @Override
+  public void serialize(PlantBatchResult result, JsonGenerator gen,
+      SerializerProvider serializers) throws IOException {
+    gen.writeStartObject();
+    gen.writeBooleanField("Applied", result.isApplied());
+    gen.writeNumberField("Version", result.getVersion());
+    gen.writeArrayFieldStart("Results");
+    for (PlantBatchResult.Outcome outcome : result.getOutcomes()) {
+      gen.writeStartObject();
+      gen.writeStringField("Status", outcome.getStatus().name());
+      if (outcome.getPlant() != null) {
+        gen.writeFieldName("Plant");
+        serializers.defaultSerializeValue(outcome.getPlant(), gen);
+      }
+      if (outcome.getMessage() != null) {
+        gen.writeStringField("Message", outcome.getMessage());
+      }
+      gen.writeEndObject();
+    }
+    gen.writeEndArray();
+    gen.writeEndObject();
+  }
+}
@@ -0,0 +1,69 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import core.Plant;
+import core.PlantChange;
+import java.io.IOException;
+
+/**
+ * Custom JSON deserializer for deserializing a JSON representation of a PlantChange object,
+ * as written by the PlantChangeSerializer. Unlike plants, changes are never skipped:
+ * a change that cannot be read is reported as an error.
+ */
+public class PlantChangeDeserializer extends JsonDeserializer<PlantChange> {
+
+  private PlantDeserializer plantDeserializer = new PlantDeserializer();
+
+  /**
+    * Deserializes a JSON representation of a PlantChange object, by walking the tokens
+    * of the provided JsonParser.
+    *
+    * @param p     The JsonParser used to read the JSON data.
+    * @param ctxt  The DeserializationContext for handling deserialization operations.
+    * @return      A PlantChange object deserialized from the JSON data.
+    * @throws IOException If an I/O error occurs during JSON parsing, or if the change is invalid.
+    */
+  @Override
+  public PlantChange deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      return ctxt.reportInputMismatch(PlantChange.class, "Expected a change object");
+    }
+    String type = null;
+    String name = null;
+    Plant plant = null;
+    long version = 0;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      switch (fieldName) {
+        case "Change":
+          type = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Name":
+          name = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Version":
+          version = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : 0;
+          break;
+        case "Plant":
+          plant = plantDeserializer.deserialize(p, ctxt);
+          break;
+        default:
+          p.skipChildren();
+          break;
+      }
+    }
+    try {
+      return PlantChange.of(type != null ? PlantChange.Type.valueOf(type) : null, name, plant,
+          version);
+    } catch (IllegalArgumentException e) {
+      return ctxt.reportInputMismatch(PlantChange.class, "Invalid change: %s", e.getMessage());
+    }
+  }
+}
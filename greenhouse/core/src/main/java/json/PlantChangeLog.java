@@ -0,0 +1,283 @@
+package json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import core.PlantChange;
+import core.PlantOverview;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The `PlantChangeLog` class is an append-only log of the changes made to a PlantOverview
+ * since it was last saved. Each change is written as one line of compact JSON, so the cost
+ * of logging a change only depends on the size of the change. On startup the changes are
+ * replayed on top of the last saved overview, and once the overview has been saved again,
+ * the log is cleared, which compacts the changes into the saved file.
+ *
+ * <p>To save the overview without stopping changes from being logged, the log can be rotated
+ * when the overview to save is taken. The rotated changes are kept in a file next to the log
+ * until `dropRotated` is called after the save. Since every change holds the state of its
+ * plant after the change, replaying rotated changes that were already saved is harmless.</p>
+ */
+public class PlantChangeLog implements Closeable {
+
+  /**
+   * When the log is forced to disk.
+   */
+  public enum SyncPolicy {
+    /**
+     * After every change, so no acknowledged change is lost if the machine crashes.
+     */
+    ALWAYS,
+
+    /**
+     * After a change, if the sync interval has passed since the log was last forced.
+     * Changes since then may be lost if the machine crashes, but not if only the app does.
+     */
+    PERIODIC,
+
+    /**
+     * Never, leaving it to the operating system.
+     */
+    NEVER
+  }
+
+  private final Path logFile;
+  private final Path rotatedFile;
+  private final SyncPolicy syncPolicy;
+  private final long syncIntervalMillis;
+  private final ObjectMapper mapper;
+  private final ObjectWriter writer;
+
+  private FileChannel channel;
+  private long lastSyncTime;
+  private int size;
+
+  /**
+   * Constructs a log in the given file. The file is not created until the first change
+   * is appended.
+   *
+   * @param logFile            The file of the log.
+   * @param syncPolicy         When the log is forced to disk.
+   * @param syncIntervalMillis The time between forcing the log to disk with the PERIODIC policy.
+   */
+  public PlantChangeLog(Path logFile, SyncPolicy syncPolicy, long syncIntervalMillis) {
+    if (logFile == null || syncPolicy == null) {
+      throw new IllegalArgumentException("The log needs a file and a sync policy");
+    }
+    this.logFile = logFile;
+    this.rotatedFile = logFile.resolveSibling(logFile.getFileName() + ".old");
+    this.syncPolicy = syncPolicy;
+    this.syncIntervalMillis = syncIntervalMillis;
+    this.mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+    this.writer = mapper.writer().withAttribute(PlantFileFormat.class, PlantFileFormat.COMPACT);
+  }
+
+  /**
+   * Applies the changes in the log to an overview, in the order they were appended, starting
+   * with rotated changes that have not been dropped. A last line without a line break was
+   * torn by a crash while it was being written, so it is ignored and removed from the log.
+   *
+   * @param overview The overview to apply the changes to, usually the last saved overview.
+   * @return The number of changes that were applied.
+   * @throws IOException If the log could not be read, or if a complete line is not a change.
+   */
+  public synchronized int replay(PlantOverview overview) throws IOException {
+    int rotated = replay(rotatedFile, overview);
+    int count = replay(logFile, overview);
+    size += count;
+    return rotated + count;
+  }
+
+  /**
+   * Applies the changes in a file to an overview.
+   *
+   * @param file     The file with the changes.
+   * @param overview The overview to apply the changes to.
+   * @return The number of changes that were applied.
+   * @throws IOException If the file could not be read, or if a complete line is not a change.
+   */
+  private int replay(Path file, PlantOverview overview) throws IOException {
+    byte[] bytes;
+    try {
+      bytes = Files.readAllBytes(file);
+    } catch (NoSuchFileException e) {
+      return 0;
+    }
+    int count = 0;
+    int start = 0;
+    for (int end = indexOf(bytes, '\n', start); end >= 0; end = indexOf(bytes, '\n', start)) {
+      if (end > start) {
+        PlantChange change = mapper.readValue(bytes, start, end - start, PlantChange.class);
+        change.applyTo(overview);
+        count++;
+      }
+      start = end + 1;
+    }
+    if (start < bytes.length) {
+      System.err.println("Ignoring torn change at the end of " + file + ": "
+          + new String(bytes, start, bytes.length - start, StandardCharsets.UTF_8));
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(start);
+        channel.force(false);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Appends a change to the log, and forces it to disk according to the sync policy.
+   *
+   * @param change The change to append.
+   * @throws IOException If the change could not be written.
+   */
+  public synchronized void append(PlantChange change) throws IOException {
+    appendAll(List.of(change));
+  }
+
+  /**
+   * Appends changes to the log with one write, and forces them to disk according to the
+   * sync policy, so a batch of changes costs at most one sync.
+   *
+   * @param changes The changes to append, in order.
+   * @throws IOException If the changes could not be written.
+   */
+  public synchronized void appendAll(List<PlantChange> changes) throws IOException {
+    ByteArrayOutputStream lines = new ByteArrayOutputStream();
+    for (PlantChange change : changes) {
+      lines.write(writer.writeValueAsBytes(change));
+      lines.write('\n');
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+    FileChannel channel = channel();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    size += changes.size();
+    long now = System.currentTimeMillis();
+    if (syncPolicy == SyncPolicy.ALWAYS
+        || syncPolicy == SyncPolicy.PERIODIC && now - lastSyncTime >= syncIntervalMillis) {
+      channel.force(false);
+      lastSyncTime = now;
+    }
+  }
+
+  /**
+   * Removes all changes from the log, including rotated ones. This should only be done once
+   * the overview with the changes has been saved.
+   *
+   * @throws IOException If the log could not be cleared.
+   */
+  public synchronized void clear() throws IOException {
+    if (channel != null) {
+      channel.truncate(0);
+      channel.force(false);
+    } else if (Files.exists(logFile)) {
+      try (FileChannel file = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+        file.truncate(0);
+        file.force(false);
+      }
+    }
+    Files.deleteIfExists(rotatedFile);
+    size = 0;
+  }
+
+  /**
+   * Moves the changes in the log aside, so that changes appended from now on are kept apart
+   * from them. This is done when the overview to save is taken, and the rotated changes are
+   * dropped once it has been saved. If rotated changes from an earlier save that failed have
+   * not been dropped, the log is left as it is, and all its changes are kept until the next
+   * save after this one.
+   *
+   * @throws IOException If the log could not be rotated.
+   */
+  public synchronized void rotate() throws IOException {
+    if (Files.exists(rotatedFile)) {
+      return;
+    }
+    close();
+    if (Files.exists(logFile)) {
+      Files.move(logFile, rotatedFile, StandardCopyOption.ATOMIC_MOVE);
+    }
+    size = 0;
+  }
+
+  /**
+   * Deletes the rotated changes, once the overview taken when the log was rotated has
+   * been saved.
+   *
+   * @throws IOException If the rotated changes could not be deleted.
+   */
+  public synchronized void dropRotated() throws IOException {
+    Files.deleteIfExists(rotatedFile);
+  }
+
+  /**
+   * Returns the number of changes in the log, both replayed and appended, since it was
+   * last cleared or rotated.
+   *
+   * @return The number of changes in the log.
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Forces the log to disk and closes it.
+   *
+   * @throws IOException If the log could not be forced to disk or closed.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null) {
+      try {
+        channel.force(false);
+      } finally {
+        channel.close();
+        channel = null;
+      }
+    }
+  }
+
+  /**
+   * Opens the log for appending, the first time a change is appended.
+   *
+   * @return The channel to append to.
+   * @throws IOException If the log could not be opened.
+   */
+  private FileChannel channel() throws IOException {
+    if (channel == null) {
+      channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.APPEND);
+    }
+    return channel;
+  }
+
+  /**
+   * Finds the next occurrence of a byte.
+   *
+   * @param bytes The bytes to search.
+   * @param b     The byte to find.
+   * @param start The index to start searching from.
+   * @return The index of the byte, or -1 if it does not occur.
+   */
+  private static int indexOf(byte[] bytes, char b, int start) {
+    for (int i = start; i < bytes.length; i++) {
+      if (bytes[i] == b) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,41 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import core.Plant;
+import core.PlantChange;
+import java.io.IOException;
+
+/**
+ * Serializer for converting a PlantChange object to a JSON representation.
+ * It writes a JSON object with "Change" and "Name" fields, and for changes other than
+ * deletes, a "Plant" field with the state of the plant after the change, which holds the
+ * version of the change. A versioned delete has a "Version" field instead.
+ */
+public class PlantChangeSerializer extends JsonSerializer<PlantChange> {
+
+  /**
+  * Serialize a PlantChange object to a JSON representation.
+  *
+  * @param change      The PlantChange object to be serialized.
+  * @param gen         The JsonGenerator used to write the JSON data.
+  * @param serializers The SerializerProvider for handling serialization operations.
+  * @throws IOException If an I/O error occurs during JSON writing.
+  */
+  @Override
+  public void serialize(PlantChange change, JsonGenerator gen, SerializerProvider serializers)
+      throws IOException {
+    gen.writeStartObject();
+    gen.writeStringField("Change", change.getType().name());
+    gen.writeStringField("Name", change.getName());
+    Plant plant = change.getPlant();
+    if (plant != null) {
+      gen.writeFieldName("Plant");
+      serializers.defaultSerializeValue(plant, gen);
+    } else if (change.getVersion() > 0) {
+      gen.writeNumberField("Version", change.getVersion());
+    }
+    gen.writeEndObject();
+  }
+}
@@ -2,15 +2,18 @@ package json;
 
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberInput;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NumericNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import core.DateCodec;
 import core.Plant;
 import java.io.IOException;
-import java.util.Date;
 
 /**
  * Custom JSON deserializer for deserializing a JSON representation of a Plant object.
@@ -21,21 +24,69 @@ public class PlantDeserializer extends JsonDeserializer<Plant> {
 
   /**
     * Deserializes a JSON representation of a Plant object.
-    * This method is used to deserialize a JSON object into a Plant instance. It reads
-    * the JSON data from the provided JsonParser, converts it to a JsonNode, and then
-    * delegates the actual deserialization to the `deserialize(JsonNode)` method.
+    * This method is used to deserialize a JSON object into a Plant instance. It walks
+    * the tokens of the provided JsonParser directly, without reading the object into a
+    * JsonNode first, and accepts the same fields as the `deserialize(JsonNode)` method.
+    * The name and phase must be strings, and the other fields may also be integers, as in
+    * the compact PlantFileFormat. Other values are skipped, as are unknown fields.
     *
     * @param p     The JsonParser used to read the JSON data.
     * @param ctxt  The DeserializationContext for handling deserialization operations.
-    * @return      A Plant object deserialized from the JSON data.
-    * @throws IOException      If an I/O error occurs during JSON parsing.
+    * @return      A Plant object deserialized from the JSON data, or null.
+    * @throws IOException      If an I/O error occurs during JSON parsing, or if a date is invalid.
     * @throws JacksonException If a Jackson-specific exception occurs during deserialization.
     */
   @Override
   public Plant deserialize(JsonParser p, DeserializationContext ctxt) 
       throws IOException, JacksonException {
-    TreeNode node = p.getCodec().readTree(p);
-    return deserialize((JsonNode) node);
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      p.skipChildren();
+      return null;
+    }
+    String name = null;
+    String phase = null;
+    String waterInterval = null;
+    String lastWatered = null;
+    String creationDate = null;
+    String version = null;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      JsonToken valueToken = p.nextToken();
+      if (valueToken != JsonToken.VALUE_STRING && valueToken != JsonToken.VALUE_NUMBER_INT) {
+        p.skipChildren();
+        continue;
+      }
+      switch (fieldName) {
+        case "Name":
+          name = valueToken == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Phase":
+          phase = valueToken == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Water interval":
+          waterInterval = p.getText();
+          break;
+        case "Last watered":
+          lastWatered = p.getText();
+          break;
+        case "Creation date":
+          creationDate = p.getText();
+          break;
+        case "Version":
+          version = p.getText();
+          break;
+        default:
+          break;
+      }
+    }
+    try {
+      return createPlant(name, phase, waterInterval, lastWatered, creationDate, version);
+    } catch (IllegalArgumentException e) {
+      throw JsonMappingException.from(p, e.getMessage(), e);
+    }
   }
 
   /**
@@ -48,53 +99,90 @@ public class PlantDeserializer extends JsonDeserializer<Plant> {
     *     "Water interval": "...",
     *     "Last watered": "...",
     *     "Creation date": "...",
+    *     "Version": ...,
     * }
+    * where the version is optional.
     *
     * @param node The JsonNode representing the Plant object.
     * @return A Plant object deserialized from the JsonNode, or null.
+    * @throws IllegalArgumentException If a date of an otherwise valid plant is invalid.
     */
   public Plant deserialize(JsonNode node) {
-    String name = "";
-    String phase = "";
-    int waterInterval = 0;
-    Date lastWatered = new Date();
-    Date creationDate = new Date();
-    
-      
     if (node instanceof ObjectNode objectNode) {
-    
-      JsonNode nameNode = objectNode.get("Name");
-      if (nameNode instanceof TextNode) {
-        name = nameNode.asText();
-      }
+      return createPlant(stringValue(objectNode.get("Name")),
+          stringValue(objectNode.get("Phase")),
+          textValue(objectNode.get("Water interval")), textValue(objectNode.get("Last watered")),
+          textValue(objectNode.get("Creation date")), textValue(objectNode.get("Version")));
+    }
+    return null;
+  }
 
-      JsonNode phaseNode = objectNode.get("Phase");
-      if (phaseNode instanceof TextNode) {
-        phase = phaseNode.asText();
-      }
+  /**
+   * Returns the text of a node, if it is a text node.
+   *
+   * @param node The node, or null if the field is missing.
+   * @return The text of the node, or null if the node is not text.
+   */
+  private static String stringValue(JsonNode node) {
+    return node instanceof TextNode ? node.asText() : null;
+  }
 
-      JsonNode waterNode = objectNode.get("Water interval");
-      if (waterNode instanceof TextNode) {
-        waterInterval = waterNode.asInt();
-      }
-      
-      JsonNode lastWateredNode = objectNode.get("Last watered");
-      if (lastWateredNode instanceof TextNode) {
-        String lastWateredString = lastWateredNode.asText();
-        lastWatered = Plant.fromStringToDate(lastWateredString);
-      }
+  /**
+   * Returns the text of a node, if it is a text node or an integer, as written
+   * in the compact PlantFileFormat.
+   *
+   * @param node The node, or null if the field is missing.
+   * @return The text of the node, or null if the node is neither text nor an integer.
+   */
+  private static String textValue(JsonNode node) {
+    return node instanceof TextNode || node instanceof NumericNode && node.isIntegralNumber()
+        ? node.asText() : null;
+  }
 
-      JsonNode creationDateNode = objectNode.get("Creation date");
-      if (creationDateNode instanceof TextNode) {
-        String creationDateString = creationDateNode.asText();
-        creationDate = Plant.fromStringToDate(creationDateString);
-      }
-      Plant p = new Plant(name, phase, waterInterval, creationDate);
-      p.setLastWatered(lastWatered);
-      if (!name.isEmpty() && !phase.isEmpty() && waterInterval != 0) {
-        return p;
+  /**
+   * Creates a plant from the text of its fields, in either PlantFileFormat. The plant is only
+   * created if it has a name, a phase and a water interval, and missing dates are set to the
+   * current time.
+   *
+   * @param name          The name of the plant, or null.
+   * @param phase         The phase of the plant, or null.
+   * @param waterInterval The water interval of the plant, or null.
+   * @param lastWatered   The date the plant was last watered, or null.
+   * @param creationDate  The creation date of the plant, or null.
+   * @param version       The version of the plant, or null.
+   * @return The plant, or null if a required field is missing.
+   * @throws IllegalArgumentException If one of the dates is invalid.
+   */
+  private static Plant createPlant(String name, String phase, String waterInterval,
+      String lastWatered, String creationDate, String version) {
+    int interval = waterInterval != null ? NumberInput.parseAsInt(waterInterval, 0) : 0;
+    if (name == null || name.isEmpty() || phase == null || phase.isEmpty() || interval == 0) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    long creationTime = creationDate != null ? parseDate(creationDate) : now;
+    long lastWateredTime = lastWatered != null ? parseDate(lastWatered) : now;
+    Plant plant = new Plant(name, phase, interval, creationTime, lastWateredTime);
+    if (version != null) {
+      plant.setVersion(NumberInput.parseAsLong(version, 0));
+    }
+    return plant;
+  }
+
+  /**
+   * Parses a date, which is either a "yyyy-MM-dd HH:mm:ss" date or, in the compact
+   * PlantFileFormat, a number of milliseconds since the epoch.
+   *
+   * @param date The text of the date.
+   * @return The date, in milliseconds since the epoch.
+   * @throws IllegalArgumentException If the date is invalid.
+   */
+  private static long parseDate(String date) {
+    for (int i = date.startsWith("-") ? 1 : 0; i < date.length(); i++) {
+      if (!Character.isDigit(date.charAt(i))) {
+        return DateCodec.systemDefault().parse(date);
       }
     }
-    return null;
+    return Long.parseLong(date);
   }
 }
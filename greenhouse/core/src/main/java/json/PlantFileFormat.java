@@ -0,0 +1,40 @@
+package json;
+
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * The formats a PlantOverview can be written in by PlantPersistence. The format is passed to
+ * the serializers as an attribute of the ObjectWriter, and the deserializers read both formats.
+ */
+public enum PlantFileFormat {
+  /**
+   * Indented JSON with the water interval and the dates as text, like "2023-01-01 00:00:00".
+   */
+  PRETTY,
+
+  /**
+   * JSON without indentation, with the water interval as a number and the dates as
+   * milliseconds since the epoch, marked with a "Format version" field.
+   */
+  COMPACT;
+
+  /**
+   * The name of the field that holds the version of the compact format.
+   */
+  public static final String VERSION_FIELD = "Format version";
+
+  /**
+   * The version of the compact format written by this version of the app.
+   */
+  public static final int COMPACT_VERSION = 2;
+
+  /**
+   * Finds the format the serializers of a write should use.
+   *
+   * @param serializers The SerializerProvider of the write.
+   * @return The format set as an attribute of the writer, or PRETTY if none is set.
+   */
+  static PlantFileFormat of(SerializerProvider serializers) {
+    return serializers.getAttribute(PlantFileFormat.class) == COMPACT ? COMPACT : PRETTY;
+  }
+}
@@ -0,0 +1,87 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import core.PlantChange;
+import core.PlantOperation;
+import java.io.IOException;
+
+/**
+ * Custom JSON deserializer for deserializing a JSON representation of a PlantOperation
+ * object, as written by the PlantOperationSerializer. The water interval may also be a
+ * string, like in plants. An operation that cannot be read is reported as an error, since
+ * a batch is never partly applied.
+ */
+public class PlantOperationDeserializer extends JsonDeserializer<PlantOperation> {
+
+  /**
+    * Deserializes a JSON representation of a PlantOperation object, by walking the tokens
+    * of the provided JsonParser.
+    *
+    * @param p     The JsonParser used to read the JSON data.
+    * @param ctxt  The DeserializationContext for handling deserialization operations.
+    * @return      A PlantOperation object deserialized from the JSON data.
+    * @throws IOException If an I/O error occurs during JSON parsing, or if the operation is
+    *     invalid.
+    */
+  @Override
+  public PlantOperation deserialize(JsonParser p, DeserializationContext ctxt)
+      throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      return ctxt.reportInputMismatch(PlantOperation.class, "Expected an operation object");
+    }
+    String type = null;
+    String name = null;
+    String phase = null;
+    Integer waterInterval = null;
+    long version = PlantOperation.ANY_VERSION;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      switch (fieldName) {
+        case "Operation":
+          type = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Name":
+          name = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Phase":
+          phase = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Water interval":
+          if (token == JsonToken.VALUE_NUMBER_INT) {
+            waterInterval = p.getIntValue();
+          } else if (token == JsonToken.VALUE_STRING) {
+            try {
+              waterInterval = Integer.parseInt(p.getText().trim());
+            } catch (NumberFormatException e) {
+              return ctxt.reportInputMismatch(PlantOperation.class,
+                  "Invalid water interval %s", p.getText());
+            }
+          } else {
+            p.skipChildren();
+          }
+          break;
+        case "Version":
+          version = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue()
+              : PlantOperation.ANY_VERSION;
+          break;
+        default:
+          p.skipChildren();
+          break;
+      }
+    }
+    try {
+      return PlantOperation.of(type != null ? PlantChange.Type.valueOf(type) : null, name,
+          phase, waterInterval, version);
+    } catch (IllegalArgumentException e) {
+      return ctxt.reportInputMismatch(PlantOperation.class, "Invalid operation: %s",
+          e.getMessage());
+    }
+  }
+}
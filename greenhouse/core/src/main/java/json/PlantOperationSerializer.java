@@ -0,0 +1,42 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import core.PlantOperation;
+import java.io.IOException;
+
+/**
+ * Serializer for converting a PlantOperation object to a JSON representation.
+ * It writes a JSON object with "Operation" and "Name" fields, and "Phase" and
+ * "Water interval" fields for what the operation sets. A conditional operation has a
+ * "Version" field with the version the plant must have.
+ */
+public class PlantOperationSerializer extends JsonSerializer<PlantOperation> {
+
+  /**
+  * Serialize a PlantOperation object to a JSON representation.
+  *
+  * @param operation   The PlantOperation object to be serialized.
+  * @param gen         The JsonGenerator used to write the JSON data.
+  * @param serializers The SerializerProvider for handling serialization operations.
+  * @throws IOException If an I/O error occurs during JSON writing.
+  */
+  @Override
+  public void serialize(PlantOperation operation, JsonGenerator gen,
+      SerializerProvider serializers) throws IOException {
+    gen.writeStartObject();
+    gen.writeStringField("Operation", operation.getType().name());
+    gen.writeStringField("Name", operation.getName());
+    if (operation.getPhase() != null) {
+      gen.writeStringField("Phase", operation.getPhase());
+    }
+    if (operation.getWaterInterval() != null) {
+      gen.writeNumberField("Water interval", operation.getWaterInterval());
+    }
+    if (operation.getExpectedVersion() != PlantOperation.ANY_VERSION) {
+      gen.writeNumberField("Version", operation.getExpectedVersion());
+    }
+    gen.writeEndObject();
+  }
+}
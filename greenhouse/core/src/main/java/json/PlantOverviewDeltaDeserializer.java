@@ -0,0 +1,80 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import core.PlantChange;
+import core.PlantOverviewDelta;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom JSON deserializer for deserializing a JSON representation of a PlantOverviewDelta
+ * object, as written by the PlantOverviewDeltaSerializer. Like changes, a delta is never
+ * partly read: a delta with a change that cannot be read is reported as an error, since
+ * applying the rest of it would leave the overview different from the version it leads to.
+ */
+public class PlantOverviewDeltaDeserializer extends JsonDeserializer<PlantOverviewDelta> {
+
+  private PlantChangeDeserializer changeDeserializer = new PlantChangeDeserializer();
+
+  /**
+    * Deserializes a JSON representation of a PlantOverviewDelta object, by walking the tokens
+    * of the provided JsonParser.
+    *
+    * @param p     The JsonParser used to read the JSON data.
+    * @param ctxt  The DeserializationContext for handling deserialization operations.
+    * @return      A PlantOverviewDelta object deserialized from the JSON data.
+    * @throws IOException If an I/O error occurs during JSON parsing, or if the delta is invalid.
+    */
+  @Override
+  public PlantOverviewDelta deserialize(JsonParser p, DeserializationContext ctxt)
+      throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      return ctxt.reportInputMismatch(PlantOverviewDelta.class, "Expected a delta object");
+    }
+    long since = -1;
+    long version = -1;
+    List<PlantChange> changes = new ArrayList<>();
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      switch (fieldName) {
+        case "Since":
+          since = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : -1;
+          break;
+        case "Version":
+          version = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : -1;
+          break;
+        case "Changes":
+          changes.clear();
+          if (token != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            break;
+          }
+          while (p.nextToken() != JsonToken.END_ARRAY) {
+            changes.add(changeDeserializer.deserialize(p, ctxt));
+          }
+          break;
+        default:
+          p.skipChildren();
+          break;
+      }
+    }
+    if (since < 0 || version < 0) {
+      return ctxt.reportInputMismatch(PlantOverviewDelta.class,
+          "A delta needs the versions it goes between");
+    }
+    try {
+      return new PlantOverviewDelta(since, version, changes);
+    } catch (IllegalArgumentException e) {
+      return ctxt.reportInputMismatch(PlantOverviewDelta.class, "Invalid delta: %s",
+          e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import core.PlantChange;
+import core.PlantOverviewDelta;
+import java.io.IOException;
+
+/**
+ * Serializer for converting a PlantOverviewDelta object to a JSON representation.
+ * It writes a JSON object with "Since" and "Version" fields holding the versions the delta
+ * goes between, and a "Changes" field with an array of changes, as written by the
+ * PlantChangeSerializer. Deleted plants are delete changes with the version they were
+ * deleted in.
+ */
+public class PlantOverviewDeltaSerializer extends JsonSerializer<PlantOverviewDelta> {
+
+  /**
+  * Serialize a PlantOverviewDelta object to a JSON representation.
+  *
+  * @param delta       The PlantOverviewDelta object to be serialized.
+  * @param gen         The JsonGenerator used to write the JSON data.
+  * @param serializers The SerializerProvider for handling serialization operations.
+  * @throws IOException If an I/O error occurs during JSON writing.
+  */
+  @Override
+  public void serialize(PlantOverviewDelta delta, JsonGenerator gen,
+      SerializerProvider serializers) throws IOException {
+    gen.writeStartObject();
+    gen.writeNumberField("Since", delta.getSince());
+    gen.writeNumberField("Version", delta.getVersion());
+    gen.writeArrayFieldStart("Changes");
+    for (PlantChange change : delta.getChanges()) {
+      serializers.defaultSerializeValue(change, gen);
+    }
+    gen.writeEndArray();
+    gen.writeEndObject();
+  }
+}
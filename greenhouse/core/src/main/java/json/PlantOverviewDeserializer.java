@@ -2,12 +2,9 @@ package json;
 
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import core.Plant;
 import core.PlantOverview;
 import java.io.IOException;
@@ -24,36 +21,64 @@ public class PlantOverviewDeserializer extends JsonDeserializer<PlantOverview> {
   /**
     * Deserializes a JSON representation of a PlantOverview object.
     * This method is used to deserialize a JSON object into a PlantOverview instance.
-    * It reads the JSON data from the provided JsonParser and constructs a PlantOverview
-    * object from it. The expected JSON structure should have a "Plants" field containing
-    * an array of plant objects.
+    * It walks the tokens of the provided JsonParser and adds each plant to the PlantOverview
+    * as soon as it has been read, without reading the whole document into a JsonNode first.
+    * The expected JSON structure should have a "Plants" field containing an array of
+    * plant objects. Elements of the array that are not valid plants are skipped.
+    * Both the pretty and the compact PlantFileFormat are read, and files with a newer
+    * "Format version" than this version of the app supports are rejected. An optional
+    * "Version" field holds the version of the overview.
     *
     * @param p     The JsonParser used to read the JSON data.
     * @param ctxt  The DeserializationContext for handling deserialization operations.
     * @return      A PlantOverview object deserialized from the JSON data, or null if the
     *              input JSON does not match the expected structure.
-    * @throws IOException      If an I/O error occurs during JSON parsing.
+    * @throws IOException      If an I/O error occurs during JSON parsing, or if the format
+    *                          version is not supported.
     * @throws JacksonException If a Jackson-specific exception occurs during deserialization.
     */
   @Override
   public PlantOverview deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-    TreeNode node;
-    node = p.getCodec().readTree(p);
-    if (node instanceof ObjectNode) {
-      ObjectNode objectNode = (ObjectNode) node;
-      PlantOverview overview = new PlantOverview();
-      JsonNode plantsNode = objectNode.get("Plants");
-
-      if (plantsNode instanceof ArrayNode) {
-        for (JsonNode plantNode : ((ArrayNode) plantsNode)) {
-          Plant plant = plantDeserializer.deserialize(plantNode);
-          if (plant != null) {
-            overview.addPlant(plant);
-          }
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      p.skipChildren();
+      return null;
+    }
+    PlantOverview.Builder builder = PlantOverview.builder();
+    long version = 0;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      if (PlantFileFormat.VERSION_FIELD.equals(fieldName) && token == JsonToken.VALUE_NUMBER_INT
+          && p.getIntValue() > PlantFileFormat.COMPACT_VERSION) {
+        return ctxt.reportInputMismatch(PlantOverview.class,
+            "Unsupported format version %d", p.getIntValue());
+      }
+      if ("Version".equals(fieldName) && token == JsonToken.VALUE_NUMBER_INT) {
+        version = p.getLongValue();
+        continue;
+      }
+      if (!"Plants".equals(fieldName)) {
+        p.skipChildren();
+        continue;
+      }
+      // Like with a JsonNode, the last "Plants" field wins
+      builder = PlantOverview.builder();
+      if (token != JsonToken.START_ARRAY) {
+        p.skipChildren();
+        continue;
+      }
+      while (p.nextToken() != JsonToken.END_ARRAY) {
+        Plant plant = plantDeserializer.deserialize(p, ctxt);
+        if (plant != null) {
+          builder.add(plant);
         }
       }
-      return overview;
     }
-    return null;
+    PlantOverview overview = builder.build();
+    overview.setVersion(version);
+    return overview;
   }
 }
@@ -18,7 +18,8 @@ public class PlantOverviewSerializer extends JsonSerializer<PlantOverview> {
     * This method is used to serialize a PlantOverview object into a JSON format. It takes a
     * PlantOverview instance and writes its contents to a JsonGenerator in a structured JSON
     * format. The JSON representation will have a "Plants" field containing an array of Plant
-    * objects.
+    * objects. In the compact PlantFileFormat it is preceded by a "Format version" field, and
+    * if the overview has a version, it is preceded by a "Version" field.
     *
     * @param overview    The PlantOverview object to be serialized.
     * @param jsonGen     The JsonGenerator used to write the JSON data.
@@ -28,10 +29,31 @@ public class PlantOverviewSerializer extends JsonSerializer<PlantOverview> {
   @Override
   public void serialize(PlantOverview overview, JsonGenerator jsonGen, 
       SerializerProvider serializers) throws IOException {
+    serialize(overview.getPlantOverview(), overview.getVersion(), jsonGen, serializers);
+  }
+
+  /**
+   * Writes plants as an overview, in the format described by `serialize`. This is shared with
+   * the ImmutablePlantOverviewSerializer, so both kinds of overview are written the same way.
+   *
+   * @param plants      The plants of the overview, in order.
+   * @param version     The version of the overview, or 0 if it is not versioned.
+   * @param jsonGen     The JsonGenerator used to write the JSON data.
+   * @param serializers The SerializerProvider for handling serialization operations.
+   * @throws IOException If an I/O error occurs during JSON writing.
+   */
+  static void serialize(Iterable<Plant> plants, long version, JsonGenerator jsonGen,
+      SerializerProvider serializers) throws IOException {
     jsonGen.writeStartObject();
+    if (PlantFileFormat.of(serializers) == PlantFileFormat.COMPACT) {
+      jsonGen.writeNumberField(PlantFileFormat.VERSION_FIELD, PlantFileFormat.COMPACT_VERSION);
+    }
+    if (version > 0) {
+      jsonGen.writeNumberField("Version", version);
+    }
     jsonGen.writeArrayFieldStart("Plants");
-    for (Plant p : overview.getPlantOverview()) {
-      jsonGen.writeObject(p);
+    for (Plant p : plants) {
+      serializers.defaultSerializeValue(p, jsonGen);
     }
     jsonGen.writeEndArray();
     jsonGen.writeEndObject();
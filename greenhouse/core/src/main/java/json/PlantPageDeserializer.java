@@ -0,0 +1,76 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import core.Plant;
+import core.PlantPage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom JSON deserializer for deserializing a JSON representation of a PlantPage object,
+ * as written by the PlantPageSerializer. Plants that cannot be read are left out, like in
+ * the PlantOverviewDeserializer.
+ */
+public class PlantPageDeserializer extends JsonDeserializer<PlantPage> {
+
+  private PlantDeserializer plantDeserializer = new PlantDeserializer();
+
+  /**
+    * Deserializes a JSON representation of a PlantPage object, by walking the tokens of the
+    * provided JsonParser.
+    *
+    * @param p     The JsonParser used to read the JSON data.
+    * @param ctxt  The DeserializationContext for handling deserialization operations.
+    * @return      A PlantPage object deserialized from the JSON data.
+    * @throws IOException If an I/O error occurs during JSON parsing, or if the page is invalid.
+    */
+  @Override
+  public PlantPage deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      return ctxt.reportInputMismatch(PlantPage.class, "Expected a page object");
+    }
+    long version = -1;
+    List<Plant> plants = new ArrayList<>();
+    String next = null;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      switch (fieldName) {
+        case "Version":
+          version = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : -1;
+          break;
+        case "Plants":
+          plants.clear();
+          if (token != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            break;
+          }
+          while (p.nextToken() != JsonToken.END_ARRAY) {
+            Plant plant = plantDeserializer.deserialize(p, ctxt);
+            if (plant != null) {
+              plants.add(plant);
+            }
+          }
+          break;
+        case "Next":
+          next = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        default:
+          p.skipChildren();
+          break;
+      }
+    }
+    if (version < 0) {
+      return ctxt.reportInputMismatch(PlantPage.class,
+          "A page needs the version it was read from");
+    }
+    return new PlantPage(version, plants, next);
+  }
+}
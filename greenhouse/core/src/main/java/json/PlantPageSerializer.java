@@ -0,0 +1,40 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import core.Plant;
+import core.PlantPage;
+import java.io.IOException;
+
+/**
+ * Serializer for converting a PlantPage object to a JSON representation.
+ * It writes a JSON object with a "Version" field holding the version of the overview the
+ * page was read from, a "Plants" field with an array of plants, as written by the
+ * PlantSerializer, and a "Next" field with the cursor of the next page, which is null on
+ * the last page.
+ */
+public class PlantPageSerializer extends JsonSerializer<PlantPage> {
+
+  /**
+  * Serialize a PlantPage object to a JSON representation.
+  *
+  * @param page        The PlantPage object to be serialized.
+  * @param gen         The JsonGenerator used to write the JSON data.
+  * @param serializers The SerializerProvider for handling serialization operations.
+  * @throws IOException If an I/O error occurs during JSON writing.
+  */
+  @Override
+  public void serialize(PlantPage page, JsonGenerator gen, SerializerProvider serializers)
+      throws IOException {
+    gen.writeStartObject();
+    gen.writeNumberField("Version", page.getVersion());
+    gen.writeArrayFieldStart("Plants");
+    for (Plant plant : page.getPlants()) {
+      serializers.defaultSerializeValue(plant, gen);
+    }
+    gen.writeEndArray();
+    gen.writeStringField("Next", page.getNextCursor());
+    gen.writeEndObject();
+  }
+}
@@ -0,0 +1,77 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import core.PlantPatch;
+import java.io.IOException;
+
+/**
+ * Custom JSON deserializer for deserializing a JSON representation of a PlantPatch object,
+ * as written by the PlantPatchSerializer. Fields that are missing or null are not changed,
+ * and the water interval may also be a string, like in plants. A patch that cannot be read
+ * is reported as an error.
+ */
+public class PlantPatchDeserializer extends JsonDeserializer<PlantPatch> {
+
+  /**
+    * Deserializes a JSON representation of a PlantPatch object, by walking the tokens of the
+    * provided JsonParser.
+    *
+    * @param p     The JsonParser used to read the JSON data.
+    * @param ctxt  The DeserializationContext for handling deserialization operations.
+    * @return      A PlantPatch object deserialized from the JSON data.
+    * @throws IOException If an I/O error occurs during JSON parsing, or if the patch is invalid.
+    */
+  @Override
+  public PlantPatch deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME) {
+      return ctxt.reportInputMismatch(PlantPatch.class, "Expected a patch object");
+    }
+    String name = null;
+    String phase = null;
+    Integer waterInterval = null;
+    boolean water = false;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String fieldName = p.currentName();
+      token = p.nextToken();
+      switch (fieldName) {
+        case "Name":
+          name = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Phase":
+          phase = token == JsonToken.VALUE_STRING ? p.getText() : null;
+          break;
+        case "Water interval":
+          if (token == JsonToken.VALUE_NUMBER_INT) {
+            waterInterval = p.getIntValue();
+          } else if (token == JsonToken.VALUE_STRING) {
+            try {
+              waterInterval = Integer.parseInt(p.getText().trim());
+            } catch (NumberFormatException e) {
+              return ctxt.reportInputMismatch(PlantPatch.class, "Invalid water interval %s",
+                  p.getText());
+            }
+          } else {
+            p.skipChildren();
+          }
+          break;
+        case "Water":
+          water = token == JsonToken.VALUE_TRUE;
+          break;
+        default:
+          p.skipChildren();
+          break;
+      }
+    }
+    try {
+      return new PlantPatch(name, phase, waterInterval, water);
+    } catch (IllegalArgumentException e) {
+      return ctxt.reportInputMismatch(PlantPatch.class, "Invalid patch: %s", e.getMessage());
+    }
+  }
+}
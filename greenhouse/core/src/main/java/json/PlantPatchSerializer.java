@@ -0,0 +1,40 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import core.PlantPatch;
+import java.io.IOException;
+
+/**
+ * Serializer for converting a PlantPatch object to a JSON representation.
+ * It writes a JSON object with a "Name" field, "Phase" and "Water interval" fields for the
+ * fields that are changed, and a "Water" field that is true if the plant is watered.
+ */
+public class PlantPatchSerializer extends JsonSerializer<PlantPatch> {
+
+  /**
+  * Serialize a PlantPatch object to a JSON representation.
+  *
+  * @param patch       The PlantPatch object to be serialized.
+  * @param gen         The JsonGenerator used to write the JSON data.
+  * @param serializers The SerializerProvider for handling serialization operations.
+  * @throws IOException If an I/O error occurs during JSON writing.
+  */
+  @Override
+  public void serialize(PlantPatch patch, JsonGenerator gen, SerializerProvider serializers)
+      throws IOException {
+    gen.writeStartObject();
+    gen.writeStringField("Name", patch.getName());
+    if (patch.getPhase() != null) {
+      gen.writeStringField("Phase", patch.getPhase());
+    }
+    if (patch.getWaterInterval() != null) {
+      gen.writeNumberField("Water interval", patch.getWaterInterval());
+    }
+    if (patch.isWater()) {
+      gen.writeBooleanField("Water", true);
+    }
+    gen.writeEndObject();
+  }
+}
@@ -1,17 +1,33 @@
 package json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
+import core.ImmutablePlantOverview;
 import core.PlantOverview;
 
-import java.io.FileWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * The `PlantPersistence` class provides functionality for handling and persisting plant data.
@@ -22,22 +38,59 @@ import java.nio.file.Paths;
  */
 public class PlantPersistence {
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final String CHECKSUM_PREFIX = "CRC32C ";
+
   private ObjectMapper mapper;
+  private PlantFileFormat format;
 
   /**
   * This constructor sets up the PlantPersistence object for handling plant data.
   * It creates a new ObjectMapper and registers a custom module called GreenhouseModule.
   * The ObjectMapper is used for serializing and deserializing plant data in JSON format.
+  * Plant data is written in the pretty format.
   */
   public PlantPersistence() {
+    this(PlantFileFormat.PRETTY);
+  }
+
+  /**
+  * Sets up the PlantPersistence object to write plant data in the given format.
+  *
+  * @param format The format to write plant data in.
+  */
+  public PlantPersistence(PlantFileFormat format) {
     mapper = new ObjectMapper();
     mapper.registerModule(new GreenhouseModule());
+    setFormat(format);
+  }
+
+  /**
+  * Returns the format plant data is written in.
+  *
+  * @return The format plant data is written in.
+  */
+  public PlantFileFormat getFormat() {
+    return format;
+  }
+
+  /**
+  * Sets the format plant data is written in. Both formats can always be read.
+  *
+  * @param format The format to write plant data in.
+  */
+  public void setFormat(PlantFileFormat format) {
+    if (format == null) {
+      throw new IllegalArgumentException("The format must be set");
+    }
+    this.format = format;
   }
  
   /**
   * Reads and deserializes a PlantOverview object from the provided Reader.
   * This method reads data from the given Reader and deserializes it into a PlantOverview object.
   * If the Reader is not ready or contains no data, an empty PlantOverview object is returned.
+  * The data may be in either PlantFileFormat.
   *
   * @param reader The Reader containing the data to be deserialized.
   * @return A PlantOverview object deserialized from data, or empty one if no data is available.
@@ -50,17 +103,86 @@ public class PlantPersistence {
     return mapper.readValue(reader, PlantOverview.class);
   }
 
+  /**
+  * Reads a PlantOverview object from the provided InputStream, which may contain either a
+  * binary snapshot, as written by `writePlantOverview(OutputStream, PlantOverview)`, or JSON
+  * in either PlantFileFormat. If the stream contains no data, an empty PlantOverview object
+  * is returned.
+  *
+  * @param inputStream The InputStream containing the data to be read.
+  * @return A PlantOverview object read from the data, or empty one if no data is available.
+  * @throws IOException If an I/O error occurs during reading, or if the data is invalid.
+  */
+  public PlantOverview readPlantOverview(InputStream inputStream) throws IOException {
+    BufferedInputStream in = new BufferedInputStream(inputStream, BUFFER_SIZE);
+    in.mark(PlantSnapshot.MAGIC.length);
+    byte[] start = in.readNBytes(PlantSnapshot.MAGIC.length);
+    in.reset();
+    if (start.length == 0) {
+      return new PlantOverview();
+    }
+    if (Arrays.equals(start, PlantSnapshot.MAGIC)) {
+      return PlantSnapshot.read(in);
+    }
+    return mapper.readValue(in, PlantOverview.class);
+  }
+
+  /**
+  * Writes a PlantOverview object to the provided OutputStream as a binary snapshot.
+  * Snapshots are smaller and much faster to load than JSON, see the `PlantSnapshot` class
+  * for the layout. The stream is flushed, but not closed.
+  *
+  * @param outputStream The OutputStream to which the snapshot will be written.
+  * @param overview The PlantOverview object to be written.
+  * @throws IOException If an I/O error occurs during writing.
+  */
+  public void writePlantOverview(OutputStream outputStream, PlantOverview overview)
+      throws IOException {
+    PlantSnapshot.write(new BufferedOutputStream(outputStream, BUFFER_SIZE), overview);
+  }
+
+  /**
+  * Converts a JSON file, like plants.json, to a binary snapshot.
+  *
+  * @param jsonFile The JSON file to convert.
+  * @param snapshotFile The file to write the snapshot to.
+  * @throws IOException If an I/O error occurs during reading or writing.
+  */
+  public void convertToSnapshot(Path jsonFile, Path snapshotFile) throws IOException {
+    PlantOverview overview;
+    try (InputStream in = Files.newInputStream(jsonFile)) {
+      overview = readPlantOverview(in);
+    }
+    try (OutputStream out = Files.newOutputStream(snapshotFile)) {
+      writePlantOverview(out, overview);
+    }
+  }
+
   /**
   * Serializes and writes a PlantOverview object to the provided Writer.
   * This method serializes the given PlantOverview object and writes it to the provided Writer.
-  * The output is formatted with a default pretty printer for improved readability.
+  * In the pretty format, the output is formatted with a default pretty printer for improved
+  * readability. In the compact format, it is written without indentation, with numeric
+  * water intervals and dates.
   *
   * @param writer The Writer to which the serialized data will be written.
   * @param overview The PlantOverview object to be serialized and written.
   * @throws IOException If an I/O error occurs during serialization or writing.
   */
   public void writePlantOverview(Writer writer, PlantOverview overview) throws IOException {
-    mapper.writerWithDefaultPrettyPrinter().writeValue(writer, overview);
+    jsonWriter().writeValue(writer, overview);
+  }
+
+  /**
+  * Returns the writer for JSON in the current format.
+  *
+  * @return The writer for JSON in the current format.
+  */
+  private ObjectWriter jsonWriter() {
+    if (format == PlantFileFormat.COMPACT) {
+      return mapper.writer().withAttribute(PlantFileFormat.class, format);
+    }
+    return mapper.writerWithDefaultPrettyPrinter();
   }
 
   /**
@@ -81,19 +203,153 @@ public class PlantPersistence {
   }
 
   /**
-   * Saves a TodoModel to the saveFilePath in the user.home folder.
+   * Sets the file that PlantOverview objects are saved to.
    *
-   * @param todoModel the TodoModel to save
+   * @param saveFilePath the file to save to
+   */
+  public void setSaveFile(Path saveFilePath) {
+    this.saveFilePath = saveFilePath;
+  }
+
+  /**
+   * Saves a PlantOverview to the save file, so that a crash during the save never leaves a
+   * corrupt save file behind. The JSON is written to a temporary file next to the save file,
+   * followed by a line with its CRC32C checksum. The temporary file is forced to disk and then
+   * renamed over the save file, and the previous save file is kept as a backup generation.
+   *
+   * @param plantOverview the PlantOverview to save
+   * @throws IOException If an I/O error occurs during writing.
+   * @throws IllegalStateException If the save file is not set.
    */
   public void savePlantOverview(PlantOverview plantOverview) throws IOException, IllegalStateException {
+    save(plantOverview);
+  }
+
+  /**
+   * Saves a version of an ImmutablePlantOverview to the save file, like
+   * `savePlantOverview(PlantOverview)`, straight from its plants, without building a
+   * PlantOverview first.
+   *
+   * @param plantOverview the version to save
+   * @throws IOException If an I/O error occurs during writing.
+   * @throws IllegalStateException If the save file is not set.
+   */
+  public void savePlantOverview(ImmutablePlantOverview plantOverview)
+      throws IOException, IllegalStateException {
+    save(plantOverview);
+  }
+
+  /**
+   * Saves an overview, which the JSON writer writes as a PlantOverview, to the save file.
+   *
+   * @param plantOverview the PlantOverview or ImmutablePlantOverview to save
+   * @throws IOException If an I/O error occurs during writing.
+   * @throws IllegalStateException If the save file is not set.
+   */
+  private void save(Object plantOverview) throws IOException {
     if (saveFilePath == null) {
       throw new IllegalStateException("Save file path is not set, yet");
     }
-    try (Writer writer = new FileWriter(saveFilePath.toFile(), StandardCharsets.UTF_8)) {
-      writePlantOverview(writer, plantOverview);
+    Path tempFile = sibling(".tmp");
+    try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      OutputStream file = Channels.newOutputStream(channel);
+      CRC32C checksum = new CRC32C();
+      OutputStream out = new BufferedOutputStream(new CheckedOutputStream(file, checksum),
+          BUFFER_SIZE);
+      jsonWriter().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, plantOverview);
+      out.write('\n');
+      out.flush();
+      file.write(String.format("%s%08x%n", CHECKSUM_PREFIX, checksum.getValue())
+          .getBytes(StandardCharsets.US_ASCII));
+      channel.force(true);
+    }
+    if (Files.exists(saveFilePath)) {
+      Files.move(saveFilePath, sibling(".bak"), StandardCopyOption.ATOMIC_MOVE);
     }
+    Files.move(tempFile, saveFilePath, StandardCopyOption.ATOMIC_MOVE);
+    forceDirectory();
+  }
+
+  /**
+   * Loads a PlantOverview from the save file. If the save file is missing, or if it is corrupt
+   * because its checksum does not match or it can't be read, the backup generation kept by
+   * `savePlantOverview` is loaded instead. Save files without a checksum, like those written
+   * by older versions, are loaded as they are.
+   *
+   * @return The loaded PlantOverview.
+   * @throws NoSuchFileException If neither the save file nor the backup exists.
+   * @throws IOException If neither the save file nor the backup could be loaded.
+   * @throws IllegalStateException If the save file is not set.
+   */
+  public PlantOverview loadPlantOverview() throws IOException, IllegalStateException {
+    if (saveFilePath == null) {
+      throw new IllegalStateException("Save file path is not set, yet");
+    }
+    Path backupFile = sibling(".bak");
+    try {
+      return loadPlantOverview(saveFilePath);
+    } catch (IOException e) {
+      if (!Files.exists(backupFile)) {
+        throw e;
+      }
+      System.err.println("Couldn't load " + saveFilePath + ", loading " + backupFile
+          + " instead: " + e);
+    }
+    return loadPlantOverview(backupFile);
   }
-  
 
+  /**
+   * Loads a PlantOverview from a file, verifying the checksum line at the end, if it has one.
+   *
+   * @param file The file to load.
+   * @return The loaded PlantOverview.
+   * @throws IOException If the file could not be read, or if the checksum does not match.
+   */
+  private PlantOverview loadPlantOverview(Path file) throws IOException {
+    byte[] bytes = Files.readAllBytes(file);
+    int length = bytes.length;
+    int lineStart = Math.max(length - 1, 0);
+    while (lineStart > 0 && bytes[lineStart - 1] != '\n') {
+      lineStart--;
+    }
+    String lastLine = new String(bytes, lineStart, length - lineStart, StandardCharsets.US_ASCII);
+    if (lastLine.startsWith(CHECKSUM_PREFIX)) {
+      CRC32C checksum = new CRC32C();
+      checksum.update(bytes, 0, lineStart);
+      String expected = lastLine.substring(CHECKSUM_PREFIX.length()).trim();
+      if (!expected.equals(String.format("%08x", checksum.getValue()))) {
+        throw new IOException("The checksum of " + file + " does not match its content");
+      }
+      length = lineStart;
+    }
+    return readPlantOverview(new ByteArrayInputStream(bytes, 0, length));
+  }
 
+  /**
+   * Resolves a file next to the save file, named like the save file with a suffix.
+   *
+   * @param suffix The suffix to add to the name of the save file.
+   * @return The file next to the save file.
+   */
+  private Path sibling(String suffix) {
+    return saveFilePath.resolveSibling(saveFilePath.getFileName() + suffix);
+  }
+
+  /**
+   * Forces the directory of the save file to disk, so that the renames in
+   * `savePlantOverview` survive a crash. Not all platforms can open a directory,
+   * in which case this is left to the operating system.
+   */
+  private void forceDirectory() {
+    Path directory = saveFilePath.toAbsolutePath().getParent();
+    if (directory == null) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // The directory can't be forced on this platform
+    }
+  }
 }
@@ -3,6 +3,7 @@ package json;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import core.DateCodec;
 import core.Plant;
 import java.io.IOException;
 
@@ -11,7 +12,8 @@ import java.io.IOException;
  * This class extends Jackson's JsonSerializer and is responsible for serializing a Plant object
  * into a JSON format. It writes the Plant object's properties as 
  * fields to a JsonGenerator, creating a JSON object with
- * "Name," "Phase,", "Water interval", "Last watered" and "Creation date" fields.
+ * "Name," "Phase,", "Water interval", "Last watered" and "Creation date" fields, and a
+ * "Version" field if the plant has a version.
  */
 public class PlantSerializer extends JsonSerializer<Plant> {
 
@@ -20,6 +22,7 @@ public class PlantSerializer extends JsonSerializer<Plant> {
   * This method is used to serialize a Plant object into a JSON format. It takes a Plant
   * instance and writes its properties as fields to a JsonGenerator, creating a JSON object
   * with "Name," "Phase,", "Water interval", "Last watered" and "Creation date" fields.
+  * In the compact PlantFileFormat the water interval and the dates are written as numbers.
   *
   * @param plant       The Plant object to be serialized.
   * @param gen        The JsonGenerator used to write the JSON data.
@@ -32,9 +35,19 @@ public class PlantSerializer extends JsonSerializer<Plant> {
     gen.writeStartObject();
     gen.writeStringField("Name", plant.getName());
     gen.writeStringField("Phase", plant.getPhase());
-    gen.writeStringField("Water interval", Integer.toString(plant.getWaterInterval()));
-    gen.writeStringField("Last watered", Plant.toStringDate(plant.getLastWatered()));
-    gen.writeStringField("Creation date", Plant.toStringDate(plant.getCreationDate()));
+    if (PlantFileFormat.of(serializers) == PlantFileFormat.COMPACT) {
+      gen.writeNumberField("Water interval", plant.getWaterInterval());
+      gen.writeNumberField("Last watered", plant.getLastWateredTime());
+      gen.writeNumberField("Creation date", plant.getCreationTime());
+    } else {
+      DateCodec dateCodec = DateCodec.systemDefault();
+      gen.writeStringField("Water interval", Integer.toString(plant.getWaterInterval()));
+      gen.writeStringField("Last watered", dateCodec.format(plant.getLastWateredTime()));
+      gen.writeStringField("Creation date", dateCodec.format(plant.getCreationTime()));
+    }
+    if (plant.getVersion() > 0) {
+      gen.writeNumberField("Version", plant.getVersion());
+    }
     gen.writeEndObject();
   } 
 }
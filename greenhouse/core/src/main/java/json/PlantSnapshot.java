@@ -0,0 +1,227 @@
+package json;
+
+import core.Plant;
+import core.PlantOverview;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `PlantSnapshot` class reads and writes PlantOverview objects in a compact binary format,
+ * which loads much faster than JSON. A snapshot is laid out as follows, with all numbers
+ * in big-endian order and all strings as an int length followed by UTF-8 bytes:
+ * <ul>
+ *   <li>the magic bytes "GHPS" and an int format version,</li>
+ *   <li>from format version 2, the version of the overview as a long,</li>
+ *   <li>an int number of phases, followed by the phases, which plants refer to by index,</li>
+ *   <li>an int number of plants, followed by one record for each plant.</li>
+ * </ul>
+ * Each record starts with its length in bytes as an int, followed by the name of the plant,
+ * the index of its phase, its water interval as an int, and its creation and last watered
+ * times as longs, in milliseconds since the epoch. From format version 2, these fields are
+ * followed by the version of the plant as a long. Bytes after the known fields are skipped,
+ * so later versions can add fields to the records. Versions missing from older snapshots
+ * are read as 0. Strings, records and the number of phases
+ * are limited in size, so a corrupt length is reported instead of allocating a huge buffer.
+ */
+final class PlantSnapshot {
+
+  /**
+   * The magic bytes every snapshot starts with.
+   */
+  static final byte[] MAGIC = {'G', 'H', 'P', 'S'};
+
+  private static final int VERSION = 2;
+  private static final int FIXED_RECORD_LENGTH = 4 + 4 + 4 + 8 + 8;
+  private static final int VERSION_LENGTH = 8;
+  private static final int MAX_STRING_LENGTH = 1 << 16;
+  private static final int MAX_RECORD_LENGTH = 1 << 20;
+  private static final int MAX_PHASE_COUNT = 1 << 16;
+
+  private PlantSnapshot() {
+  }
+
+  /**
+   * Writes a PlantOverview as a binary snapshot. The stream is flushed, but not closed.
+   *
+   * @param outputStream The stream to write to.
+   * @param overview     The PlantOverview to write.
+   * @throws IOException If an I/O error occurs during writing.
+   */
+  static void write(OutputStream outputStream, PlantOverview overview) throws IOException {
+    List<Plant> plants = overview.getPlantOverview();
+    Map<String, Integer> phaseIndexes = new HashMap<>();
+    List<String> phases = new ArrayList<>();
+    for (Plant plant : plants) {
+      if (phaseIndexes.putIfAbsent(plant.getPhase(), phases.size()) == null) {
+        phases.add(plant.getPhase());
+      }
+    }
+
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.write(MAGIC);
+    out.writeInt(VERSION);
+    out.writeLong(overview.getVersion());
+    out.writeInt(phases.size());
+    for (String phase : phases) {
+      writeString(out, checkStringLength(phase.getBytes(StandardCharsets.UTF_8)));
+    }
+    out.writeInt(plants.size());
+    for (Plant plant : plants) {
+      byte[] name = checkStringLength(plant.getName().getBytes(StandardCharsets.UTF_8));
+      out.writeInt(FIXED_RECORD_LENGTH + name.length + VERSION_LENGTH);
+      writeString(out, name);
+      out.writeInt(phaseIndexes.get(plant.getPhase()));
+      out.writeInt(plant.getWaterInterval());
+      out.writeLong(plant.getCreationTime());
+      out.writeLong(plant.getLastWateredTime());
+      out.writeLong(plant.getVersion());
+    }
+    out.flush();
+  }
+
+  /**
+   * Reads a PlantOverview from a binary snapshot, including the magic bytes.
+   *
+   * @param inputStream The stream to read from.
+   * @return The PlantOverview of the snapshot.
+   * @throws IOException If an I/O error occurs during reading, or if the snapshot is invalid.
+   */
+  static PlantOverview read(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(inputStream);
+    byte[] magic = new byte[MAGIC.length];
+    in.readFully(magic);
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (magic[i] != MAGIC[i]) {
+        throw new IOException("Not a plant snapshot");
+      }
+    }
+    int version = in.readInt();
+    if (version < 1 || version > VERSION) {
+      throw new IOException("Unsupported snapshot version " + version);
+    }
+    long overviewVersion = version >= 2 ? in.readLong() : 0;
+
+    byte[] buffer = new byte[64];
+    String[] phases = new String[checkCount(in.readInt(), MAX_PHASE_COUNT)];
+    for (int i = 0; i < phases.length; i++) {
+      int length = checkLength(in.readInt(), MAX_STRING_LENGTH);
+      buffer = readBytes(in, buffer, length);
+      phases[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    int plantCount = checkCount(in.readInt(), Integer.MAX_VALUE);
+    PlantOverview.Builder builder = PlantOverview.builder();
+    try {
+      for (int i = 0; i < plantCount; i++) {
+        int recordLength = checkLength(in.readInt(), MAX_RECORD_LENGTH);
+        int nameLength = checkLength(in.readInt(),
+            Math.min(recordLength - FIXED_RECORD_LENGTH, MAX_STRING_LENGTH));
+        buffer = readBytes(in, buffer, nameLength);
+        String name = new String(buffer, 0, nameLength, StandardCharsets.UTF_8);
+        int phaseIndex = in.readInt();
+        if (phaseIndex < 0 || phaseIndex >= phases.length) {
+          throw new IOException("Invalid phase index " + phaseIndex);
+        }
+        int waterInterval = in.readInt();
+        long creationTime = in.readLong();
+        long lastWateredTime = in.readLong();
+        int remaining = recordLength - FIXED_RECORD_LENGTH - nameLength;
+        long plantVersion = 0;
+        if (remaining >= VERSION_LENGTH) {
+          plantVersion = in.readLong();
+          remaining -= VERSION_LENGTH;
+        }
+        in.skipNBytes(remaining);
+        Plant plant = new Plant(name, phases[phaseIndex], waterInterval, creationTime,
+            lastWateredTime);
+        plant.setVersion(plantVersion);
+        builder.add(plant);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid plant in snapshot: " + e.getMessage(), e);
+    }
+    PlantOverview overview = builder.build();
+    overview.setVersion(overviewVersion);
+    return overview;
+  }
+
+  /**
+   * Writes a string as its length followed by its UTF-8 bytes.
+   *
+   * @param out   The stream to write to.
+   * @param bytes The UTF-8 bytes of the string.
+   * @throws IOException If an I/O error occurs during writing.
+   */
+  private static void writeString(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Checks that a string is short enough to be read back from a snapshot.
+   *
+   * @param bytes The UTF-8 bytes of the string.
+   * @return The bytes.
+   * @throws IOException If the string is longer than the longest string a snapshot can hold.
+   */
+  private static byte[] checkStringLength(byte[] bytes) throws IOException {
+    if (bytes.length > MAX_STRING_LENGTH) {
+      throw new IOException("String of " + bytes.length + " bytes is too long for a snapshot");
+    }
+    return bytes;
+  }
+
+  /**
+   * Reads bytes into a buffer, which is replaced by a larger one if it is too small.
+   *
+   * @param in     The stream to read from.
+   * @param buffer The buffer to read into, if it is large enough.
+   * @param length The number of bytes to read.
+   * @return The buffer the bytes were read into.
+   * @throws IOException If an I/O error occurs during reading.
+   */
+  private static byte[] readBytes(DataInputStream in, byte[] buffer, int length)
+      throws IOException {
+    byte[] bytes = buffer.length >= length ? buffer : new byte[Math.max(length, buffer.length * 2)];
+    in.readFully(bytes, 0, length);
+    return bytes;
+  }
+
+  /**
+   * Checks that a count read from a snapshot is within bounds.
+   *
+   * @param count    The count to check.
+   * @param maxCount The largest valid count.
+   * @return The count.
+   * @throws IOException If the count is negative or larger than the largest valid count.
+   */
+  private static int checkCount(int count, int maxCount) throws IOException {
+    if (count < 0 || count > maxCount) {
+      throw new IOException("Invalid count " + count);
+    }
+    return count;
+  }
+
+  /**
+   * Checks that a length read from a snapshot is within bounds.
+   *
+   * @param length    The length to check.
+   * @param maxLength The largest valid length.
+   * @return The length.
+   * @throws IOException If the length is negative or larger than the largest valid length.
+   */
+  private static int checkLength(int length, int maxLength) throws IOException {
+    if (length < 0 || length > maxLength) {
+      throw new IOException("Invalid length " + length);
+    }
+    return length;
+  }
+}
@@ -0,0 +1,29 @@
+package json;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line tool that converts a JSON file, like plants.json, to a binary snapshot.
+ * Usage: {@code PlantSnapshotConverter <json file> <snapshot file>}.
+ */
+public final class PlantSnapshotConverter {
+
+  private PlantSnapshotConverter() {
+  }
+
+  /**
+   * Converts the JSON file given as the first argument to a snapshot in the file given
+   * as the second argument.
+   *
+   * @param args The JSON file and the snapshot file.
+   * @throws IOException If an I/O error occurs during reading or writing.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: PlantSnapshotConverter <json file> <snapshot file>");
+      System.exit(1);
+    }
+    new PlantPersistence().convertToSnapshot(Path.of(args[0]), Path.of(args[1]));
+  }
+}
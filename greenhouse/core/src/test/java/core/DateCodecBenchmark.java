@@ -0,0 +1,74 @@
+package core;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing the shared DateCodec with creating a SimpleDateFormat for each
+ * date, which is how Plant used to parse and format the dates in the JSON files.
+ * Run it with `mvn test-compile exec:exec -Pbenchmark -Dbenchmark=DateCodecBenchmark`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DateCodecBenchmark {
+
+  private static final String DATE = "2023-11-06 11:02:51";
+
+  private final long time = DateCodec.systemDefault().parse(DATE);
+
+  /**
+   * Parses a date with a new SimpleDateFormat.
+   *
+   * @return the parsed date
+   * @throws ParseException if the date could not be parsed
+   */
+  @Benchmark
+  public Date simpleDateFormatParse() throws ParseException {
+    return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(DATE);
+  }
+
+  /**
+   * Parses a date with the shared DateCodec.
+   *
+   * @return the parsed date, in milliseconds since the epoch
+   */
+  @Benchmark
+  public long dateCodecParse() {
+    return DateCodec.systemDefault().parse(DATE);
+  }
+
+  /**
+   * Formats a date with a new SimpleDateFormat.
+   *
+   * @return the formatted date
+   */
+  @Benchmark
+  public String simpleDateFormatFormat() {
+    return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(time));
+  }
+
+  /**
+   * Formats a date with the shared DateCodec.
+   *
+   * @return the formatted date
+   */
+  @Benchmark
+  public String dateCodecFormat() {
+    return DateCodec.systemDefault().format(time);
+  }
+}
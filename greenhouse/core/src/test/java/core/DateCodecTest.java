@@ -0,0 +1,66 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.TimeZone;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class contains JUnit tests for the functionality of the DateCodec class.
+ */
+public class DateCodecTest {
+
+  /**
+   * Tests that dates are parsed and formatted like with SimpleDateFormat, both in a
+   * time zone with a fixed offset and in one with daylight saving time.
+   */
+  @Test
+  public void testSameAsSimpleDateFormat() throws Exception {
+    String[] dates = {"2023-11-06 11:02:51", "2023-03-26 03:30:00", "2023-10-29 01:59:59",
+        "1969-12-31 23:59:59", "2000-02-29 00:00:00", "2024-12-31 23:59:59"};
+    for (String zone : new String[] {"UTC", "Europe/Oslo", "America/St_Johns"}) {
+      DateCodec dateCodec = new DateCodec(ZoneId.of(zone));
+      SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+      SimpleDateFormat dayFormat = new SimpleDateFormat("dd-MM-yyyy");
+      dateFormat.setTimeZone(TimeZone.getTimeZone(zone));
+      dayFormat.setTimeZone(TimeZone.getTimeZone(zone));
+      for (String date : dates) {
+        long time = dateFormat.parse(date).getTime();
+        assertEquals(time, dateCodec.parse(date), date + " in " + zone);
+        assertEquals(date, dateCodec.format(time));
+        assertEquals(dayFormat.format(new Date(time)), dateCodec.formatDay(time));
+      }
+    }
+  }
+
+  /**
+   * Tests that single digit fields are accepted, and that the formatted date is padded.
+   */
+  @Test
+  public void testSingleDigitFields() {
+    DateCodec dateCodec = new DateCodec(ZoneId.of("UTC"));
+    long time = dateCodec.parse("2023-9-8 1:2:3");
+    assertEquals("2023-09-08 01:02:03", dateCodec.format(time));
+    assertEquals("08-09-2023", dateCodec.formatDay(time));
+  }
+
+  /**
+   * Tests that invalid dates are rejected.
+   */
+  @Test
+  public void testInvalidDates() {
+    DateCodec dateCodec = DateCodec.systemDefault();
+    String[] invalidDates = {"02.03.2002", "2023-13-01 00:00:00", "2023-02-29 00:00:00",
+        "2023-01-01 24:00:00", "2023-01-01 00:60:00", "2023-01-01", "2023-01-01 00:00:00 ",
+        "23-01-01 00:00:00", "2023-001-01 00:00:00", "2023-01-01T00:00:00", ""};
+    for (String invalidDate : invalidDates) {
+      assertThrows(IllegalArgumentException.class, () -> dateCodec.parse(invalidDate),
+          invalidDate);
+    }
+    assertThrows(IllegalArgumentException.class, () -> dateCodec.parse(null));
+  }
+}
@@ -0,0 +1,263 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class contains JUnit tests for the ImmutablePlantOverview class and the persistent
+ * map it is built on.
+ */
+public class ImmutablePlantOverviewTest {
+
+  private static List<String> names(Iterable<Plant> plants) {
+    List<String> names = new ArrayList<>();
+    for (Plant plant : plants) {
+      names.add(plant.getName());
+    }
+    return names;
+  }
+
+  /**
+   * Tests that changing an overview returns a new version and leaves the old one as it was.
+   */
+  @Test
+  public void testVersions() {
+    ImmutablePlantOverview empty = ImmutablePlantOverview.empty();
+    ImmutablePlantOverview v1 = empty.withPlant(new Plant("Jenny", "Seed", 7))
+        .withPlant(new Plant("Julie", "Seed", 5));
+    ImmutablePlantOverview v2 = v1.withPlant(new Plant("Tommy", "Young plant", 3))
+        .withoutPlant("Jenny");
+    ImmutablePlantOverview v3 = v2.withPlant(new Plant("Julie", "Grown plant", 2));
+
+    assertTrue(empty.isEmpty());
+    assertEquals(List.of("Jenny", "Julie"), names(v1));
+    assertEquals(List.of("Julie", "Tommy"), names(v2));
+    assertEquals("Seed", v2.getPlantByName("Julie").getPhase());
+    assertEquals(List.of("Julie", "Tommy"), names(v3));
+    assertEquals("Grown plant", v3.getPlantByName("Julie").getPhase());
+    assertEquals(2, v3.size());
+    assertNull(v3.getPlantByName("Jenny"));
+    assertNull(v3.getPlantByName(null));
+    assertSame(v3, v3.withoutPlant("Jenny"));
+    assertEquals(5, v3.getVersion());
+    assertEquals(3, v3.getPlantByName("Tommy").getVersion());
+    assertEquals(5, v3.getPlantByName("Julie").getVersion());
+    assertEquals(2, v1.getPlantByName("Julie").getVersion());
+
+    ImmutablePlantOverview v4 = v3.withPlant(new Plant("Jenny", "Seed", 7));
+    assertEquals(List.of("Julie", "Tommy", "Jenny"), v4.getPlantOverview().stream()
+        .map(Plant::getName).toList());
+    assertEquals(List.of("Tommy"), names(v4.getPlantsByPredicate(
+        p -> p.getPlantPhase() == PlantPhase.YOUNG_PLANT)));
+  }
+
+  /**
+   * Tests that the plants are read-only, and that plants are validated like in PlantOverview.
+   */
+  @Test
+  public void testReadOnlyPlants() {
+    Plant plant = new Plant("Jenny", "Seed", 7);
+    ImmutablePlantOverview overview = ImmutablePlantOverview.empty().withPlant(plant);
+    plant.setPhase("Grown plant");
+    Plant kept = overview.getPlantByName("Jenny");
+    assertEquals("Seed", kept.getPhase());
+    assertTrue(kept.isReadOnly());
+    assertThrows(UnsupportedOperationException.class, () -> kept.setWaterInterval(3));
+    Plant replaced = overview.withPlant(kept).getPlantByName("Jenny");
+    assertEquals(overview.getVersion() + 1, replaced.getVersion());
+    assertEquals(1, kept.getVersion());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> overview.withPlant(new Plant("", "Seed", 7)));
+    assertThrows(IllegalArgumentException.class,
+        () -> overview.withPlant(new Plant(null, "Seed", 7)));
+  }
+
+  /**
+   * Tests converting between PlantOverview and ImmutablePlantOverview.
+   */
+  @Test
+  public void testConversion() {
+    PlantOverview plantOverview = new PlantOverview();
+    plantOverview.addPlant(new Plant("Julie", "Seed", 5));
+    plantOverview.addPlant(new Plant("Jenny", "Young plant", 7));
+    plantOverview.addPlant(new Plant("Anna", "Seed", 2));
+    ImmutablePlantOverview overview = ImmutablePlantOverview.of(plantOverview);
+    plantOverview.deletePlant("Julie");
+
+    assertEquals(List.of("Julie", "Jenny", "Anna"), names(overview));
+    assertEquals("Young plant", overview.getPlantByName("Jenny").getPhase());
+
+    PlantOverview view = overview.toPlantOverview();
+    assertTrue(view.isReadOnly());
+    assertSame(view, overview.toPlantOverview());
+    assertEquals(List.of("Julie", "Anna"), names(view.getPlantsByPhase(PlantPhase.SEED)));
+    // The plants are read-only, so the view shares them instead of copying them
+    assertSame(overview.getPlantByName("Anna"), view.getPlantByName("Anna"));
+
+    PlantOverview snapshot = plantOverview.snapshot();
+    assertSame(snapshot, ImmutablePlantOverview.of(snapshot).toPlantOverview());
+
+    ImmutablePlantOverview replaced = ImmutablePlantOverview.of(plantOverview, 7);
+    assertEquals(7, replaced.getVersion());
+    assertEquals(7, replaced.getPlantByName("Anna").getVersion());
+    assertEquals(7, replaced.toPlantOverview().getVersion());
+    assertEquals(7, ImmutablePlantOverview.of(replaced.toPlantOverview()).getVersion());
+  }
+
+  /**
+   * Tests PlantOverview.applyEdit on a plant that is not in an overview.
+   */
+  @Test
+  public void testApplyEdit() {
+    ImmutablePlantOverview overview = ImmutablePlantOverview.empty()
+        .withPlant(new Plant("Jenny", "Young plant", 7));
+    Plant copy = new Plant("Jenny", "Young plant", 7);
+    assertEquals("Error: You cannot downgrade the plant's phase.\n"
+        + "Success: Water interval has been updated.",
+        PlantOverview.applyEdit(copy, "Seed", "3"));
+    ImmutablePlantOverview edited = overview.withPlant(copy);
+    assertEquals(3, edited.getPlantByName("Jenny").getWaterInterval());
+    assertEquals(7, overview.getPlantByName("Jenny").getWaterInterval());
+  }
+
+  /**
+   * Tests the persistent map against a TreeMap with random puts and removes, keeping
+   * every version to check that none of them change.
+   */
+  @Test
+  public void testPersistentTreeMap() {
+    Random random = new Random(42);
+    PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.empty(Comparator.naturalOrder());
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    List<PersistentTreeMap<Integer, Integer>> versions = new ArrayList<>();
+    List<Map<Integer, Integer>> expectedVersions = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      int key = random.nextInt(500);
+      if (random.nextInt(3) == 0) {
+        map = map.remove(key);
+        expected.remove(key);
+      } else {
+        map = map.put(key, i);
+        expected.put(key, i);
+      }
+      if (i % 100 == 0) {
+        versions.add(map);
+        expectedVersions.add(new TreeMap<>(expected));
+      }
+    }
+    for (int i = 0; i < versions.size(); i++) {
+      assertEntries(expectedVersions.get(i), versions.get(i));
+    }
+    assertEntries(expected, map);
+    assertTrue(map.treeHeight() <= 1.45 * (Math.log(map.size() + 2) / Math.log(2)));
+    for (int key = 0; key < 500; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+    for (int key = -1; key <= 500; key += 7) {
+      assertEquals(new ArrayList<>(expected.tailMap(key, true).keySet()),
+          keys(map.iteratorFrom(key, true)));
+      assertEquals(new ArrayList<>(expected.tailMap(key, false).keySet()),
+          keys(map.iteratorFrom(key, false)));
+    }
+  }
+
+  private static List<Integer> keys(Iterator<Map.Entry<Integer, Integer>> entries) {
+    List<Integer> keys = new ArrayList<>();
+    entries.forEachRemaining(entry -> keys.add(entry.getKey()));
+    return keys;
+  }
+
+  private static List<String> allPages(ImmutablePlantOverview overview, PlantQuery query,
+      long now) {
+    List<String> names = new ArrayList<>();
+    PlantPage page = overview.query(query, now);
+    names.addAll(names(page.getPlants()));
+    while (page.getNextCursor() != null) {
+      page = overview.query(query.next(page.getNextCursor()).build(), now);
+      names.addAll(names(page.getPlants()));
+    }
+    return names;
+  }
+
+  /**
+   * Tests the filters, orders and pages of queries.
+   */
+  @Test
+  public void testQuery() {
+    ImmutablePlantOverview overview = ImmutablePlantOverview.empty()
+        .withPlant(new Plant("Anna", "Seed", 2, Plant.fromStringToDate("2023-01-01 00:00:00")))
+        .withPlant(new Plant("Bob", "Young plant", 30,
+            Plant.fromStringToDate("2023-01-01 00:00:00")))
+        .withPlant(new Plant("Alf", "Seed", 5, Plant.fromStringToDate("2023-01-09 00:00:00")))
+        .withPlant(new Plant("Ada", "Grown plant", 1,
+            Plant.fromStringToDate("2023-01-02 00:00:00")))
+        .withPlant(new Plant("Carl", "Seed", 3, Plant.fromStringToDate("2023-01-05 00:00:00")));
+    long now = Plant.fromStringToDate("2023-01-10 00:00:00").getTime();
+
+    PlantQuery firstTwo = PlantQuery.builder().limit(2).build();
+    PlantPage page = overview.query(firstTwo, now);
+    assertEquals(List.of("Anna", "Bob"), names(page.getPlants()));
+    assertEquals(overview.getVersion(), page.getVersion());
+    // Deleting a plant that comes later neither skips nor repeats plants
+    PlantPage next = overview.withoutPlant("Alf")
+        .query(firstTwo.next(page.getNextCursor()).build(), now);
+    assertEquals(List.of("Ada", "Carl"), names(next.getPlants()));
+    assertNull(next.getNextCursor());
+    assertEquals(List.of("Anna", "Bob", "Alf", "Ada", "Carl"), allPages(overview, firstTwo, now));
+
+    assertEquals(List.of("Ada", "Alf", "Anna"), allPages(overview, PlantQuery.builder()
+        .namePrefix("A").sort(PlantQuery.Sort.NAME).limit(2).build(), now));
+    assertEquals(List.of("Ada", "Anna", "Carl", "Alf", "Bob"), allPages(overview,
+        PlantQuery.builder().sort(PlantQuery.Sort.NEXT_WATERING).limit(1).build(), now));
+    assertEquals(List.of("Ada", "Anna", "Carl"), allPages(overview, PlantQuery.builder()
+        .watering(PlantQuery.Watering.NEEDS_WATER).sort(PlantQuery.Sort.NEXT_WATERING)
+        .limit(1).build(), now));
+    assertEquals(List.of("Alf", "Bob"), allPages(overview, PlantQuery.builder()
+        .watering(PlantQuery.Watering.HYDRATED).sort(PlantQuery.Sort.NEXT_WATERING)
+        .limit(1).build(), now));
+    assertEquals(List.of("Anna", "Alf", "Carl"),
+        allPages(overview, PlantQuery.forFilter("Seed").limit(1).build(), now));
+    assertEquals(List.of("Anna", "Ada", "Carl"),
+        allPages(overview, PlantQuery.forFilter("Needs water").build(), now));
+
+    assertEquals(List.of("Ada", "Anna", "Carl"), names(overview.getPlantsThatNeedWater(now)));
+    // Watering Alf moves it in the watering order
+    ImmutablePlantOverview watered = overview.withPlant(new Plant("Alf", "Seed", 5,
+        Plant.fromStringToDate("2023-01-01 00:00:00")));
+    assertEquals(List.of("Ada", "Anna", "Alf", "Carl"), allPages(watered, PlantQuery.builder()
+        .watering(PlantQuery.Watering.NEEDS_WATER).sort(PlantQuery.Sort.NEXT_WATERING)
+        .build(), now));
+
+    String nameCursor = overview.query(PlantQuery.builder().sort(PlantQuery.Sort.NAME)
+        .limit(1).build(), now).getNextCursor();
+    assertThrows(IllegalArgumentException.class,
+        () -> overview.query(PlantQuery.builder().cursor(nameCursor).build(), now));
+    assertThrows(IllegalArgumentException.class,
+        () -> overview.query(PlantQuery.builder().cursor("i:x").build(), now));
+    assertThrows(IllegalArgumentException.class, () -> PlantQuery.builder().limit(0));
+  }
+
+  private static void assertEntries(Map<Integer, Integer> expected,
+      PersistentTreeMap<Integer, Integer> map) {
+    List<Map.Entry<Integer, Integer>> entries = new ArrayList<>();
+    for (Map.Entry<Integer, Integer> entry : map) {
+      entries.add(Map.entry(entry.getKey(), entry.getValue()));
+    }
+    assertEquals(new ArrayList<>(expected.entrySet()), entries);
+    assertEquals(expected.size(), map.size());
+  }
+}
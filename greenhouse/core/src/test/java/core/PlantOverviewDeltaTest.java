@@ -0,0 +1,84 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class contains JUnit tests for the PlantOverviewDelta class.
+ */
+public class PlantOverviewDeltaTest {
+
+  private static List<String> names(PlantOverview overview) {
+    List<String> names = new ArrayList<>();
+    for (Plant plant : overview.getPlantOverview()) {
+      names.add(plant.getName());
+    }
+    return names;
+  }
+
+  private static Plant plant(String name, String phase, int waterInterval, long version) {
+    Plant plant = new Plant(name, phase, waterInterval);
+    plant.setVersion(version);
+    return plant;
+  }
+
+  /**
+   * Tests that a delta keeps only the last change of each plant, and that a plant that was
+   * added since the older version is still added.
+   */
+  @Test
+  public void testCompact() {
+    PlantOverviewDelta delta = PlantOverviewDelta.compact(2, 7, List.of(
+        PlantChange.edit(plant("Jenny", "Young plant", 7, 3)),
+        PlantChange.add(plant("Anna", "Seed", 2, 4)),
+        PlantChange.delete("Julie", 5),
+        PlantChange.water(plant("Anna", "Seed", 2, 6)),
+        PlantChange.edit(plant("Jenny", "Grown plant", 7, 7))));
+
+    assertEquals(2, delta.getSince());
+    assertEquals(7, delta.getVersion());
+    assertEquals(List.of("Julie", "Anna", "Jenny"), delta.getChanges().stream()
+        .map(PlantChange::getName).toList());
+    assertEquals(PlantChange.Type.DELETE, delta.getChanges().get(0).getType());
+    assertEquals(PlantChange.Type.ADD, delta.getChanges().get(1).getType());
+    assertEquals(6, delta.getChanges().get(1).getVersion());
+    assertEquals("Grown plant", delta.getChanges().get(2).getPlant().getPhase());
+    assertTrue(PlantOverviewDelta.compact(7, 7, List.of()).isEmpty());
+    assertThrows(IllegalArgumentException.class,
+        () -> new PlantOverviewDelta(8, 7, List.of()));
+  }
+
+  /**
+   * Tests that applying a delta to the version it starts from gives the version it leads to.
+   */
+  @Test
+  public void testApplyTo() {
+    PlantOverview overview = new PlantOverview();
+    overview.addPlant(plant("Julie", "Seed", 5, 1));
+    overview.addPlant(plant("Jenny", "Young plant", 7, 2));
+    overview.addPlant(plant("Tommy", "Seed", 3, 2));
+    overview.setVersion(2);
+
+    PlantOverviewDelta delta = PlantOverviewDelta.compact(2, 6, List.of(
+        PlantChange.delete("Julie", 3),
+        PlantChange.add(plant("Julie", "Seed", 4, 4)),
+        PlantChange.edit(plant("Jenny", "Grown plant", 7, 5)),
+        PlantChange.delete("Tommy", 6)));
+    delta.applyTo(overview);
+
+    assertEquals(6, overview.getVersion());
+    assertEquals(List.of("Jenny", "Julie"), names(overview));
+    assertEquals(4, overview.getPlantByName("Julie").getWaterInterval());
+    assertEquals(5, overview.getPlantByName("Jenny").getVersion());
+    assertEquals("Grown plant", overview.getPlantByName("Jenny").getPhase());
+    assertNull(overview.getPlantByName("Tommy"));
+    assertThrows(IllegalStateException.class, () -> delta.applyTo(overview));
+  }
+}
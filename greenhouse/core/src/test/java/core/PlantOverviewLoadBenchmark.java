@@ -0,0 +1,92 @@
+package core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import json.GreenhouseModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for loading many plants into a PlantOverview, either one plant at a time
+ * with addPlant, in bulk with the builder, or from JSON through the GreenhouseModule.
+ * Run it with `mvn test-compile exec:exec -Pbenchmark -Dbenchmark=PlantOverviewLoadBenchmark`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class PlantOverviewLoadBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int plantCount;
+
+  private List<Plant> plants;
+  private ObjectMapper mapper;
+  private String json;
+
+  /**
+   * Creates the plants, and their JSON representation, that are loaded by the benchmarks.
+   *
+   * @throws Exception if the plants could not be written as JSON
+   */
+  @Setup
+  public void setUp() throws Exception {
+    Date date = Plant.fromStringToDate("2023-11-06 11:02:51");
+    plants = new ArrayList<>(plantCount);
+    for (int i = 0; i < plantCount; i++) {
+      plants.add(new Plant("Plant " + i, "Seed", 1 + i % 30, date));
+    }
+    mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+    json = mapper.writeValueAsString(new PlantOverview(plants));
+  }
+
+  /**
+   * Loads the plants one at a time, validating each of them against the overview.
+   *
+   * @return the loaded overview
+   */
+  @Benchmark
+  public PlantOverview addPlant() {
+    PlantOverview overview = new PlantOverview();
+    for (Plant plant : plants) {
+      overview.addPlant(plant);
+    }
+    return overview;
+  }
+
+  /**
+   * Loads the plants in bulk with the builder.
+   *
+   * @return the loaded overview
+   */
+  @Benchmark
+  public PlantOverview builder() {
+    return PlantOverview.builder().addAll(plants).build();
+  }
+
+  /**
+   * Loads the plants from JSON, like PlantPersistence does.
+   *
+   * @return the loaded overview
+   * @throws Exception if the JSON could not be read
+   */
+  @Benchmark
+  public PlantOverview readJson() throws Exception {
+    return mapper.readValue(json, PlantOverview.class);
+  }
+}
@@ -6,8 +6,12 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -82,6 +86,36 @@ public class PlantOverviewTest {
     assertEquals("Choose your plants growing phase", exception4.getMessage());
   }
 
+  /**
+   * Tests bulk loading plants with the PlantOverview builder.
+   */
+  @Test
+  public void testBuilder() {
+    Plant plant3 = new Plant("Julianne", "Young plant", 5);
+    PlantOverview built = PlantOverview.builder().add(plant).addAll(List.of(plant2, plant3)).build();
+    assertEquals(List.of(plant, plant2, plant3), built.getPlantOverview());
+    assertEquals(plant3, built.getPlantByName("Julianne"));
+
+    built.deletePlant("Julie");
+    assertEquals(List.of(plant, plant3), built.getPlantOverview());
+    assertThrows(IllegalArgumentException.class, () -> {
+        built.addPlant(new Plant("Jenny", "Seed", 4));
+    });
+
+    Throwable exception1 = assertThrows(IllegalArgumentException.class, () -> {
+        PlantOverview.builder().addAll(List.of(plant, new Plant("Jenny", "Seed", 4)));
+    });
+    Throwable exception2 = assertThrows(IllegalArgumentException.class, () -> {
+        PlantOverview.builder().add(new Plant("", "Seed", 4));
+    });
+    Throwable exception3 = assertThrows(IllegalArgumentException.class, () -> {
+        PlantOverview.builder().add(new Plant("Jennina", null, 2));
+    });
+    assertEquals("There already exists a plant named Jenny", exception1.getMessage());
+    assertEquals("Choose a name for your plant", exception2.getMessage());
+    assertEquals("Choose your plants growing phase", exception3.getMessage());
+  }
+
   /**
    * Tests the getPlantsByPredicate method of PlantOverview.
    */
@@ -99,6 +133,93 @@ public class PlantOverviewTest {
     assertFalse(seedPlants.contains(plant2));
   }
 
+  /**
+   * Tests the getPlantsByPhase method of PlantOverview, also when plants are changed
+   * or deleted.
+   */
+  @Test
+  public void testGetPlantsByPhase() {
+    Plant plant3 = new Plant("Julianne", "Young plant", 5);
+    plantOverview.addPlant(plant);
+    plantOverview.addPlant(plant2);
+    plantOverview.addPlant(plant3);
+
+    assertEquals(List.of(plant, plant2), plantOverview.getPlantsByPhase(PlantPhase.SEED));
+    assertEquals(List.of(plant3), plantOverview.getPlantsByPhase(PlantPhase.YOUNG_PLANT));
+    assertTrue(plantOverview.getPlantsByPhase(PlantPhase.GROWN_PLANT).isEmpty());
+
+    // Changes that keep the phase don't move a plant within its phase
+    plantOverview.editPlant("Jenny", null, "9");
+    assertEquals(List.of(plant, plant2), plantOverview.getPlantsByPhase(PlantPhase.SEED));
+
+    plantOverview.editPlant("Jenny", "Grown plant", null);
+    plantOverview.editPlant("Julianne", "Grown plant", null);
+    assertEquals(List.of(plant2), plantOverview.getPlantsByPhase(PlantPhase.SEED));
+    assertTrue(plantOverview.getPlantsByPhase(PlantPhase.YOUNG_PLANT).isEmpty());
+    assertEquals(List.of(plant, plant3), plantOverview.getPlantsByPhase(PlantPhase.GROWN_PLANT));
+
+    plantOverview.deletePlant("Julie");
+    assertTrue(plantOverview.getPlantsByPhase(PlantPhase.SEED).isEmpty());
+  }
+
+  /**
+   * Tests that getPlantsThatNeedWater and getHydratedPlants follow changes to
+   * the watering dates and intervals of the plants.
+   */
+  @Test
+  public void testGetPlantsThatNeedWater() {
+    Plant plant3 = new Plant("Julianne", "Seed", 2, Plant.fromStringToDate("2023-10-28 11:02:19"));
+    Plant plant4 = new Plant("Jorunn", "Seed", 6, Plant.fromStringToDate("2023-10-26 10:02:20"));
+    plantOverview.addPlant(plant3);
+    plantOverview.addPlant(plant);
+    plantOverview.addPlant(plant4);
+    plantOverview.addPlant(plant2);
+
+    assertEquals(List.of(plant3, plant4), plantOverview.getPlantsThatNeedWater());
+    assertEquals(List.of(plant, plant2), plantOverview.getHydratedPlants());
+
+    plantOverview.waterPlant("Jorunn", System.currentTimeMillis());
+    plantOverview.update(plant, () -> plant.setWaterInterval(-1));
+    assertEquals(List.of(plant3, plant), plantOverview.getPlantsThatNeedWater());
+    assertEquals(List.of(plant4, plant2), plantOverview.getHydratedPlants());
+
+    long time = plant3.getNextWateringTime();
+    assertTrue(plantOverview.getPlantsThatNeedWater(time).contains(plant3));
+    assertFalse(plantOverview.getPlantsThatNeedWater(time - 1).contains(plant3));
+    assertTrue(plantOverview.getHydratedPlants(time - 1).contains(plant3));
+  }
+
+  /**
+   * Tests that waterPlantsThatNeedWater waters only the plants that need water, all at the
+   * given time, and that read-only overviews can't be watered.
+   */
+  @Test
+  public void testWaterPlantsThatNeedWater() {
+    Plant plant3 = new Plant("Julianne", "Seed", 2, Plant.fromStringToDate("2023-10-28 11:02:19"));
+    Plant plant4 = new Plant("Jorunn", "Seed", 6, Plant.fromStringToDate("2023-10-26 10:02:20"));
+    plantOverview.addPlant(plant);
+    plantOverview.addPlant(plant3);
+    plantOverview.addPlant(plant4);
+    long lastWatered = plant.getLastWateredTime();
+    long now = System.currentTimeMillis();
+
+    assertEquals(List.of(plant3, plant4), plantOverview.waterPlantsThatNeedWater(now));
+    assertEquals(now, plant3.getLastWateredTime());
+    assertEquals(now, plant4.getLastWateredTime());
+    assertEquals(lastWatered, plant.getLastWateredTime());
+    assertTrue(plantOverview.getPlantsThatNeedWater(now).isEmpty());
+    assertTrue(plantOverview.waterPlantsThatNeedWater(now).isEmpty());
+    assertThrows(UnsupportedOperationException.class,
+        () -> plantOverview.snapshot().waterPlantsThatNeedWater(now));
+
+    long later = plant.getNextWateringTime();
+    plantOverview.waterPlant("Jenny", later);
+    assertEquals(later, plant.getLastWateredTime());
+    assertEquals(List.of(plant), plantOverview.getHydratedPlants(later));
+    assertThrows(UnsupportedOperationException.class,
+        () -> plantOverview.snapshot().waterPlant("Jenny", later));
+  }
+
   /**
    * Tests the getPlantsByName method of PlantOverview.
    */
@@ -114,6 +235,26 @@ public class PlantOverviewTest {
     Plant nonExistentPlant = plantOverview.getPlantByName("Non-existent Plant");
     assertNull(nonExistentPlant);
     }
+
+  /**
+   * Tests that the name index of PlantOverview follows plants renamed through the overview,
+   * and that the insertion order is kept.
+   */
+  @Test
+  public void testRenamePlant() {
+    plantOverview.addPlant(plant);
+    plantOverview.addPlant(plant2);
+
+    plantOverview.update(plant, () -> plant.setName("Jennifer"));
+    assertNull(plantOverview.getPlantByName("Jenny"));
+    assertEquals(plant, plantOverview.getPlantByName("Jennifer"));
+    assertEquals(List.of(plant, plant2), plantOverview.getPlantOverview());
+
+    plantOverview.addPlant(new Plant("Jenny", "Seed", 3));
+    assertThrows(IllegalArgumentException.class, () -> {
+        plantOverview.addPlant(new Plant("Jennifer", "Seed", 3));
+    });
+  }
   /**
    * Tests the editPlant method of PlantOverview.
    */
@@ -204,4 +345,73 @@ public class PlantOverviewTest {
     plantOverview.addPlant(plant5);
     assertEquals("Julianne, Jorunn and Janne need(s) water.", plantOverview.status());
   }
+
+  /**
+   * Tests that a snapshot holds read-only copies of the plants, which don't see later changes.
+   */
+  @Test
+  public void testSnapshot() {
+    plantOverview.addPlant(plant);
+    plantOverview.addPlant(plant2);
+    PlantOverview snapshot = plantOverview.snapshot();
+    assertTrue(snapshot.isReadOnly());
+    assertFalse(plantOverview.isReadOnly());
+    assertTrue(snapshot == snapshot.snapshot());
+
+    plantOverview.editPlant("Jenny", "Young plant", null);
+    plantOverview.deletePlant("Julie");
+    assertEquals("Seed", snapshot.getPlantByName("Jenny").getPhase());
+    assertEquals(List.of("Jenny", "Julie"),
+        snapshot.getPlantOverview().stream().map(Plant::getName).toList());
+    assertEquals(2, snapshot.getPlantsByPhase(PlantPhase.SEED).size());
+
+    Plant snapshotPlant = snapshot.getPlantByName("Jenny");
+    assertTrue(snapshotPlant.isReadOnly());
+    assertThrows(UnsupportedOperationException.class, () -> snapshotPlant.setWaterInterval(3));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.addPlant(new Plant("Tommy", "Seed", 1)));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.deletePlant("Jenny"));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.editPlant("Jenny", "Grown plant", null));
+  }
+
+  /**
+   * Tests that several threads can filter the same snapshot at once, and all get the same
+   * plants as when filtering it from a single thread.
+   *
+   * @throws Exception if a filtering thread fails
+   */
+  @Test
+  public void testFilterSnapshotFromSeveralThreads() throws Exception {
+    List<String> phases = List.of("Seed", "Young plant", "Grown plant");
+    for (int i = 0; i < 300; i++) {
+      plantOverview.addPlant(new Plant("Plant " + i, phases.get(i % 3), i % 7 - 3));
+    }
+    PlantOverview snapshot = plantOverview.snapshot();
+    List<String> filters = List.of("Seed", "Young plant", "Grown plant", "Needs water",
+        "Is hydrated", "All");
+    List<List<Plant>> expected = new ArrayList<>();
+    for (String filter : filters) {
+      expected.add(PlantOverview.filterPlantOverview(filter, snapshot).getPlantOverview());
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < filters.size(); i++) {
+              assertEquals(expected.get(i), PlantOverview
+                  .filterPlantOverview(filters.get(i), snapshot).getPlantOverview());
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
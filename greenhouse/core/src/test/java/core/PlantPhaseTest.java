@@ -0,0 +1,38 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class contains JUnit tests for the functionality of the PlantPhase enum.
+ */
+public class PlantPhaseTest {
+
+  /**
+   * Tests that phases are found by their display names.
+   */
+  @Test
+  public void testFromString() {
+    assertEquals(PlantPhase.SEED, PlantPhase.fromString("Seed"));
+    assertEquals(PlantPhase.YOUNG_PLANT, PlantPhase.fromString("Young plant"));
+    assertEquals(PlantPhase.GROWN_PLANT, PlantPhase.fromString("Grown plant"));
+    assertNull(PlantPhase.fromString("Flower"));
+    assertNull(PlantPhase.fromString(null));
+    assertEquals("Young plant", PlantPhase.YOUNG_PLANT.toString());
+  }
+
+  /**
+   * Tests the ordering of the phases.
+   */
+  @Test
+  public void testIsBefore() {
+    assertTrue(PlantPhase.SEED.isBefore(PlantPhase.YOUNG_PLANT));
+    assertTrue(PlantPhase.YOUNG_PLANT.isBefore(PlantPhase.GROWN_PLANT));
+    assertFalse(PlantPhase.GROWN_PLANT.isBefore(PlantPhase.SEED));
+    assertFalse(PlantPhase.SEED.isBefore(PlantPhase.SEED));
+  }
+}
@@ -90,6 +90,31 @@ public class PlantTest {
     assertEquals(originalPlant.getLastWatered(), clonedPlant.getLastWatered());
   }
 
+  /**
+   * Tests the constructor and methods of the Plant class that take times in milliseconds.
+   */
+  @Test
+  public void testTimeMethods() {
+    long creationTime = Plant.fromStringToDate("2023-10-06 11:02:57").getTime();
+    long lastWateredTime = Plant.fromStringToDate("2023-10-08 11:02:57").getTime();
+    long day = 24 * 60 * 60 * 1000;
+    Plant plant = new Plant("Sara", "Seed", 3, creationTime, lastWateredTime);
+
+    assertEquals(creationTime, plant.getCreationTime());
+    assertEquals(lastWateredTime, plant.getLastWateredTime());
+    assertEquals(new Date(creationTime), plant.getCreationDate());
+    assertEquals(5, plant.lifeSpan(creationTime + 5 * day + 1));
+    assertFalse(plant.needsWater(lastWateredTime + 3 * day - 1));
+    assertTrue(plant.needsWater(lastWateredTime + 3 * day));
+
+    plant.setLastWateredTime(creationTime);
+    assertEquals(creationTime, plant.getLastWateredTime());
+    plant.setCreationDate(new Date(lastWateredTime));
+    assertEquals(lastWateredTime, plant.getCreationTime());
+    assertEquals(2, Plant.daysBetween(creationTime, lastWateredTime));
+    assertEquals(-2, Plant.daysBetween(lastWateredTime, creationTime));
+  }
+
   /**
    * Tests the set methods of the Plant class.
    */
@@ -102,6 +127,7 @@ public class PlantTest {
     plant.setLastWatered(Plant.fromStringToDate("2023-9-08 11:02:57"));
     assertEquals("Synne", plant.getName());
     assertEquals("Seed", plant.getPhase());
+    assertEquals(PlantPhase.SEED, plant.getPlantPhase());
     assertEquals(2, plant.getWaterInterval());
     assertEquals(Plant.fromStringToDate("2023-9-08 11:02:57"), plant.getLastWatered());
     assertNotNull(plant.getCreationDate());
@@ -164,4 +190,21 @@ public class PlantTest {
     assertTrue(plant.needsWater());
     assertFalse(plant2.needsWater());
   }
+
+  /**
+   * Tests that getNextWateringTime agrees with the days counted by daysBetween.
+   */
+  @Test
+  public void testGetNextWateringTime() {
+    Date lastWatered = Plant.fromStringToDate("2023-10-06 11:02:57");
+    Plant plant = new Plant("Sana", "Seed", 3, lastWatered);
+    long time = plant.getNextWateringTime();
+    assertEquals(3, Plant.daysBetween(lastWatered, new Date(time)));
+    assertEquals(2, Plant.daysBetween(lastWatered, new Date(time - 1)));
+
+    plant.setWaterInterval(0);
+    time = plant.getNextWateringTime();
+    assertEquals(0, Plant.daysBetween(lastWatered, new Date(time)));
+    assertEquals(-1, Plant.daysBetween(lastWatered, new Date(time - 1)));
+  }
 }
@@ -0,0 +1,108 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import core.Plant;
+import core.PlantChange;
+import core.PlantOverview;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The PlantChangeLogTest class contains JUnit tests for appending changes to a PlantChangeLog
+ * and replaying them.
+ */
+public class PlantChangeLogTest {
+
+  @TempDir
+  private Path directory;
+
+  /**
+   * Test that appended changes, one at a time or many at once, are replayed in order, and that replaying them on top of an
+   * overview that already has them gives the same result.
+   */
+  @Test
+  public void testAppendAndReplay() throws IOException {
+    Path logFile = directory.resolve("plants.log");
+    Plant plant = new Plant("Frank", "Seed", 3, 1000L, 2000L);
+    try (PlantChangeLog log = new PlantChangeLog(logFile, PlantChangeLog.SyncPolicy.ALWAYS, 0)) {
+      log.append(PlantChange.add(plant));
+      plant.setPhase("Young plant");
+      log.append(PlantChange.edit(plant));
+      plant.setLastWateredTime(3000L);
+      log.append(PlantChange.water(plant));
+      log.appendAll(List.of(PlantChange.add(new Plant("Tommy", "Seed", 2)),
+          PlantChange.delete("Tommy")));
+      assertEquals(5, log.size());
+    }
+
+    PlantOverview overview = new PlantOverview();
+    PlantChangeLog log = new PlantChangeLog(logFile, PlantChangeLog.SyncPolicy.NEVER, 0);
+    assertEquals(5, log.replay(overview));
+    assertEquals(5, log.replay(overview));
+    assertEquals(1, overview.getPlantOverview().size());
+    Plant replayed = overview.getPlantByName("Frank");
+    PlantPersistenceTest.checkPlant(replayed, "Frank", "Young plant", 3, plant.getCreationDate(), plant.getLastWatered());
+    assertNull(overview.getPlantByName("Tommy"));
+  }
+
+  /**
+   * Test that the versions of changes, including deletes, are restored when they are replayed,
+   * and that the versions are written to and read from the save file.
+   */
+  @Test
+  public void testVersionsAreReplayed() throws IOException {
+    Path logFile = directory.resolve("plants.log");
+    Plant plant = new Plant("Frank", "Seed", 3, 1000L, 2000L);
+    plant.setVersion(4);
+    try (PlantChangeLog log = new PlantChangeLog(logFile, PlantChangeLog.SyncPolicy.NEVER, 0)) {
+      log.append(PlantChange.add(plant));
+      log.append(PlantChange.delete("Tommy", 6));
+    }
+
+    PlantOverview overview = new PlantOverview();
+    new PlantChangeLog(logFile, PlantChangeLog.SyncPolicy.NEVER, 0).replay(overview);
+    assertEquals(6, overview.getVersion());
+    assertEquals(4, overview.getPlantByName("Frank").getVersion());
+
+    PlantPersistence persistence = new PlantPersistence();
+    persistence.setSaveFile(directory.resolve("plants.json"));
+    persistence.savePlantOverview(overview);
+    PlantOverview loaded = persistence.loadPlantOverview();
+    assertEquals(6, loaded.getVersion());
+    assertEquals(4, loaded.getPlantByName("Frank").getVersion());
+  }
+
+  /**
+   * Test that a torn last line is ignored and removed, while an invalid complete line
+   * is reported as an error.
+   */
+  @Test
+  public void testTornLastLine() throws IOException {
+    Path logFile = directory.resolve("plants.log");
+    try (PlantChangeLog log = new PlantChangeLog(logFile, PlantChangeLog.SyncPolicy.ALWAYS, 0)) {
+      log.append(PlantChange.add(new Plant("Frank", "Seed", 3)));
+    }
+    long length = Files.size(logFile);
+    Files.writeString(logFile, "{\"Change\":\"DELETE\",\"Na", StandardOpenOption.APPEND);
+
+    PlantOverview overview = new PlantOverview();
+    PlantChangeLog log = new PlantChangeLog(logFile, PlantChangeLog.SyncPolicy.ALWAYS, 0);
+    assertEquals(1, log.replay(overview));
+    assertEquals(length, Files.size(logFile));
+    log.append(PlantChange.delete("Frank"));
+    log.close();
+    assertEquals(2, Files.readAllLines(logFile, StandardCharsets.UTF_8).size());
+
+    Files.writeString(logFile, "{\"Change\":\"EDIT\",\"Name\":\"Frank\"}\n", StandardOpenOption.APPEND);
+    assertThrows(IOException.class, () -> new PlantChangeLog(logFile, PlantChangeLog.SyncPolicy.ALWAYS, 0).replay(new PlantOverview()));
+  }
+}
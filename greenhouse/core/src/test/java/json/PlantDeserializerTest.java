@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.node.TextNode;
 import core.Plant;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -125,4 +126,37 @@ public class PlantDeserializerTest {
     Plant result = deserializer.deserialize(jsonNode);
     assertNull(result);
   }
+
+  /**
+   * Test that a name or phase that is a number is ignored like a missing field, both when
+   * streaming and when reading a tree, while the other fields may be numbers.
+   */
+  @Test
+  public void testNumericNameAndPhase() throws JsonProcessingException {
+    PlantDeserializer deserializer = new PlantDeserializer();
+    String numericName = "{\"Name\": 42, \"Phase\": \"Seed\", \"Water interval\": 3}";
+    assertNull(mapper.readValue(numericName, Plant.class));
+    assertNull(deserializer.deserialize(mapper.readTree(numericName)));
+
+    String numericPhase = "{\"Name\": \"Frank\", \"Phase\": 1, \"Water interval\": 3}";
+    assertNull(mapper.readValue(numericPhase, Plant.class));
+    assertNull(deserializer.deserialize(mapper.readTree(numericPhase)));
+
+    String numericInterval = "{\"Name\": \"Frank\", \"Phase\": \"Seed\", \"Water interval\": 3}";
+    assertEquals(3, mapper.readValue(numericInterval, Plant.class).getWaterInterval());
+    assertEquals(3, deserializer.deserialize(mapper.readTree(numericInterval)).getWaterInterval());
+  }
+
+  /**
+   * Test that fields that are not strings are ignored like missing fields, and that an
+   * invalid date in an otherwise valid plant is reported as an error.
+   */
+  @Test
+  public void testNonTextFieldsAndInvalidDate() throws JsonProcessingException {
+    String json = "{\"Name\": {\"First\": \"Frank\"}, \"Phase\": \"Seed\", \"Water interval\": \"3\"}";
+    assertNull(mapper.readValue(json, Plant.class));
+
+    String invalidDate = "{\"Name\": \"Frank\", \"Phase\": \"Seed\", \"Water interval\": \"3\", \"Last watered\": \"02.01.2023\"}";
+    assertThrows(JsonProcessingException.class, () -> mapper.readValue(invalidDate, Plant.class));
+  }
 }
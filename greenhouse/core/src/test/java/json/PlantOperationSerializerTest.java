@@ -0,0 +1,97 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.Plant;
+import core.PlantBatchResult;
+import core.PlantChange;
+import core.PlantOperation;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The PlantOperationSerializerTest class contains JUnit tests for serializing and
+ * deserializing batches of PlantOperation objects and their PlantBatchResult using the
+ * Jackson ObjectMapper.
+ */
+public class PlantOperationSerializerTest {
+
+  private static ObjectMapper mapper;
+
+  /**
+   * Sets up the Jackson ObjectMapper with the GreenhouseModule.
+   */
+  @BeforeAll
+  public static void setUp() {
+    mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+  }
+
+  /**
+   * Tests that a batch of operations is read back as it was written, and that invalid
+   * operations are reported as errors.
+   */
+  @Test
+  public void testOperations() throws JsonProcessingException {
+    List<PlantOperation> batch = List.of(PlantOperation.add("Julie", "Seed", 4),
+        PlantOperation.edit("Anine", "Young plant", null).ifVersion(3),
+        PlantOperation.water("Tommy"), PlantOperation.delete("Jenny"));
+
+    String json = mapper.writeValueAsString(batch);
+    assertEquals("[{\"Operation\":\"ADD\",\"Name\":\"Julie\",\"Phase\":\"Seed\","
+        + "\"Water interval\":4},{\"Operation\":\"EDIT\",\"Name\":\"Anine\","
+        + "\"Phase\":\"Young plant\",\"Version\":3},{\"Operation\":\"WATER\",\"Name\":\"Tommy\"},"
+        + "{\"Operation\":\"DELETE\",\"Name\":\"Jenny\"}]", json);
+
+    List<PlantOperation> read = mapper.readValue(json, new TypeReference<>() {});
+    assertEquals(4, read.size());
+    assertEquals(PlantChange.Type.ADD, read.get(0).getType());
+    assertEquals(4, read.get(0).getWaterInterval());
+    assertEquals(3, read.get(1).getExpectedVersion());
+    assertNull(read.get(1).getWaterInterval());
+    assertEquals(PlantOperation.ANY_VERSION, read.get(2).getExpectedVersion());
+    assertEquals("Jenny", read.get(3).getName());
+    assertEquals(5, mapper.readValue("{\"Operation\":\"EDIT\",\"Name\":\"Anine\","
+        + "\"Water interval\":\"5\"}", PlantOperation.class).getWaterInterval());
+
+    assertThrows(JsonProcessingException.class, () -> mapper.readValue(
+        "{\"Operation\":\"ADD\",\"Name\":\"Julie\"}", PlantOperation.class));
+    assertThrows(JsonProcessingException.class, () -> mapper.readValue(
+        "{\"Operation\":\"GROW\",\"Name\":\"Julie\"}", PlantOperation.class));
+  }
+
+  /**
+   * Tests that the result of a batch is read back as it was written.
+   */
+  @Test
+  public void testBatchResult() throws JsonProcessingException {
+    Plant plant = new Plant("Julie", "Seed", 4,
+        Plant.fromStringToDate("2023-01-01 00:00:00"));
+    plant.setVersion(8);
+    PlantBatchResult result = new PlantBatchResult(false, 7, List.of(
+        new PlantBatchResult.Outcome(PlantBatchResult.Status.NOT_APPLIED, null, null),
+        new PlantBatchResult.Outcome(PlantBatchResult.Status.FAILED, null, "No plant")));
+
+    String json = mapper.writeValueAsString(result);
+    assertEquals("{\"Applied\":false,\"Version\":7,\"Results\":[{\"Status\":\"NOT_APPLIED\"},"
+        + "{\"Status\":\"FAILED\",\"Message\":\"No plant\"}]}", json);
+    PlantBatchResult read = mapper.readValue(json, PlantBatchResult.class);
+    assertFalse(read.isApplied());
+    assertEquals(7, read.getVersion());
+    assertEquals(PlantBatchResult.Status.FAILED, read.getOutcomes().get(1).getStatus());
+    assertEquals("No plant", read.getOutcomes().get(1).getMessage());
+
+    PlantBatchResult applied = mapper.readValue(mapper.writeValueAsString(
+        new PlantBatchResult(true, 8, List.of(new PlantBatchResult.Outcome(
+            PlantBatchResult.Status.APPLIED, plant, null)))), PlantBatchResult.class);
+    assertEquals(8, applied.getOutcomes().get(0).getPlant().getVersion());
+    assertEquals("Julie", applied.getOutcomes().get(0).getPlant().getName());
+  }
+}
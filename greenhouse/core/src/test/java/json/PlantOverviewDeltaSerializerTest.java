@@ -0,0 +1,65 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.Plant;
+import core.PlantChange;
+import core.PlantOverviewDelta;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The PlantOverviewDeltaSerializerTest class contains JUnit tests for serializing and
+ * deserializing PlantOverviewDelta objects using the Jackson ObjectMapper.
+ */
+public class PlantOverviewDeltaSerializerTest {
+
+  private static ObjectMapper mapper;
+
+  /**
+   * Sets up the Jackson ObjectMapper with the GreenhouseModule.
+   */
+  @BeforeAll
+  public static void setUp() {
+    mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+  }
+
+  /**
+   * Tests that a delta with added, changed and deleted plants is read back as it was written.
+   */
+  @Test
+  public void testRoundTrip() throws JsonProcessingException {
+    Plant plant = new Plant("Julie", "Seed", 4,
+        Plant.fromStringToDate("2023-01-01 00:00:00"));
+    plant.setVersion(4);
+    PlantOverviewDelta delta = new PlantOverviewDelta(2, 5,
+        List.of(PlantChange.add(plant), PlantChange.delete("Anine", 5)));
+
+    String json = mapper.writeValueAsString(delta);
+    assertEquals("{\"Since\":2,\"Version\":5,\"Changes\":[{\"Change\":\"ADD\",\"Name\":\"Julie\","
+        + "\"Plant\":{\"Name\":\"Julie\",\"Phase\":\"Seed\",\"Water interval\":\"4\","
+        + "\"Last watered\":\"2023-01-01 00:00:00\",\"Creation date\":\"2023-01-01 00:00:00\","
+        + "\"Version\":4}},{\"Change\":\"DELETE\",\"Name\":\"Anine\",\"Version\":5}]}", json);
+
+    PlantOverviewDelta read = mapper.readValue(json, PlantOverviewDelta.class);
+    assertEquals(2, read.getSince());
+    assertEquals(5, read.getVersion());
+    assertEquals(2, read.getChanges().size());
+    assertEquals(4, read.getChanges().get(0).getPlant().getVersion());
+    assertEquals("Anine", read.getChanges().get(1).getName());
+    assertNull(read.getChanges().get(1).getPlant());
+    assertEquals(5, read.getChanges().get(1).getVersion());
+
+    assertThrows(JsonProcessingException.class,
+        () -> mapper.readValue("{\"Since\":2,\"Changes\":[]}", PlantOverviewDelta.class));
+    assertThrows(JsonProcessingException.class,
+        () -> mapper.readValue("{\"Since\":2,\"Version\":5,\"Changes\":[{\"Change\":\"EDIT\"}]}",
+            PlantOverviewDelta.class));
+  }
+}
@@ -94,5 +94,22 @@ public class PlantOverviewDeserializerTest {
       System.err.println(e.toString());
     }
   }
-}
 
+  /**
+   * Test case to verify that malformed elements and unknown fields are skipped while
+   * streaming, and that the valid plants around them are still read.
+   */
+  @Test
+  public void testSkipsMalformedEntries() throws JsonProcessingException {
+    String json = "{\"Comment\":{\"Plants\":[1]},\"Plants\":[null,7,[],"
+        + "{\"Name\":\"Tommy\",\"Phase\":\"Seed\"},"
+        + "{\"Name\":\"Julie\",\"Extra\":[{\"Name\":\"x\"}],\"Phase\":\"Seed\","
+        + "\"Water interval\":\"4\",\"Last watered\":\"2023-01-02 00:00:00\","
+        + "\"Creation date\":\"2023-01-01 00:00:00\"}],\"Other\":true}";
+    PlantOverview overview = mapper.readValue(json, PlantOverview.class);
+    Iterator<Plant> plantIterator = overview.getPlantOverview().iterator();
+    assertTrue(plantIterator.hasNext());
+    PlantPersistenceTest.checkPlant(plantIterator.next(), "Julie", "Seed", 4, Plant.fromStringToDate("2023-01-01 00:00:00"), Plant.fromStringToDate("2023-01-02 00:00:00"));
+    assertFalse(plantIterator.hasNext());
+  }
+}
@@ -2,10 +2,12 @@ package json;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import core.ImmutablePlantOverview;
 import core.Plant;
 import core.PlantOverview;
 import java.util.Date;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -50,4 +52,16 @@ public class PlantOverviewSerializerTest {
       e.printStackTrace();
     }
   }
+
+  /**
+   * Tests that an ImmutablePlantOverview is serialized like a PlantOverview with the same
+   * plants and version.
+   */
+  @Test
+  public void testSerializerImmutableOverview() throws JsonProcessingException {
+    ImmutablePlantOverview immutable = ImmutablePlantOverview.of(o, 3);
+    assertEquals(mapper.writeValueAsString(immutable.toPlantOverview()),
+        mapper.writeValueAsString(immutable));
+    assertTrue(mapper.writeValueAsString(immutable).startsWith("{\"Version\":3,\"Plants\":["));
+  }
 }
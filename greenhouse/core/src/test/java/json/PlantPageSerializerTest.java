@@ -0,0 +1,62 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.Plant;
+import core.PlantPage;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The PlantPageSerializerTest class contains JUnit tests for serializing and deserializing
+ * PlantPage objects using the Jackson ObjectMapper.
+ */
+public class PlantPageSerializerTest {
+
+  private static ObjectMapper mapper;
+
+  /**
+   * Sets up the Jackson ObjectMapper with the GreenhouseModule.
+   */
+  @BeforeAll
+  public static void setUp() {
+    mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+  }
+
+  /**
+   * Tests that a page is read back as it was written, with and without a next cursor.
+   */
+  @Test
+  public void testRoundTrip() throws JsonProcessingException {
+    Plant plant = new Plant("Julie", "Seed", 4,
+        Plant.fromStringToDate("2023-01-01 00:00:00"));
+    plant.setVersion(3);
+    PlantPage page = new PlantPage(7, List.of(plant), "n:Julie");
+
+    String json = mapper.writeValueAsString(page);
+    assertEquals("{\"Version\":7,\"Plants\":[{\"Name\":\"Julie\",\"Phase\":\"Seed\","
+        + "\"Water interval\":\"4\",\"Last watered\":\"2023-01-01 00:00:00\","
+        + "\"Creation date\":\"2023-01-01 00:00:00\",\"Version\":3}],\"Next\":\"n:Julie\"}",
+        json);
+
+    PlantPage read = mapper.readValue(json, PlantPage.class);
+    assertEquals(7, read.getVersion());
+    assertEquals("Julie", read.getPlants().get(0).getName());
+    assertEquals(3, read.getPlants().get(0).getVersion());
+    assertEquals("n:Julie", read.getNextCursor());
+
+    PlantPage last = mapper.readValue(mapper.writeValueAsString(new PlantPage(7, List.of(),
+        null)), PlantPage.class);
+    assertEquals(0, last.getPlants().size());
+    assertNull(last.getNextCursor());
+
+    assertThrows(JsonProcessingException.class,
+        () -> mapper.readValue("{\"Plants\":[]}", PlantPage.class));
+  }
+}
@@ -0,0 +1,61 @@
+package json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.PlantPatch;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The PlantPatchSerializerTest class contains JUnit tests for serializing and deserializing
+ * PlantPatch objects using the Jackson ObjectMapper.
+ */
+public class PlantPatchSerializerTest {
+
+  private static ObjectMapper mapper;
+
+  /**
+   * Sets up the Jackson ObjectMapper with the GreenhouseModule.
+   */
+  @BeforeAll
+  public static void setUp() {
+    mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+  }
+
+  /**
+   * Tests that only the fields that are changed are written, that a patch is read back as it
+   * was written, and that a patch without a name is reported as an error.
+   */
+  @Test
+  public void testRoundTrip() throws JsonProcessingException {
+    String json = mapper.writeValueAsString(new PlantPatch("Julie", null, 3, true));
+    assertEquals("{\"Name\":\"Julie\",\"Water interval\":3,\"Water\":true}", json);
+
+    PlantPatch read = mapper.readValue(json, PlantPatch.class);
+    assertEquals("Julie", read.getName());
+    assertNull(read.getPhase());
+    assertEquals(3, read.getWaterInterval());
+    assertTrue(read.isWater());
+
+    PlantPatch phaseOnly = mapper.readValue("{\"Name\":\"Julie\",\"Phase\":\"Young plant\","
+        + "\"Water interval\":null}", PlantPatch.class);
+    assertEquals("Young plant", phaseOnly.getPhase());
+    assertNull(phaseOnly.getWaterInterval());
+    assertFalse(phaseOnly.isWater());
+    assertEquals(5, mapper.readValue("{\"Name\":\"Julie\",\"Water interval\":\"5\"}",
+        PlantPatch.class).getWaterInterval());
+
+    assertThrows(JsonProcessingException.class,
+        () -> mapper.readValue("{\"Phase\":\"Seed\"}", PlantPatch.class));
+    assertThrows(JsonProcessingException.class,
+        () -> mapper.readValue("{\"Name\":\"Julie\",\"Water interval\":\"often\"}",
+            PlantPatch.class));
+  }
+}
@@ -2,10 +2,19 @@ package json;
 
 import core.Plant;
 import core.PlantOverview;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 
@@ -15,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * The `PlantPersistenceTest` class contains JUnit test methods for testing the serialization and deserialization
@@ -114,6 +124,126 @@ public class PlantPersistenceTest {
     }
   }
 
+  /**
+   * Test that the compact format is written without indentation, with numeric fields and a
+   * format version, and that it is read back like the pretty format.
+   */
+  @Test
+  public void testCompactFormat() throws IOException {
+    PlantOverview overview = createModelPlantOverview();
+    PlantPersistence compactPersistence = new PlantPersistence(PlantFileFormat.COMPACT);
+    StringWriter writer = new StringWriter();
+    compactPersistence.writePlantOverview(writer, overview);
+    String json = writer.toString();
+
+    long creationTime = Plant.fromStringToDate("2023-01-01 00:00:00").getTime();
+    long lastWateredTime = Plant.fromStringToDate("2023-01-02 00:00:00").getTime();
+    assertEquals("{\"Format version\":2,\"Plants\":[{\"Name\":\"Jacob\",\"Phase\":\"Young plant\","
+        + "\"Water interval\":2,\"Last watered\":" + lastWateredTime + ",\"Creation date\":"
+        + creationTime + "},{\"Name\":\"Thomas\",\"Phase\":\"Seed\",\"Water interval\":3,"
+        + "\"Last watered\":" + lastWateredTime + ",\"Creation date\":" + creationTime + "}]}", json);
+    checkSamplePlantOverview(overview, persistence.readPlantOverview(new StringReader(json)));
+
+    assertThrows(IOException.class, () -> persistence.readPlantOverview(
+        new StringReader("{\"Format version\":3,\"Plants\":[]}")));
+  }
+
+  /**
+   * Test that a binary snapshot is read back like it was written, including the versions of
+   * the overview and its plants, that JSON is also read from an InputStream, and that
+   * truncated snapshots are rejected.
+   */
+  @Test
+  public void testSnapshot() throws IOException {
+    PlantOverview overview = createModelPlantOverview();
+    overview.setVersion(7);
+    overview.getPlantByName("Jacob").setVersion(5);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    persistence.writePlantOverview(out, overview);
+    byte[] snapshot = out.toByteArray();
+    PlantOverview readOverview = persistence.readPlantOverview(new ByteArrayInputStream(snapshot));
+    checkSamplePlantOverview(overview, readOverview);
+    assertEquals(7, readOverview.getVersion());
+    assertEquals(5, readOverview.getPlantByName("Jacob").getVersion());
+    assertEquals(0, readOverview.getPlantByName("Thomas").getVersion());
+
+    StringWriter writer = new StringWriter();
+    persistence.writePlantOverview(writer, overview);
+    byte[] json = writer.toString().getBytes(StandardCharsets.UTF_8);
+    checkSamplePlantOverview(overview, persistence.readPlantOverview(new ByteArrayInputStream(json)));
+
+    assertTrue(persistence.readPlantOverview(InputStream.nullInputStream()).getPlantOverview().isEmpty());
+    assertThrows(IOException.class, () -> persistence.readPlantOverview(
+        new ByteArrayInputStream(Arrays.copyOf(snapshot, snapshot.length - 1))));
+  }
+
+  /**
+   * Test that corrupt lengths and counts in a snapshot are rejected before anything is
+   * allocated for them.
+   */
+  @Test
+  public void testCorruptSnapshotLengths() throws IOException {
+    // A phase count, a phase length and a record length that are far too large
+    int[][] headers = {
+      {Integer.MAX_VALUE},
+      {1, Integer.MAX_VALUE},
+      {1, 4, 'S' << 24 | 'e' << 16 | 'e' << 8 | 'd', 1, Integer.MAX_VALUE},
+    };
+    for (int[] header : headers) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.write(PlantSnapshot.MAGIC);
+      out.writeInt(1);
+      for (int value : header) {
+        out.writeInt(value);
+      }
+      IOException e = assertThrows(IOException.class, () -> persistence.readPlantOverview(
+          new ByteArrayInputStream(bytes.toByteArray())));
+      assertTrue(e.getMessage().startsWith("Invalid"), e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that saves replace the save file with one that ends with a checksum, keeping the
+   * previous save file as a backup, and that a corrupt or missing save file is loaded from
+   * the backup instead.
+   */
+  @Test
+  public void testAtomicSave(@TempDir Path directory) throws IOException {
+    Path saveFile = directory.resolve("plants.json");
+    Path backupFile = directory.resolve("plants.json.bak");
+    persistence.setSaveFile(saveFile);
+    assertThrows(NoSuchFileException.class, () -> persistence.loadPlantOverview());
+
+    PlantOverview overview = createModelPlantOverview();
+    persistence.savePlantOverview(overview);
+    assertTrue(Files.readString(saveFile).matches("(?s)\\{.*\\}\nCRC32C [0-9a-f]{8}\n"));
+    assertFalse(Files.exists(backupFile));
+    checkSamplePlantOverview(overview, persistence.loadPlantOverview());
+
+    PlantOverview newer = createModelPlantOverview();
+    newer.deletePlant("Thomas");
+    persistence.savePlantOverview(newer);
+    assertTrue(Files.exists(backupFile));
+    assertFalse(Files.exists(directory.resolve("plants.json.tmp")));
+    assertEquals(1, persistence.loadPlantOverview().getPlantOverview().size());
+
+    byte[] corrupt = Files.readAllBytes(saveFile);
+    corrupt[corrupt.length / 2] ^= 1;
+    Files.write(saveFile, corrupt);
+    checkSamplePlantOverview(overview, persistence.loadPlantOverview());
+    Files.delete(saveFile);
+    checkSamplePlantOverview(overview, persistence.loadPlantOverview());
+
+    StringWriter writer = new StringWriter();
+    persistence.writePlantOverview(writer, overview);
+    Files.writeString(saveFile, writer.toString());
+    Files.delete(backupFile);
+    checkSamplePlantOverview(overview, persistence.loadPlantOverview());
+    Files.writeString(saveFile, writer.toString().substring(0, 20));
+    assertThrows(IOException.class, () -> persistence.loadPlantOverview());
+  }
+
   /**
    * Test case for the scenario where the provided reader is not ready, simulating a situation
    * where there is no data available to be read. The test checks whether the readPlantOverview
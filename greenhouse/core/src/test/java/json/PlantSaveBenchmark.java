@@ -0,0 +1,105 @@
+package json;
+
+import core.Plant;
+import core.PlantOverview;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing the atomic, checksummed save of PlantPersistence with writing the
+ * save file in place through a FileWriter, like it used to be saved.
+ * Run it with `mvn test-compile exec:exec -Pbenchmark -Dbenchmark=PlantSaveBenchmark`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class PlantSaveBenchmark {
+
+  @Param({"100", "10000", "100000"})
+  private int plantCount;
+
+  private Path directory;
+  private Path saveFile;
+  private PlantPersistence persistence;
+  private PlantOverview overview;
+
+  /**
+   * Creates the plants that are saved by the benchmarks, and a directory to save them in.
+   *
+   * @throws IOException if the directory could not be created
+   */
+  @Setup
+  public void setUp() throws IOException {
+    String[] phases = {"Seed", "Young plant", "Grown plant"};
+    Date date = Plant.fromStringToDate("2023-11-06 11:02:51");
+    PlantOverview.Builder builder = PlantOverview.builder();
+    for (int i = 0; i < plantCount; i++) {
+      builder.add(new Plant("Plant " + i, phases[i % phases.length], 1 + i % 30, date));
+    }
+    overview = builder.build();
+    directory = Files.createTempDirectory("plant-save-benchmark");
+    saveFile = directory.resolve("plants.json");
+    persistence = new PlantPersistence();
+    persistence.setSaveFile(saveFile);
+  }
+
+  /**
+   * Deletes the directory the plants were saved in.
+   *
+   * @throws IOException if the directory could not be deleted
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Truncates the save file and writes the plants into it, which is not crash safe.
+   *
+   * @throws IOException if the plants could not be written
+   */
+  @Benchmark
+  public void writeInPlace() throws IOException {
+    try (Writer writer = new FileWriter(saveFile.toFile(), StandardCharsets.UTF_8)) {
+      persistence.writePlantOverview(writer, overview);
+    }
+  }
+
+  /**
+   * Saves the plants to a temporary file with a checksum, forces it to disk and renames
+   * it over the save file.
+   *
+   * @throws IOException if the plants could not be saved
+   */
+  @Benchmark
+  public void savePlantOverview() throws IOException {
+    persistence.savePlantOverview(overview);
+  }
+}
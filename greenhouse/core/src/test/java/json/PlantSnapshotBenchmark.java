@@ -0,0 +1,116 @@
+package json;
+
+import core.Plant;
+import core.PlantOverview;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing loading a PlantOverview from a binary snapshot with loading it
+ * from JSON in the pretty and compact formats. The sizes of the three are printed in setup.
+ * Run it with `mvn test-compile exec:exec -Pbenchmark -Dbenchmark=PlantSnapshotBenchmark`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class PlantSnapshotBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int plantCount;
+
+  private PlantPersistence persistence;
+  private byte[] prettyJson;
+  private byte[] compactJson;
+  private byte[] snapshot;
+
+  /**
+   * Writes the plants that are loaded by the benchmarks in each of the formats.
+   *
+   * @throws Exception if the plants could not be written
+   */
+  @Setup
+  public void setUp() throws Exception {
+    String[] phases = {"Seed", "Young plant", "Grown plant"};
+    Date date = Plant.fromStringToDate("2023-11-06 11:02:51");
+    PlantOverview.Builder builder = PlantOverview.builder();
+    for (int i = 0; i < plantCount; i++) {
+      builder.add(new Plant("Plant " + i, phases[i % phases.length], 1 + i % 30, date));
+    }
+    PlantOverview overview = builder.build();
+
+    persistence = new PlantPersistence();
+    prettyJson = writeJson(overview, PlantFileFormat.PRETTY);
+    compactJson = writeJson(overview, PlantFileFormat.COMPACT);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    persistence.writePlantOverview(out, overview);
+    snapshot = out.toByteArray();
+    System.out.printf("%nBytes for %d plants: pretty JSON %d, compact JSON %d, snapshot %d%n",
+        plantCount, prettyJson.length, compactJson.length, snapshot.length);
+  }
+
+  /**
+   * Writes an overview as JSON in the given format.
+   *
+   * @param overview the overview to write
+   * @param format the format to write it in
+   * @return the UTF-8 bytes of the JSON
+   * @throws Exception if the overview could not be written
+   */
+  private static byte[] writeJson(PlantOverview overview, PlantFileFormat format)
+      throws Exception {
+    StringWriter writer = new StringWriter();
+    new PlantPersistence(format).writePlantOverview(writer, overview);
+    return writer.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Loads the plants from pretty JSON, the format of plants.json.
+   *
+   * @return the loaded overview
+   * @throws Exception if the JSON could not be read
+   */
+  @Benchmark
+  public PlantOverview readPrettyJson() throws Exception {
+    return persistence.readPlantOverview(new ByteArrayInputStream(prettyJson));
+  }
+
+  /**
+   * Loads the plants from compact JSON.
+   *
+   * @return the loaded overview
+   * @throws Exception if the JSON could not be read
+   */
+  @Benchmark
+  public PlantOverview readCompactJson() throws Exception {
+    return persistence.readPlantOverview(new ByteArrayInputStream(compactJson));
+  }
+
+  /**
+   * Loads the plants from a binary snapshot.
+   *
+   * @return the loaded overview
+   * @throws Exception if the snapshot could not be read
+   */
+  @Benchmark
+  public PlantOverview readSnapshot() throws Exception {
+    return persistence.readPlantOverview(new ByteArrayInputStream(snapshot));
+  }
+}
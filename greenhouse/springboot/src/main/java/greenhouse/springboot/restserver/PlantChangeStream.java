@@ -0,0 +1,255 @@
+package greenhouse.springboot.restserver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import core.PlantChange;
+
+/**
+ * Pushes the changes made to the plant overview to subscribers as they are made. Every
+ * subscriber has its own bounded buffer, which `publish` only adds to, so publishing never
+ * waits for a subscriber, and the changes are sent from a small pool of threads, one
+ * subscriber at a time. A subscriber that falls so far behind that its buffer is full has
+ * its buffered changes dropped, and gets a resync event with the newest version instead,
+ * telling it to fetch what it missed, before it gets any more changes. Subscribers also get
+ * a heartbeat now and then, which finds the subscribers that are gone.
+ *
+ * <p>The sending threads write the events themselves, so a client that stops reading holds
+ * up one of them until the write fails, which the server makes it do once the write timeout
+ * of the connection runs out. The subscriber is then dropped and its stream ended, so that
+ * it reconnects and fetches what it missed.</p>
+ *
+ * <p>Every event has the version of the overview it leads to, so that subscribers can tell
+ * if they missed a change.</p>
+ */
+public class PlantChangeStream implements Closeable {
+
+  /**
+   * The name of the event of a change.
+   */
+  public static final String CHANGE_EVENT = "change";
+
+  /**
+   * The name of the event that tells a subscriber to fetch the changes it missed.
+   */
+  public static final String RESYNC_EVENT = "resync";
+
+  /**
+   * Where the events of a subscriber are sent.
+   */
+  public interface Sink {
+
+    /**
+     * Sends an event.
+     *
+     * @param event The name of the event.
+     * @param version The version of the overview the event leads to.
+     * @param data The data of the event: the change, or the version for a resync.
+     * @throws IOException If the subscriber is gone.
+     */
+    void send(String event, long version, Object data) throws IOException;
+
+    /**
+     * Sends something that is not an event, to check that the subscriber is still there.
+     *
+     * @throws IOException If the subscriber is gone.
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * Ends the stream of the subscriber.
+     */
+    void close();
+  }
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final int bufferSize;
+  private final ScheduledExecutorService executor;
+
+  /**
+   * Constructs a stream with its own threads.
+   *
+   * @param bufferSize      The number of changes a subscriber can fall behind before it has
+   *                        to resync.
+   * @param threads         The number of threads that send events.
+   * @param heartbeatMillis How often subscribers get a heartbeat.
+   */
+  public PlantChangeStream(int bufferSize, int threads, long heartbeatMillis) {
+    if (bufferSize < 1 || threads < 1 || heartbeatMillis < 1) {
+      throw new IllegalArgumentException("The buffer size, number of threads and heartbeat"
+          + " interval must be positive");
+    }
+    this.bufferSize = bufferSize;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+      Thread thread = new Thread(runnable, "plant-change-stream-"
+          + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Adds a subscriber, which first gets the changes it missed, if any. Must be called while
+   * holding the lock that is held when changes are published, so that no change is missed
+   * or sent twice.
+   *
+   * @param sink Where the events of the subscriber are sent.
+   * @param version The current version of the overview.
+   * @param missed The changes the subscriber missed, in order, or null if they are not known,
+   *     in which case it gets a resync event first.
+   * @return Removes the subscriber when run.
+   */
+  public Runnable subscribe(Sink sink, long version, List<PlantChange> missed) {
+    Subscriber subscriber = new Subscriber(sink);
+    if (missed == null) {
+      subscriber.offerResync(version);
+    } else {
+      for (PlantChange change : missed) {
+        subscriber.offer(change);
+      }
+    }
+    subscribers.add(subscriber);
+    return () -> subscribers.remove(subscriber);
+  }
+
+  /**
+   * Adds a change to the buffer of every subscriber. Must be called in the order the changes
+   * are made, while holding the lock.
+   *
+   * @param change The change, with the version it made.
+   */
+  public void publish(PlantChange change) {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.offer(change);
+    }
+  }
+
+  /**
+   * Returns the number of subscribers.
+   *
+   * @return The number of subscribers.
+   */
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  private void heartbeat() {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.offerHeartbeat();
+    }
+  }
+
+  /**
+   * Ends the streams of all subscribers, and stops the threads.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.sink.close();
+    }
+    subscribers.clear();
+  }
+
+  /**
+   * A subscriber, with the events that have not been sent to it yet. Only one thread at a
+   * time sends its events, so they are sent in order.
+   */
+  private final class Subscriber implements Runnable {
+    private final Sink sink;
+    private final ArrayDeque<PlantChange> buffer = new ArrayDeque<>();
+    private long resyncVersion = -1;
+    private boolean heartbeatDue;
+    private boolean scheduled;
+
+    private Subscriber(Sink sink) {
+      this.sink = sink;
+    }
+
+    /**
+     * Buffers a change, or drops the buffered changes and asks for a resync if the buffer is
+     * full. Once a resync is due, changes are not buffered, since it covers them.
+     */
+    private synchronized void offer(PlantChange change) {
+      if (resyncVersion >= 0) {
+        resyncVersion = change.getVersion();
+      } else if (buffer.size() >= bufferSize) {
+        buffer.clear();
+        resyncVersion = change.getVersion();
+      } else {
+        buffer.add(change);
+      }
+      schedule();
+    }
+
+    private synchronized void offerResync(long version) {
+      buffer.clear();
+      resyncVersion = version;
+      schedule();
+    }
+
+    private synchronized void offerHeartbeat() {
+      heartbeatDue = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (!scheduled) {
+        scheduled = true;
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          // The stream is closed
+        }
+      }
+    }
+
+    /**
+     * Sends the events that are due, until there are none left.
+     */
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          PlantChange change = null;
+          long resync;
+          synchronized (this) {
+            resync = resyncVersion;
+            if (resync >= 0) {
+              resyncVersion = -1;
+            } else if (!buffer.isEmpty()) {
+              change = buffer.poll();
+            } else if (!heartbeatDue) {
+              scheduled = false;
+              return;
+            }
+            // Anything sent counts as a heartbeat
+            heartbeatDue = false;
+          }
+          if (resync >= 0) {
+            sink.send(RESYNC_EVENT, resync, resync);
+          } else if (change != null) {
+            sink.send(CHANGE_EVENT, change.getVersion(), change);
+          } else {
+            sink.heartbeat();
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        subscribers.remove(this);
+        sink.close();
+      }
+    }
+  }
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.Module;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import core.PlantOverview;
 import json.PlantPersistence;
 
 /**
@@ -24,16 +23,6 @@ public class PlantOverviewApplication {
     return PlantPersistence.createJacksonModule();
   }
 
-  /**
-   * Creates and configures the PlantOverview bean, representing a collection of plant data.
-   *
-   * @return A PlantOverview bean for managing plant information.
-   */
-  @Bean
-  public PlantOverview plantOverview() {
-    return new PlantOverview();
-  }
-  
   /**
    * The main entry point of the application. It starts the Spring Boot application.
    *
@@ -1,21 +1,51 @@
 package greenhouse.springboot.restserver;
 
-  import java.util.Date;
-
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import core.ImmutablePlantOverview;
 import core.Plant;
+import core.PlantBatchResult;
+import core.PlantOperation;
 import core.PlantOverview;
+import core.PlantOverviewDelta;
+import core.PlantPage;
+import core.PlantPatch;
+import core.PlantPhase;
+import core.PlantQuery;
 
 /**
  * This class defines a REST API controller for managing PlantOverview data.
+ * New plants and partial updates of plants are sent as JSON, and the older query parameter
+ * versions of them are still accepted. Every plant has a version, which is written with it.
+ * Changes to a plant can be made conditional with an `If-Match` header holding the version
+ * the plant was read with, as an entity tag like `"12"`, and fail with 412 Precondition
+ * Failed if it has changed since.
+ * The plant overview is sent with the version of the overview as its entity tag, so clients
+ * that poll it can send the tag back in an `If-None-Match` header, and get an empty
+ * 304 Not Modified instead of the whole overview if nothing has changed. Clients that
+ * already have a version of the overview can also ask for only the changes since it, or
+ * subscribe to a stream of Server-Sent Events that pushes every change as it is made.
+ * Clients that only need some of the plants can query pages of them, filtered and sorted
+ * on the server, and clients that change many plants at once can send the changes as one
+ * batch.
  */
 @RestController
 @RequestMapping(PlantOverviewController.GREENHOUSE_SERVICE_PATH)
@@ -26,16 +56,6 @@ public class PlantOverviewController {
   @Autowired
   private PlantOverviewService plantOverviewService;
 
-  /**
-   * Autosaves the updated plant overview.
-   *
-   * @param plantOverview The PlantOverview to be autosaved.
-   */
-  private void autoSavePlantOverview(PlantOverview plantOverview) {
-    this.plantOverviewService.autoSavePlantOverview(plantOverview);
-    this.plantOverviewService = new PlantOverviewService();
-  }
-
   /**
    * Retrieves a plant by its name.
    *
@@ -44,18 +64,168 @@ public class PlantOverviewController {
    */
   @GetMapping("/get")
   public Plant getPlant(@RequestParam String name) {
-    return this.plantOverviewService.getPlantOverview().getPlantByName(name);
+    return this.plantOverviewService.getPlant(name);
   }
 
   /**
-   * Retrieves a plant overview.
+   * Retrieves a plant overview, tagged with its version. If the client already has the
+   * current version, the overview is neither serialized nor sent. Otherwise the version is
+   * serialized straight from its plants, in the same JSON as a PlantOverview.
    *
-   * @param name The name of the plant to retrieve.
-   * @return The Plant Overview object retrieved from PlantOverviewService
+   * @param ifNoneMatch The entity tags of the versions the client has, or null.
+   * @return The Plant Overview object retrieved from PlantOverviewService, or an empty
+   *     304 Not Modified if its version is in `ifNoneMatch`.
    */
   @GetMapping("/getPlantOverview")
-  public PlantOverview getPlantOverview() {
-    return this.plantOverviewService.getPlantOverview();
+  public ResponseEntity<ImmutablePlantOverview> getPlantOverview(
+      @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+    ImmutablePlantOverview overview = this.plantOverviewService.getOverview();
+    String tag = versionTag(overview.getVersion());
+    if (matchesAny(ifNoneMatch, tag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag)
+          .cacheControl(CacheControl.noCache()).build();
+    }
+    return ResponseEntity.ok().eTag(tag).cacheControl(CacheControl.noCache())
+        .body(overview);
+  }
+
+  /**
+   * Retrieves the changes made to the plant overview since a version of it, with the state
+   * of every added or changed plant, and a delete change for every deleted plant.
+   *
+   * @param since The version of the overview the client has.
+   * @return The changes since the version, or an empty 410 Gone if they are no longer kept,
+   *     in which case the client must fetch the whole overview.
+   */
+  @GetMapping("/changes")
+  public ResponseEntity<PlantOverviewDelta> getChanges(@RequestParam long since) {
+    PlantOverviewDelta delta = this.plantOverviewService.getChangesSince(since);
+    if (delta == null) {
+      return ResponseEntity.status(HttpStatus.GONE).build();
+    }
+    return ResponseEntity.ok(delta);
+  }
+
+  /**
+   * Retrieves a page of the plants that match the given filters, in the given order. The
+   * response has the cursor of the next page, which is passed back as `cursor` with the same
+   * filters and order to get it, or null if there are no more plants.
+   *
+   * @param phase The phase of the plants, or null for all phases.
+   * @param water "needs" for the plants that need water, "hydrated" for those that don't,
+   *     or null for both.
+   * @param prefix The start of the names of the plants, or null for all names.
+   * @param sort "insertion", "name" or "watering", for when the plants next need water.
+   * @param cursor The cursor of the previous page, or null for the first page.
+   * @param limit The highest number of plants in the page.
+   * @return The page of plants.
+   * @throws IllegalArgumentException If any of the parameters are invalid.
+   */
+  @GetMapping("/query")
+  public PlantPage queryPlants(@RequestParam(required = false) String phase,
+      @RequestParam(required = false) String water,
+      @RequestParam(required = false) String prefix,
+      @RequestParam(defaultValue = "insertion") String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + PlantQuery.DEFAULT_LIMIT) int limit) {
+    PlantQuery.Builder query = PlantQuery.builder().namePrefix(prefix).cursor(cursor)
+        .limit(limit);
+    if (phase != null) {
+      PlantPhase plantPhase = PlantPhase.fromString(phase);
+      if (plantPhase == null) {
+        throw new IllegalArgumentException("Unknown phase " + phase);
+      }
+      query.phase(plantPhase);
+    }
+    if ("needs".equals(water)) {
+      query.watering(PlantQuery.Watering.NEEDS_WATER);
+    } else if ("hydrated".equals(water)) {
+      query.watering(PlantQuery.Watering.HYDRATED);
+    } else if (water != null) {
+      throw new IllegalArgumentException("Unknown watering filter " + water);
+    }
+    switch (sort) {
+      case "insertion":
+        query.sort(PlantQuery.Sort.INSERTION);
+        break;
+      case "name":
+        query.sort(PlantQuery.Sort.NAME);
+        break;
+      case "watering":
+        query.sort(PlantQuery.Sort.NEXT_WATERING);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown sort order " + sort);
+    }
+    return this.plantOverviewService.queryPlants(query.build());
+  }
+
+  /**
+   * Subscribes to the changes made to the plant overview, as a stream of Server-Sent Events.
+   * Every change is sent as a `change` event with the change as its data, and the version it
+   * made as its id. A client that falls too far behind, or whose missed changes are no longer
+   * kept, gets a `resync` event with the current version, and should fetch the changes since
+   * the version it has, or the whole overview.
+   *
+   * @param since The version the client has, or -1 to only get the changes made from now on.
+   * @param lastEventId The id of the last event the client got before it reconnected, or null.
+   * @return The stream of events, which does not time out.
+   */
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(@RequestParam(defaultValue = "-1") long since,
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    long from = since;
+    if (lastEventId != null) {
+      try {
+        from = Long.parseLong(lastEventId.trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Last-Event-ID must be a version");
+      }
+    }
+    SseEmitter emitter = new SseEmitter(0L);
+    Runnable unsubscribe = this.plantOverviewService.subscribe(from, sink(emitter));
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError(e -> unsubscribe.run());
+    return emitter;
+  }
+
+  /**
+   * Sends the events of a subscriber to the stream of a client.
+   *
+   * @param emitter The stream of the client.
+   * @return The sink of the subscriber.
+   */
+  private static PlantChangeStream.Sink sink(SseEmitter emitter) {
+    return new PlantChangeStream.Sink() {
+      @Override
+      public void send(String event, long version, Object data) throws IOException {
+        emitter.send(SseEmitter.event().name(event).id(Long.toString(version))
+            .data(data, MediaType.APPLICATION_JSON));
+      }
+
+      @Override
+      public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+      }
+
+      @Override
+      public void close() {
+        emitter.complete();
+      }
+    };
+  }
+
+  /**
+   * Retrieves the metrics of the background saves of the plant overview: the number of
+   * unsaved changes, how long the oldest of them has waited, the number of saves and
+   * failed saves, and how long the last save took.
+   *
+   * @return The metrics by name.
+   */
+  @GetMapping("/metrics")
+  public Map<String, Long> getSaveMetrics() {
+    return this.plantOverviewService.getSaveMetrics();
   }
 
   /**
@@ -67,18 +237,33 @@ public class PlantOverviewController {
    * @return The newly created Plant object.
    * @throws IllegalArgumentException If any of the input parameters are invalid.
    */
-  @PostMapping("/post")
+  @PostMapping(path = "/post", params = {"name", "phase", "waterInterval"})
   public Plant postPlant(@RequestParam String name,
                                 @RequestParam String phase,
                                 @RequestParam int waterInterval) {
     if (waterInterval == 0){
       throw new IllegalArgumentException("Water interval cannot be 0");
     }
-    Plant plant = new Plant(name, phase, waterInterval); 
-    PlantOverview newPlantOverview = this.plantOverviewService.getPlantOverview();
-    newPlantOverview.addPlant(plant);
-    autoSavePlantOverview(newPlantOverview);
-    return plant;
+    if (name == null || name.equals("")) {
+      throw new IllegalArgumentException("Choose a name for your plant");
+    }
+    return this.plantOverviewService.addPlant(new Plant(name, phase, waterInterval));
+  }
+
+  /**
+   * Creates and adds a new plant, sent as JSON, to the plant overview. Only the name, phase
+   * and water interval of the plant are used: the new plant is created and watered now.
+   *
+   * @param plant The new plant.
+   * @return The newly created Plant object, with its version.
+   * @throws IllegalArgumentException If the plant is missing or invalid.
+   */
+  @PostMapping(path = "/post", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public Plant postPlant(@RequestBody Plant plant) {
+    if (plant == null) {
+      throw new IllegalArgumentException("The plant needs a name, a phase and a water interval");
+    }
+    return postPlant(plant.getName(), plant.getPhase(), plant.getWaterInterval());
   }
 
 
@@ -89,16 +274,17 @@ public class PlantOverviewController {
    * @param phase The new growth phase for the plant (optional, set to "empty" if not provided).
    * @param waterInterval The new watering interval for the plant (optional, set to "empty" if not provided).
    * @param water A flag indicating whether to manually trigger watering for the plant (water if "True").
+   * @param ifMatch The version the plant must have, as an entity tag, or null.
    * @return The updated Plant object.
    * @throws IllegalArgumentException If any of the input parameters are invalid.
+   * @throws PlantVersionConflictException If the plant does not have the version in `ifMatch`.
    */
   @PutMapping("/put")
   public String putPlant(@RequestParam String name, 
                         @RequestParam(defaultValue = "empty") String phase, 
                         @RequestParam(defaultValue = "empty") String waterInterval,
-                        @RequestParam(defaultValue = "empty") String water) {
-    PlantOverview editedPlantOverview = this.plantOverviewService.getPlantOverview();
-
+                        @RequestParam(defaultValue = "empty") String water,
+                        @RequestHeader(value = "If-Match", required = false) String ifMatch) {
     String phaseResult = phase;
     String waterIntervalResult = waterInterval;
     if (name == null || name.equals("")) {
@@ -110,29 +296,135 @@ public class PlantOverviewController {
     if (waterInterval.equals("empty")) {
       waterIntervalResult = null;
     }
-    if (water.equals("True")) {
-      editedPlantOverview.getPlantByName(name).setLastWatered(new Date());
-    }
-    String message = editedPlantOverview.editPlant(name, phaseResult, waterIntervalResult);
-    autoSavePlantOverview(editedPlantOverview);
-    return message;
+    return this.plantOverviewService.editPlant(name, phaseResult, waterIntervalResult,
+        water.equals("True"), expectedVersion(ifMatch));
+  }
+
+  /**
+   * Changes some of the details of a plant, sent as JSON: the fields of the patch that are
+   * set are changed, and the others are kept.
+   *
+   * @param patch The name of the plant and the changes to make.
+   * @param ifMatch The version the plant must have, as an entity tag, or null.
+   * @return The message from PlantOverview.applyEdit.
+   * @throws IllegalArgumentException If there is no plant with the name, or if the changes
+   *     are invalid.
+   * @throws PlantVersionConflictException If the plant does not have the version in `ifMatch`.
+   */
+  @PatchMapping(path = "/patch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public String patchPlant(@RequestBody PlantPatch patch,
+      @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+    Integer waterInterval = patch.getWaterInterval();
+    return this.plantOverviewService.editPlant(patch.getName(), patch.getPhase(),
+        waterInterval != null ? waterInterval.toString() : null, patch.isWater(),
+        expectedVersion(ifMatch));
+  }
+
+  /**
+   * Waters every plant that needs water, all at the same time, with one save.
+   *
+   * @return The watered plants, the plant that needed water the longest first.
+   */
+  @PostMapping("/waterDue")
+  public List<Plant> waterPlantsThatNeedWater() {
+    return this.plantOverviewService.waterPlantsThatNeedWater();
+  }
+
+  /**
+   * Applies a batch of operations to the plant overview, as a whole or not at all, so that
+   * many plants can be changed with one request and one save. Each operation can be made
+   * conditional with a "Version" field holding the version the plant was read with.
+   *
+   * @param operations The operations, in order.
+   * @return The outcome of every operation, with 200 OK if the batch was applied, or with
+   *     409 Conflict if one of the operations failed and none were applied.
+   * @throws IllegalArgumentException If there are too many operations.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<PlantBatchResult> applyBatch(
+      @RequestBody List<PlantOperation> operations) {
+    PlantBatchResult result = this.plantOverviewService.applyBatch(operations);
+    return ResponseEntity.status(result.isApplied() ? HttpStatus.OK : HttpStatus.CONFLICT)
+        .body(result);
   }
 
   /**
    * Deletes a plant from the plant overview.
    *
    * @param name The name of the plant to be removed.
+   * @param ifMatch The version the plant must have, as an entity tag, or null.
    * @return True if the plant is successfully removed, false otherwise.
+   * @throws PlantVersionConflictException If the plant does not have the version in `ifMatch`.
    */
   @DeleteMapping ("/delete")
-  public boolean deletePlant(@RequestParam String name) {
+  public boolean deletePlant(@RequestParam String name,
+      @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+    long expectedVersion = expectedVersion(ifMatch);
     try {
-      PlantOverview editedPlantOverview = this.plantOverviewService.getPlantOverview();
-      editedPlantOverview.deletePlant(name); 
-      autoSavePlantOverview(editedPlantOverview);
+      this.plantOverviewService.deletePlant(name, expectedVersion);
+    } catch (PlantVersionConflictException e) {
+      throw e;
     } catch (Exception e) {
       return false;
     }
     return true;
   }
+
+  /**
+   * Reads the version a plant must have from an `If-Match` header. Versions are sent as
+   * strong entity tags, like `"12"`, and `*` or no header matches any version.
+   *
+   * @param ifMatch The value of the header, or null.
+   * @return The version, or PlantOverviewService.ANY_VERSION.
+   * @throws IllegalArgumentException If the header is not a version tag.
+   */
+  static long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return PlantOverviewService.ANY_VERSION;
+    }
+    String tag = ifMatch.trim();
+    if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+      throw new IllegalArgumentException("If-Match must be a version tag like \"12\"");
+    }
+    try {
+      return Long.parseLong(tag.substring(1, tag.length() - 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("If-Match must be a version tag like \"12\"");
+    }
+  }
+
+  /**
+   * Returns the strong entity tag of a version, like `"12"`.
+   *
+   * @param version The version.
+   * @return The entity tag.
+   */
+  static String versionTag(long version) {
+    return "\"" + version + "\"";
+  }
+
+  /**
+   * Checks if an `If-None-Match` header matches an entity tag. The header is `*` or a list
+   * of entity tags separated by commas, which are compared weakly, as the header requires,
+   * so `W/"12"` matches `"12"`.
+   *
+   * @param ifNoneMatch The value of the header, or null.
+   * @param tag The strong entity tag of the current version.
+   * @return True if the client has the current version, false otherwise.
+   */
+  static boolean matchesAny(String ifNoneMatch, String tag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.startsWith("W/")) {
+        trimmed = trimmed.substring(2);
+      }
+      if (trimmed.equals("*") || trimmed.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -0,0 +1,305 @@
+package greenhouse.springboot.restserver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind stage that saves an overview in the background, so that requests don't
+ * wait for the whole overview to be written. Changes are only counted here, and all changes
+ * made within the save window after the first unsaved one are coalesced into one save.
+ * The number of unsaved changes is bounded: once it reaches the limit, the overview is saved
+ * right away, and callers of `awaitCapacity` wait until that save has started.
+ *
+ * <p>The overview to save is taken while holding the given lock, which must be the lock
+ * that is held when `changed` is called, so that no change is counted for the wrong save.
+ * `awaitCapacity`, `flush` and `close` must be called without holding that lock.</p>
+ *
+ * @param <T> The type of the overview to save.
+ */
+public class PlantOverviewSaver<T> implements Closeable {
+
+  /**
+   * Saves an overview.
+   *
+   * @param <T> The type of the overview.
+   */
+  public interface Save<T> {
+
+    /**
+     * Saves an overview.
+     *
+     * @param overview The overview to save.
+     * @throws IOException If the overview could not be saved.
+     */
+    void save(T overview) throws IOException;
+  }
+
+  private static final long RETRY_DELAY_MILLIS = 1000;
+
+  private final Object lock;
+  private final Supplier<T> snapshot;
+  private final Save<T> save;
+  private final long windowMillis;
+  private final int maxPendingChanges;
+  private final ScheduledExecutorService executor;
+
+  private ScheduledFuture<?> scheduledSave;
+  private boolean saving;
+  private boolean lastSaveFailed;
+  private boolean closed;
+  private int pendingChanges;
+  private long firstPendingNanos;
+  private int savingChanges;
+  private long savingSinceNanos;
+  private long saves;
+  private long failedSaves;
+  private long lastSaveDurationNanos;
+
+  /**
+   * Constructs a saver with its own background thread.
+   *
+   * @param lock              The lock to hold while taking the overview to save.
+   * @param snapshot          Takes the overview to save.
+   * @param save              Saves the overview.
+   * @param windowMillis      How long to wait after the first unsaved change before saving.
+   * @param maxPendingChanges The number of unsaved changes that triggers a save right away.
+   */
+  public PlantOverviewSaver(Object lock, Supplier<T> snapshot, Save<T> save,
+      long windowMillis, int maxPendingChanges) {
+    if (windowMillis < 0 || maxPendingChanges < 1) {
+      throw new IllegalArgumentException("The save window can't be negative, and at least one"
+          + " change must be allowed to be pending");
+    }
+    this.lock = lock;
+    this.snapshot = snapshot;
+    this.save = save;
+    this.windowMillis = windowMillis;
+    this.maxPendingChanges = maxPendingChanges;
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "plant-overview-saver");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Counts a change, and schedules a save if none is scheduled. After a failed save, the next
+   * one is not scheduled sooner than the retry delay. Must be called while holding the lock.
+   */
+  public synchronized void changed() {
+    if (pendingChanges == 0) {
+      firstPendingNanos = System.nanoTime();
+    }
+    pendingChanges++;
+    if (lastSaveFailed) {
+      schedule(Math.max(windowMillis, RETRY_DELAY_MILLIS));
+    } else if (pendingChanges >= maxPendingChanges) {
+      schedule(0);
+    } else {
+      schedule(windowMillis);
+    }
+  }
+
+  /**
+   * Waits while the number of unsaved changes is at the limit and a save is on its way.
+   * If the last save failed, this doesn't wait, so that requests are not blocked for
+   * as long as saving fails.
+   */
+  public synchronized void awaitCapacity() {
+    boolean interrupted = false;
+    while (pendingChanges >= maxPendingChanges && !lastSaveFailed && !closed
+        && (saving || scheduledSave != null)) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Saves any unsaved changes on the calling thread, after waiting for a save in progress.
+   */
+  public void flush() {
+    while (true) {
+      synchronized (this) {
+        waitWhileSaving();
+        if (pendingChanges == 0) {
+          return;
+        }
+        if (scheduledSave != null) {
+          scheduledSave.cancel(false);
+          scheduledSave = null;
+        }
+      }
+      if (saveNow()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Saves any unsaved changes, and stops the background thread.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    flush();
+    executor.shutdown();
+    try {
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the number of changes that have not been saved, including those being saved.
+   *
+   * @return The number of unsaved changes.
+   */
+  public synchronized int getPendingChanges() {
+    return pendingChanges + savingChanges;
+  }
+
+  /**
+   * Returns how long the oldest unsaved change has been waiting to be saved.
+   *
+   * @return The age of the oldest unsaved change in milliseconds, or 0 if all are saved.
+   */
+  public synchronized long getSaveLagMillis() {
+    long now = System.nanoTime();
+    if (savingChanges > 0) {
+      return TimeUnit.NANOSECONDS.toMillis(now - savingSinceNanos);
+    }
+    if (pendingChanges > 0) {
+      return TimeUnit.NANOSECONDS.toMillis(now - firstPendingNanos);
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the metrics of the saver: the number of unsaved changes, the save lag, the number
+   * of saves and failed saves, and the duration of the last save.
+   *
+   * @return The metrics by name.
+   */
+  public synchronized Map<String, Long> getMetrics() {
+    Map<String, Long> metrics = new LinkedHashMap<>();
+    metrics.put("pendingChanges", (long) getPendingChanges());
+    metrics.put("saveLagMillis", getSaveLagMillis());
+    metrics.put("saves", saves);
+    metrics.put("failedSaves", failedSaves);
+    metrics.put("lastSaveMillis", TimeUnit.NANOSECONDS.toMillis(lastSaveDurationNanos));
+    return metrics;
+  }
+
+  /**
+   * Schedules a save on the background thread, unless one is already scheduled to happen
+   * sooner or is in progress, in which case the next save is scheduled when it is done.
+   *
+   * @param delayMillis The delay before saving.
+   */
+  private void schedule(long delayMillis) {
+    if (saving || closed) {
+      return;
+    }
+    if (scheduledSave != null) {
+      if (scheduledSave.getDelay(TimeUnit.MILLISECONDS) <= delayMillis) {
+        return;
+      }
+      scheduledSave.cancel(false);
+    }
+    scheduledSave = executor.schedule(this::saveNow, delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Waits until the save in progress, if any, is done.
+   */
+  private void waitWhileSaving() {
+    boolean interrupted = false;
+    while (saving) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Takes the overview while holding the lock, and saves it. If the save fails, its changes
+   * are counted as unsaved again, and the save is retried after the window, or after a
+   * second if the window is shorter.
+   *
+   * @return True if a save was attempted, false if another one was in progress.
+   */
+  private boolean saveNow() {
+    synchronized (this) {
+      if (saving) {
+        return false;
+      }
+      saving = true;
+      scheduledSave = null;
+    }
+    long start = System.nanoTime();
+    boolean saved = false;
+    try {
+      T overview;
+      synchronized (lock) {
+        overview = snapshot.get();
+        synchronized (this) {
+          savingChanges = pendingChanges;
+          savingSinceNanos = firstPendingNanos;
+          pendingChanges = 0;
+          notifyAll();
+        }
+      }
+      save.save(overview);
+      saved = true;
+    } catch (IOException | RuntimeException e) {
+      System.err.println("Couldn't save PlantOverview: " + e);
+    } finally {
+      synchronized (this) {
+        saving = false;
+        lastSaveFailed = !saved;
+        if (saved) {
+          saves++;
+          lastSaveDurationNanos = System.nanoTime() - start;
+        } else {
+          failedSaves++;
+          if (savingChanges > 0) {
+            pendingChanges += savingChanges;
+            firstPendingNanos = savingSinceNanos;
+          }
+        }
+        savingChanges = 0;
+        if (!saved) {
+          schedule(Math.max(windowMillis, RETRY_DELAY_MILLIS));
+        } else if (pendingChanges >= maxPendingChanges) {
+          schedule(0);
+        } else if (pendingChanges > 0) {
+          schedule(Math.max(0, windowMillis
+              - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstPendingNanos)));
+        }
+        notifyAll();
+      }
+    }
+    return true;
+  }
+}
@@ -1,77 +1,588 @@
 package greenhouse.springboot.restserver;
 
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import core.ImmutablePlantOverview;
 import core.Plant;
+import core.PlantBatchResult;
+import core.PlantChange;
 import core.PlantOverview;
+import core.PlantOperation;
+import core.PlantOverviewDelta;
+import core.PlantPage;
+import core.PlantQuery;
+import json.PlantChangeLog;
+import json.PlantChangeLog.SyncPolicy;
 import json.PlantPersistence;
 
 
 /**
  * Service class for managing and interacting with plant overview data.
- * This class provides methods for initializing, retrieving, and automatically saving
- * plant overview data. It uses a PlantPersistence object to read and save data from/to
- * a data storage location.
+ * This class provides methods for initializing, retrieving, changing and saving
+ * plant overview data. The service is a long-lived repository: it holds the authoritative
+ * overview in memory, and only reads the save file when it starts. The overview is an
+ * ImmutablePlantOverview, so every change creates a new version in O(log n) time that shares
+ * its plants with the old one. Changes are made by one writer at a time, holding the lock of
+ * the service, and each change publishes its version, which readers get without the lock.
+ * The lock is only held while a change is applied, never between reading a plant and
+ * changing it: instead, a change can be made on the condition that the plant still has the
+ * version it was read with, which fails with a PlantVersionConflictException otherwise.
+ * It uses a PlantPersistence object to read and save data from/to a data storage location.
+ * Each change is appended to a PlantChangeLog next to the save file before the request
+ * returns, while the whole overview is saved in the background by a PlantOverviewSaver,
+ * which coalesces the changes made within its save window into one save. The most recent
+ * changes are also kept in memory, so that clients can ask for the changes since the version
+ * they have instead of fetching the whole overview, and pushed to subscribers of the
+ * PlantChangeStream as they are made. Many changes can be made at once as a batch, which
+ * is applied as a whole or not at all, and logged and saved like a single change.
 */
 @Service
 public class PlantOverviewService {
 
-  private PlantOverview plantOverview;
+  private static final Path DEFAULT_SAVE_FILE = Paths.get("../ui/src/main/resources/ui/plants.json");
+  private static final Path DEFAULT_LOG_FILE =
+      Paths.get("../ui/src/main/resources/ui/plants.log");
+  private static final long SYNC_INTERVAL_MILLIS = 1000;
+  private static final int RECENT_CHANGES = 1024;
+  private static final int STREAM_BUFFER = 256;
+  private static final int STREAM_THREADS = 4;
+  private static final long STREAM_HEARTBEAT_MILLIS = 15000;
+
+  /**
+   * The highest number of operations in a batch.
+   */
+  public static final int MAX_BATCH_SIZE = 10000;
+
+  /**
+   * The expected version of a plant that makes a change unconditional.
+   */
+  public static final long ANY_VERSION = -1;
+
+  private final AtomicReference<ImmutablePlantOverview> overview = new AtomicReference<>();
+  private final RecentPlantChanges recentChanges = new RecentPlantChanges(RECENT_CHANGES);
+  private final PlantChangeStream changeStream = new PlantChangeStream(STREAM_BUFFER,
+      STREAM_THREADS, STREAM_HEARTBEAT_MILLIS);
   private PlantPersistence plantPersistence;
+  private PlantChangeLog changeLog;
+  private PlantOverviewSaver<ImmutablePlantOverview> saver;
 
   /**
-    * Initializes a PlantOverviewService by reading plant overview data from a JSON file.
-    * An instance of PlantOverviewService is created with the following steps:
-    * 1. A new PlantPersistence object is initialized.
-    * 2. Plant overview data is read from the "../ui/src/main/resources/ui/plants.json" file.
-    * 3. If an IOException occurs during file reading, an error message is printed to the standard error stream.
-    * 4. The save file for PlantPersistence is set.
+    * Initializes a PlantOverviewService with the default save file, forcing every change
+    * to disk and saving the overview a second after a change, or after 1000 unsaved changes.
   */
   public PlantOverviewService() {
+    this(SyncPolicy.ALWAYS, 1000, 1000);
+  }
+
+  /**
+    * Initializes a PlantOverviewService with the default save file. The sync policy, save
+    * window and limit of unsaved changes can be set with the `greenhouse.log.sync`,
+    * `greenhouse.save.window` and `greenhouse.save.max-pending` properties.
+    *
+    * @param syncPolicy When changes are forced to disk.
+    * @param saveWindowMillis How long to wait after a change before saving the overview.
+    * @param maxPendingChanges The number of unsaved changes that triggers a save right away.
+  */
+  @Autowired
+  public PlantOverviewService(@Value("${greenhouse.log.sync:ALWAYS}") SyncPolicy syncPolicy,
+      @Value("${greenhouse.save.window:1000}") long saveWindowMillis,
+      @Value("${greenhouse.save.max-pending:1000}") int maxPendingChanges) {
+    this(DEFAULT_SAVE_FILE, DEFAULT_LOG_FILE, syncPolicy, saveWindowMillis, maxPendingChanges);
+  }
+
+  /**
+    * Initializes a PlantOverviewService by reading plant overview data from the save file,
+    * or from its backup if the save file is corrupt, and replaying the changes that were
+    * logged after it was last saved.
+    * If an IOException occurs during reading, an error message is printed to the standard
+    * error stream.
+    *
+    * @param saveFile The file the plant overview is saved to.
+    * @param logFile The file changes are logged to.
+    * @param syncPolicy When changes are forced to disk.
+    * @param saveWindowMillis How long to wait after a change before saving the overview.
+    * @param maxPendingChanges The number of unsaved changes that triggers a save right away.
+  */
+  public PlantOverviewService(Path saveFile, Path logFile, SyncPolicy syncPolicy,
+      long saveWindowMillis, int maxPendingChanges) {
     this.plantPersistence = new PlantPersistence();
-    try (FileReader fileReader = new FileReader(new File("../ui/src/main/resources/ui/plants.json"), StandardCharsets.UTF_8)) {
-      this.plantOverview = plantPersistence.readPlantOverview(fileReader);
+    this.plantPersistence.setSaveFile(saveFile);
+    PlantOverview plantOverview = new PlantOverview();
+    try {
+      plantOverview = plantPersistence.loadPlantOverview();
+    } catch (NoSuchFileException e) {
+      // Nothing has been saved yet
     } catch (IOException e) {
       System.err.println(e.toString());
     }
-    this.plantPersistence.setSaveFile();
+    this.changeLog = new PlantChangeLog(logFile, syncPolicy, SYNC_INTERVAL_MILLIS);
+    try {
+      changeLog.replay(plantOverview);
+    } catch (IOException e) {
+      System.err.println("Couldn't replay logged changes: " + e);
+    }
+    this.overview.set(ImmutablePlantOverview.of(plantOverview));
+    this.saver = new PlantOverviewSaver<>(this, this::takeSnapshot, this::saveSnapshot,
+        saveWindowMillis, maxPendingChanges);
+  }
+
+  /**
+   * Returns the current version of the plant overview. Reads never block: the latest
+   * version is published through an atomic reference after every change, so a reader
+   * always gets a consistent overview that includes every change that has returned.
+   *
+   * @return The current version of the plant overview.
+   */
+  public ImmutablePlantOverview getOverview() {
+    return overview.get();
   }
 
   /**
-   * Creates a new PlantOverview object and populates it with a copy of the plant data
-   * from the current instance's plant overview. The copied data ensures that the original plant
-   * overview remains unaltered and can be safely accessed by the caller.
+   * Returns the current version of the plant overview as a read-only PlantOverview. It is
+   * only created once for each version, by the first reader that asks for it.
    *
-   * @return A new PlantOverview object containing a copy of the plant data.
-   *         If an exception occurs during the copy process, an empty PlantOverview object is returned.
+   * @return A read-only snapshot of the plant overview.
    */
   public PlantOverview getPlantOverview() {
-    PlantOverview plantOverviewCopy = new PlantOverview();
-    try {
-      for (Plant plant : this.plantOverview.getPlantOverview()) {
-        plantOverviewCopy.addPlant(new Plant(plant.getName(), plant.getPhase(), plant.getWaterInterval(), plant.getCreationDate(), plant.getLastWatered()));
+    return overview.get().toPlantOverview();
+  }
+
+  /**
+   * Retrieves a plant from the current version of the plant overview.
+   *
+   * @param name The name of the plant.
+   * @return The read-only plant, or null if there is no plant with the name.
+   */
+  public Plant getPlant(String name) {
+    return overview.get().getPlantByName(name);
+  }
+
+  /**
+   * Returns what changed in the plant overview since a version of it: the last change of
+   * every plant that was added, changed or deleted since. Only the most recent changes are
+   * kept, and none from before the service started.
+   *
+   * @param since The version the client has.
+   * @return The changes from the version to the current version, or null if they are not
+   *     all kept, or if the version is newer than the current version. The client must then
+   *     fetch the whole overview.
+   */
+  public PlantOverviewDelta getChangesSince(long since) {
+    long version = overview.get().getVersion();
+    List<PlantChange> changes = recentChanges.between(since, version);
+    return changes == null ? null : PlantOverviewDelta.compact(since, version, changes);
+  }
+
+  /**
+   * Finds a page of plants in the current version of the plant overview, using its indexes
+   * instead of copying and filtering every plant.
+   *
+   * @param query The filters, order and cursor of the page.
+   * @return The page of read-only plants.
+   * @throws IllegalArgumentException If the cursor of the query is not valid for its order.
+   */
+  public PlantPage queryPlants(PlantQuery query) {
+    return overview.get().query(query, System.currentTimeMillis());
+  }
+
+  /**
+   * Subscribes to the changes made to the plant overview, which are pushed to the sink as
+   * they are made. A subscriber that has a version of the overview first gets the changes
+   * made since, or a resync event if they are no longer kept.
+   *
+   * @param since The version the subscriber has, or a negative number to only get the
+   *     changes made from now on.
+   * @param sink Where the events are sent.
+   * @return Removes the subscriber when run.
+   */
+  public Runnable subscribe(long since, PlantChangeStream.Sink sink) {
+    synchronized (this) {
+      long version = overview.get().getVersion();
+      List<PlantChange> missed = since < 0 ? List.of() : recentChanges.between(since, version);
+      return changeStream.subscribe(sink, version, missed);
+    }
+  }
+
+  /**
+   * Adds a plant to the plant overview and logs the change.
+   *
+   * @param plant The plant to add.
+   * @return The added plant, with its version.
+   * @throws IllegalArgumentException If the plant is invalid or its name is taken.
+   */
+  public Plant addPlant(Plant plant) {
+    saver.awaitCapacity();
+    synchronized (this) {
+      ImmutablePlantOverview current = overview.get();
+      if (current.getPlantByName(plant.getName()) != null) {
+        throw new IllegalArgumentException("There already exists a plant named "
+            + plant.getName());
       }
-    } catch (Exception e) {
-      return new PlantOverview();
+      return publish(current.withPlant(plant), PlantChange.Type.ADD, plant.getName());
     }
-    return plantOverviewCopy;
   }
-  
+
   /**
-  * Takes a PlantOverview object and attempts to automatically save it to a data
-  * storage location. The method may print informative messages to the standard output and
-  * standard error streams to report the process and any errors encountered during the operation.
-  *
-  * @param plantOverview The PlantOverview to be auto-saved.
-  */
-  public void autoSavePlantOverview(PlantOverview plantOverview) {
+   * Edits the phase and water interval of a plant, and optionally waters it, and logs
+   * the change if anything changed.
+   *
+   * @param name The name of the plant to edit.
+   * @param newPhase The new phase, or null to keep the current phase.
+   * @param newWaterInterval The new water interval, or null to keep the current one.
+   * @param water Whether to water the plant.
+   * @return The message from PlantOverview.applyEdit.
+   * @throws IllegalArgumentException If there is no plant with the given name.
+   */
+  public String editPlant(String name, String newPhase, String newWaterInterval,
+      boolean water) {
+    return editPlant(name, newPhase, newWaterInterval, water, ANY_VERSION);
+  }
+
+  /**
+   * Edits the phase and water interval of a plant, and optionally waters it, if the plant
+   * has the expected version, and logs the change if anything changed.
+   *
+   * @param name The name of the plant to edit.
+   * @param newPhase The new phase, or null to keep the current phase.
+   * @param newWaterInterval The new water interval, or null to keep the current one.
+   * @param water Whether to water the plant.
+   * @param expectedVersion The version the plant must have, or ANY_VERSION.
+   * @return The message from PlantOverview.applyEdit.
+   * @throws IllegalArgumentException If there is no plant with the given name.
+   * @throws PlantVersionConflictException If the plant does not have the expected version.
+   */
+  public String editPlant(String name, String newPhase, String newWaterInterval,
+      boolean water, long expectedVersion) {
+    saver.awaitCapacity();
+    synchronized (this) {
+      ImmutablePlantOverview current = overview.get();
+      Plant old = current.getPlantByName(name);
+      checkVersion(name, old, expectedVersion);
+      if (old == null) {
+        throw new IllegalArgumentException("There is no plant named " + name);
+      }
+      Plant plant = copyOf(old);
+      if (water) {
+        plant.setLastWateredTime(System.currentTimeMillis());
+      }
+      try {
+        return PlantOverview.applyEdit(plant, newPhase, newWaterInterval);
+      } finally {
+        // The phase may have changed even if the new water interval was invalid
+        if (!plant.getPhase().equals(old.getPhase())
+            || plant.getWaterInterval() != old.getWaterInterval()) {
+          publish(current.withPlant(plant), PlantChange.Type.EDIT, name);
+        } else if (water) {
+          publish(current.withPlant(plant), PlantChange.Type.WATER, name);
+        }
+      }
+    }
+  }
+
+  /**
+   * Waters every plant that needs water, all at the same time. The plants are found in the
+   * index of the overview by when they next need water, so the other plants are not visited.
+   * Like a batch, every watered plant gets its own version, but the plants are published,
+   * logged and saved together.
+   *
+   * @return The watered plants, with their versions, the plant that needed water the longest
+   *     first.
+   */
+  public List<Plant> waterPlantsThatNeedWater() {
+    saver.awaitCapacity();
+    synchronized (this) {
+      ImmutablePlantOverview current = overview.get();
+      ImmutablePlantOverview next = current;
+      long now = System.currentTimeMillis();
+      List<PlantChange> changes = new ArrayList<>();
+      List<Plant> watered = new ArrayList<>();
+      for (Plant old : current.getPlantsThatNeedWater(now)) {
+        Plant plant = copyOf(old);
+        plant.setLastWateredTime(now);
+        next = next.withPlant(plant);
+        Plant kept = next.getPlantByName(plant.getName());
+        changes.add(PlantChange.of(PlantChange.Type.WATER, kept.getName(), kept,
+            next.getVersion()));
+        watered.add(kept);
+      }
+      if (!changes.isEmpty()) {
+        publish(next, changes);
+      }
+      return watered;
+    }
+  }
+
+  /**
+   * Applies a batch of operations, in order, as a whole or not at all. Every operation is
+   * checked against the overview as the operations before it left it, and if one fails,
+   * none of them are applied. Otherwise every operation gets its own version, like when
+   * they are made one by one, but readers only see the overview with all of them, and they
+   * are logged with one write and saved with one save. Plants are watered at the same time.
+   *
+   * @param operations The operations, in order.
+   * @return The outcome of every operation, and whether the batch was applied.
+   * @throws IllegalArgumentException If there are more than MAX_BATCH_SIZE operations.
+   */
+  public PlantBatchResult applyBatch(List<PlantOperation> operations) {
+    if (operations.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException("A batch can have at most " + MAX_BATCH_SIZE
+          + " operations");
+    }
+    saver.awaitCapacity();
+    synchronized (this) {
+      ImmutablePlantOverview current = overview.get();
+      ImmutablePlantOverview next = current;
+      long now = System.currentTimeMillis();
+      List<PlantChange> changes = new ArrayList<>();
+      List<PlantBatchResult.Outcome> outcomes = new ArrayList<>();
+      for (PlantOperation operation : operations) {
+        try {
+          next = apply(next, operation, now);
+        } catch (IllegalArgumentException | PlantVersionConflictException e) {
+          return rejected(current, operations.size(), outcomes.size(), e.getMessage());
+        }
+        Plant plant = next.getPlantByName(operation.getName());
+        changes.add(PlantChange.of(operation.getType(), operation.getName(), plant,
+            next.getVersion()));
+        outcomes.add(new PlantBatchResult.Outcome(PlantBatchResult.Status.APPLIED, plant,
+            null));
+      }
+      if (!changes.isEmpty()) {
+        publish(next, changes);
+      }
+      return new PlantBatchResult(true, next.getVersion(), outcomes);
+    }
+  }
+
+  /**
+   * Applies an operation to a version of the overview.
+   *
+   * @param current The version of the overview.
+   * @param operation The operation.
+   * @param now The time plants are watered at.
+   * @return The version of the overview with the operation.
+   * @throws IllegalArgumentException If the operation can't be applied.
+   * @throws PlantVersionConflictException If the plant does not have the expected version.
+   */
+  private static ImmutablePlantOverview apply(ImmutablePlantOverview current,
+      PlantOperation operation, long now) {
+    String name = operation.getName();
+    Plant old = current.getPlantByName(name);
+    if (operation.getType() == PlantChange.Type.ADD) {
+      if (old != null) {
+        throw new IllegalArgumentException("There already exists a plant named " + name);
+      }
+      if (name.isEmpty()) {
+        throw new IllegalArgumentException("Choose a name for your plant");
+      }
+      if (operation.getWaterInterval() == 0) {
+        throw new IllegalArgumentException("Water interval cannot be 0");
+      }
+      return current.withPlant(new Plant(name, operation.getPhase(),
+          operation.getWaterInterval()));
+    }
+    checkVersion(name, old, operation.getExpectedVersion());
+    if (old == null) {
+      throw new IllegalArgumentException("There is no plant named " + name);
+    }
+    if (operation.getType() == PlantChange.Type.DELETE) {
+      return current.withoutPlant(name);
+    }
+    Plant plant = copyOf(old);
+    if (operation.getType() == PlantChange.Type.WATER) {
+      plant.setLastWateredTime(now);
+      return current.withPlant(plant);
+    }
+    String message = PlantOverview.applyEdit(plant, operation.getPhase(),
+        operation.getWaterInterval() != null ? operation.getWaterInterval().toString() : null);
+    if (message.contains("Error:")) {
+      throw new IllegalArgumentException(message.trim());
+    }
+    return current.withPlant(plant);
+  }
+
+  /**
+   * Creates the result of a batch that was not applied, since one of its operations failed.
+   */
+  private static PlantBatchResult rejected(ImmutablePlantOverview current, int size,
+      int failed, String message) {
+    List<PlantBatchResult.Outcome> outcomes = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      outcomes.add(i == failed
+          ? new PlantBatchResult.Outcome(PlantBatchResult.Status.FAILED, null, message)
+          : new PlantBatchResult.Outcome(PlantBatchResult.Status.NOT_APPLIED, null, null));
+    }
+    return new PlantBatchResult(false, current.getVersion(), outcomes);
+  }
+
+  /**
+   * Deletes a plant from the plant overview and logs the change.
+   *
+   * @param name The name of the plant to delete.
+   */
+  public void deletePlant(String name) {
+    deletePlant(name, ANY_VERSION);
+  }
+
+  /**
+   * Deletes a plant from the plant overview if it has the expected version, and logs the
+   * change.
+   *
+   * @param name The name of the plant to delete.
+   * @param expectedVersion The version the plant must have, or ANY_VERSION.
+   * @throws PlantVersionConflictException If the plant does not have the expected version.
+   */
+  public void deletePlant(String name, long expectedVersion) {
+    saver.awaitCapacity();
+    synchronized (this) {
+      ImmutablePlantOverview current = overview.get();
+      checkVersion(name, current.getPlantByName(name), expectedVersion);
+      ImmutablePlantOverview next = current.withoutPlant(name);
+      if (next != current) {
+        publish(next, PlantChange.Type.DELETE, name);
+      }
+    }
+  }
+
+  /**
+   * Copies a read-only plant from the overview, so that the copy can be changed and replace
+   * it.
+   *
+   * @param old The plant.
+   * @return A plant that can be changed, with the same fields.
+   */
+  private static Plant copyOf(Plant old) {
+    return new Plant(old.getName(), old.getPhase(), old.getWaterInterval(),
+        old.getCreationTime(), old.getLastWateredTime());
+  }
+
+  /**
+   * Checks that a plant has the expected version. A plant that does not exist has no version,
+   * so a change on the condition that it has one fails.
+   *
+   * @param name The name of the plant.
+   * @param plant The plant, or null if it does not exist.
+   * @param expectedVersion The version the plant must have, or ANY_VERSION.
+   * @throws PlantVersionConflictException If the plant does not have the expected version.
+   */
+  private static void checkVersion(String name, Plant plant, long expectedVersion) {
+    if (expectedVersion == ANY_VERSION) {
+      return;
+    }
+    long version = plant != null ? plant.getVersion() : 0;
+    if (plant == null || version != expectedVersion) {
+      throw new PlantVersionConflictException(name, expectedVersion, version);
+    }
+  }
+
+  /**
+   * Appends a change to the log, publishes the version of the overview with the change, and
+   * tells the saver about it. The version is published after the change is logged, so readers
+   * don't see changes that would be lost in a crash. If the change could not be logged, it is
+   * only saved with the next save of the overview. The change is also kept among the recent
+   * changes, before the version is published, so that it is found by readers of the version.
+   *
+   * @param next The version of the overview with the change.
+   * @param type The kind of change.
+   * @param name The name of the changed plant.
+   * @return The changed plant, or null if it was deleted.
+   */
+  private Plant publish(ImmutablePlantOverview next, PlantChange.Type type, String name) {
+    Plant plant = next.getPlantByName(name);
+    publish(next, List.of(PlantChange.of(type, name, plant, next.getVersion())));
+    return plant;
+  }
+
+  /**
+   * Appends changes to the log with one write, publishes the version of the overview with
+   * all of them, and tells the saver about them as one change.
+   *
+   * @param next The version of the overview with the changes.
+   * @param changes The changes, each with the version it made, in order.
+   */
+  private void publish(ImmutablePlantOverview next, List<PlantChange> changes) {
     try {
-      plantPersistence.savePlantOverview(plantOverview);
-    } catch (IllegalStateException | IOException e) {
-      System.err.println("Couldn't auto-save PlantOverview: " + e);
+      changeLog.appendAll(changes);
+    } catch (IOException e) {
+      System.err.println("Couldn't log changes " + changes + ": " + e);
+    }
+    for (PlantChange change : changes) {
+      recentChanges.add(change);
+    }
+    overview.set(next);
+    for (PlantChange change : changes) {
+      changeStream.publish(change);
+    }
+    saver.changed();
+  }
+
+  /**
+   * Saves any unsaved changes right away, and waits for the save to finish.
+   */
+  public void flush() {
+    saver.flush();
+  }
+
+  /**
+   * Returns the metrics of the background saves, like the number of unsaved changes and how
+   * long the oldest of them has waited.
+   *
+   * @return The metrics by name.
+   */
+  public Map<String, Long> getSaveMetrics() {
+    return saver.getMetrics();
+  }
+
+  /**
+   * Takes the version of the overview to save, and rotates the change log so that the
+   * changes it holds can be dropped once the version has been saved. Called by the saver
+   * while holding the lock of the service.
+   *
+   * @return The version of the overview to save.
+   */
+  private ImmutablePlantOverview takeSnapshot() {
+    try {
+      changeLog.rotate();
+    } catch (IOException e) {
+      System.err.println("Couldn't rotate the change log: " + e);
+    }
+    return overview.get();
+  }
+
+  /**
+   * Saves the version of the overview taken by `takeSnapshot`, and drops the changes that
+   * were rotated when it was taken.
+   *
+   * @param snapshot The version of the overview to save.
+   * @throws IOException If the overview could not be saved.
+   */
+  private void saveSnapshot(ImmutablePlantOverview snapshot) throws IOException {
+    plantPersistence.savePlantOverview(snapshot);
+    changeLog.dropRotated();
+  }
+
+  /**
+   * Saves any unsaved changes, closes the log and ends the streams of the subscribers, when
+   * the application shuts down.
+   */
+  @PreDestroy
+  public void close() {
+    changeStream.close();
+    saver.close();
+    try {
+      changeLog.close();
+    } catch (IOException e) {
+      System.err.println("Couldn't close the change log: " + e);
     }
   }
 }
@@ -0,0 +1,40 @@
+package greenhouse.springboot.restserver;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a plant is changed on the condition that it has a version, and it has another
+ * version, because someone else changed or deleted it since it was read. The controller
+ * answers with 412 Precondition Failed.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PlantVersionConflictException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long currentVersion;
+
+  /**
+   * Constructs the exception.
+   *
+   * @param name The name of the plant.
+   * @param expectedVersion The version the plant was expected to have.
+   * @param currentVersion The version the plant has, or 0 if it does not exist.
+   */
+  public PlantVersionConflictException(String name, long expectedVersion, long currentVersion) {
+    super(currentVersion == 0
+        ? name + " does not exist anymore"
+        : name + " has version " + currentVersion + ", not " + expectedVersion);
+    this.currentVersion = currentVersion;
+  }
+
+  /**
+   * Returns the version the plant has.
+   *
+   * @return The current version of the plant, or 0 if it does not exist.
+   */
+  public long getCurrentVersion() {
+    return currentVersion;
+  }
+}
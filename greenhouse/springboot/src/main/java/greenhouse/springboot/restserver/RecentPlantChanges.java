@@ -0,0 +1,72 @@
+package greenhouse.springboot.restserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import core.PlantChange;
+
+/**
+ * The most recent changes made to the plant overview, kept in memory so that clients can
+ * ask for the changes since a version instead of fetching the whole overview. Every version
+ * of the overview is made by one change, so the change of a version is kept in a ring
+ * buffer at the slot of its version, and overwrites the change that was made as many
+ * versions earlier as the buffer has slots. Changes are added by one writer at a time,
+ * while readers never block: a reader that finds a slot overwritten with a newer change
+ * or not filled in, like from before the service started, knows that the changes it asked
+ * for are no longer kept.
+ */
+final class RecentPlantChanges {
+
+  private final AtomicReferenceArray<PlantChange> changes;
+
+  /**
+   * Creates an empty buffer.
+   *
+   * @param capacity The number of changes to keep.
+   * @throws IllegalArgumentException If the capacity is not positive.
+   */
+  RecentPlantChanges(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity must be positive");
+    }
+    this.changes = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * Keeps a change, in the slot of its version. Must be called before the version is
+   * published, so that readers of the version find its change.
+   *
+   * @param change The change that made a version of the overview.
+   */
+  void add(PlantChange change) {
+    changes.set(slot(change.getVersion()), change);
+  }
+
+  /**
+   * Returns the changes that lead from one version of the overview to another.
+   *
+   * @param since The older version.
+   * @param version The newer version, which must have been published.
+   * @return The changes in the order they were made, or null if some of them are no longer
+   *     kept, or if `since` is newer than `version`.
+   */
+  List<PlantChange> between(long since, long version) {
+    if (since < 0 || since > version || version - since > changes.length()) {
+      return null;
+    }
+    List<PlantChange> result = new ArrayList<>((int) (version - since));
+    for (long v = since + 1; v <= version; v++) {
+      PlantChange change = changes.get(slot(v));
+      if (change == null || change.getVersion() != v) {
+        return null;
+      }
+      result.add(change);
+    }
+    return result;
+  }
+
+  private int slot(long version) {
+    return (int) Math.floorMod(version, (long) changes.length());
+  }
+}
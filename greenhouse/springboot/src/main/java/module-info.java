@@ -2,10 +2,12 @@ module greenhouse.springboot {
   requires com.fasterxml.jackson.databind;
 
   requires spring.web;
+  requires spring.webmvc;
   requires spring.beans;
   requires spring.boot;
   requires spring.context;
   requires spring.boot.autoconfigure;
+  requires java.annotation;
 
   requires greenhouse.core;
 
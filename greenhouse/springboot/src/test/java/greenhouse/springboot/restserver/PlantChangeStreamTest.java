@@ -0,0 +1,189 @@
+package greenhouse.springboot.restserver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import core.Plant;
+import core.PlantChange;
+import json.PlantChangeLog.SyncPolicy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the PlantChangeStream, which pushes changes to subscribers.
+ */
+public class PlantChangeStreamTest {
+
+    /**
+     * A sink that records the events it gets, and can be made to wait before sending, like
+     * a subscriber that can't keep up. A send that waits longer than the write timeout fails,
+     * like a write that the server times out.
+     */
+    private static class RecordingSink implements PlantChangeStream.Sink {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private final long writeTimeoutMillis;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private volatile boolean closed;
+        private volatile boolean gone;
+
+        RecordingSink(CountDownLatch release) {
+            this(release, 60000);
+        }
+
+        RecordingSink(CountDownLatch release, long writeTimeoutMillis) {
+            this.release = release;
+            this.writeTimeoutMillis = writeTimeoutMillis;
+        }
+
+        @Override
+        public void send(String event, long version, Object data) throws IOException {
+            sending.countDown();
+            try {
+                if (!release.await(writeTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Write timed out");
+                }
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (gone) {
+                throw new IOException("Gone");
+            }
+            events.add(event + " " + version);
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            if (gone) {
+                throw new IOException("Gone");
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        String next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static PlantChange change(long version) {
+        Plant plant = new Plant("Plant " + version, "Seed", 1);
+        plant.setVersion(version);
+        return PlantChange.add(plant);
+    }
+
+    /**
+     * Tests that changes are sent in order, and that a subscriber that falls too far behind
+     * gets a resync event instead of the changes it could not buffer.
+     */
+    @Test
+    public void testSlowSubscriber() throws InterruptedException {
+        PlantChangeStream stream = new PlantChangeStream(3, 2, 60000);
+        RecordingSink fast = new RecordingSink(new CountDownLatch(0));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        stream.subscribe(fast, 0, List.of());
+        stream.subscribe(slow, 0, List.of());
+
+        stream.publish(change(1));
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        assertEquals("change 1", fast.next());
+        for (long version = 2; version <= 10; version++) {
+            stream.publish(change(version));
+            assertEquals("change " + version, fast.next());
+        }
+        release.countDown();
+        // The first change was already being sent when the buffer filled up
+        assertEquals("change 1", slow.next());
+        assertEquals("resync 10", slow.next());
+        stream.publish(change(11));
+        assertEquals("change 11", slow.next());
+        assertNull(slow.events.poll(100, TimeUnit.MILLISECONDS));
+        stream.close();
+        assertTrue(fast.closed);
+    }
+
+    /**
+     * Tests that subscribers that are gone are removed.
+     */
+    @Test
+    public void testGoneSubscriber() throws InterruptedException {
+        PlantChangeStream stream = new PlantChangeStream(3, 1, 20);
+        RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+        Runnable unsubscribe = stream.subscribe(sink, 0, null);
+        assertEquals("resync 0", sink.next());
+        sink.gone = true;
+        for (int i = 0; i < 100 && stream.getSubscriberCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, stream.getSubscriberCount());
+        assertTrue(sink.closed);
+        unsubscribe.run();
+        stream.close();
+    }
+
+    /**
+     * Tests that a subscriber that blocks while an event is sent to it is dropped when the
+     * write times out, and that the other subscribers then get their changes, even with a
+     * single thread.
+     */
+    @Test
+    public void testBlockedSubscriber() throws InterruptedException {
+        PlantChangeStream stream = new PlantChangeStream(3, 1, 60000);
+        RecordingSink blocked = new RecordingSink(new CountDownLatch(1), 100);
+        RecordingSink fast = new RecordingSink(new CountDownLatch(0));
+        stream.subscribe(blocked, 0, List.of());
+        stream.subscribe(fast, 0, List.of());
+
+        stream.publish(change(1));
+        assertTrue(blocked.sending.await(5, TimeUnit.SECONDS));
+        assertEquals("change 1", fast.next());
+        for (int i = 0; i < 100 && stream.getSubscriberCount() > 1; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, stream.getSubscriberCount());
+        assertTrue(blocked.closed);
+
+        for (long version = 2; version <= 10; version++) {
+            stream.publish(change(version));
+            assertEquals("change " + version, fast.next());
+        }
+        assertTrue(blocked.events.isEmpty());
+        stream.close();
+    }
+
+    /**
+     * Tests that a subscriber to the service first gets the changes it missed.
+     */
+    @Test
+    public void testSubscribeSince(@TempDir Path directory) throws InterruptedException {
+        PlantOverviewService service = new PlantOverviewService(directory.resolve("plants.json"),
+            directory.resolve("plants.log"), SyncPolicy.NEVER, 60000, 100);
+        service.addPlant(new Plant("TestPlant1", "Seed", 1));
+        long since = service.getOverview().getVersion();
+        service.editPlant("TestPlant1", null, null, true);
+        RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+        Runnable unsubscribe = service.subscribe(since, sink);
+        service.deletePlant("TestPlant1");
+
+        assertEquals("change " + (since + 1), sink.next());
+        assertEquals("change " + (since + 2), sink.next());
+        RecordingSink late = new RecordingSink(new CountDownLatch(0));
+        service.subscribe(since + 5, late);
+        assertEquals("resync " + (since + 2), late.next());
+        unsubscribe.run();
+        service.close();
+        assertTrue(late.closed);
+    }
+}
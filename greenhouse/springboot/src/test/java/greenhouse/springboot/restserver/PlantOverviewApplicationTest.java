@@ -3,10 +3,12 @@ package greenhouse.springboot.restserver;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 
 import core.PlantOverview;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -17,7 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class PlantOverviewApplicationTest {
 
     @Autowired
-    private PlantOverview plantOverview;
+    private ApplicationContext context;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -28,7 +30,7 @@ public class PlantOverviewApplicationTest {
      */
     @Test
     public void contextLoads() {
-        assertNotNull(plantOverview);
+        assertNotNull(context);
         assertNotNull(objectMapper);
     }
 
@@ -41,11 +43,12 @@ public class PlantOverviewApplicationTest {
     }
 
     /**
-     * Verifies that the PlantOverview bean is not null.
+     * Verifies that there is no PlantOverview bean, since a mutable overview shared between
+     * the request threads could lose updates. The overview is held by PlantOverviewService.
      */
     @Test
-    public void plantOverviewNotNull() {
-        assertNotNull(plantOverview);
+    public void noSharedPlantOverview() {
+        assertTrue(context.getBeansOfType(PlantOverview.class).isEmpty());
     }
 }
 
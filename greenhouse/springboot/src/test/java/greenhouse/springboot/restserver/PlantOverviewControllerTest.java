@@ -1,13 +1,25 @@
 package greenhouse.springboot.restserver;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
+import core.ImmutablePlantOverview;
 import core.Plant;
+import core.PlantBatchResult;
+import core.PlantOperation;
 import core.PlantOverview;
+import core.PlantOverviewDelta;
+import core.PlantPage;
+import core.PlantPatch;
+import core.PlantPhase;
+import core.PlantQuery;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,11 +55,11 @@ public class PlantOverviewControllerTest {
    */
   @Test
   public void testGetPlant() {
-    when(plantOverviewService.getPlantOverview()).thenReturn(mockPlantOverview);
+    when(plantOverviewService.getPlant("TestPlant")).thenReturn(testPlant);
     String plantName = "TestPlant";
     Plant result = plantOverviewController.getPlant(plantName);
 
-    verify(plantOverviewService).getPlantOverview();
+    verify(plantOverviewService).getPlant(plantName);
     assertNotNull(result);
     assertEquals(testPlant, result);
   }
@@ -57,28 +69,124 @@ public class PlantOverviewControllerTest {
    */
   @Test
   public void testGetPlant_notFound() {
-    when(plantOverviewService.getPlantOverview()).thenReturn(mockPlantOverview);
     String plantName = "NonExistingPlant";
     Plant result = plantOverviewController.getPlant(plantName);
 
-    verify(plantOverviewService).getPlantOverview();
+    verify(plantOverviewService).getPlant(plantName);
     assertNull(result);
   }
 
+  /**
+   * Test for the getPlantOverview()-method, which tags the overview with its version and
+   * answers 304 Not Modified when the client already has it.
+   */
+  @Test
+  public void testGetPlantOverview() {
+    ImmutablePlantOverview overview = ImmutablePlantOverview.of(mockPlantOverview, 4);
+    when(plantOverviewService.getOverview()).thenReturn(overview);
+
+    ResponseEntity<ImmutablePlantOverview> result = plantOverviewController.getPlantOverview(null);
+    assertEquals(HttpStatus.OK, result.getStatusCode());
+    assertEquals("\"4\"", result.getHeaders().getETag());
+    assertSame(overview, result.getBody());
+
+    ResponseEntity<ImmutablePlantOverview> notModified =
+        plantOverviewController.getPlantOverview("\"3\", W/\"4\"");
+    assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+    assertEquals("\"4\"", notModified.getHeaders().getETag());
+    assertNull(notModified.getBody());
+
+    assertEquals(HttpStatus.OK, plantOverviewController.getPlantOverview("\"3\"").getStatusCode());
+    assertEquals(HttpStatus.NOT_MODIFIED,
+        plantOverviewController.getPlantOverview("*").getStatusCode());
+    assertFalse(PlantOverviewController.matchesAny("\"40\"", "\"4\""));
+  }
+
+  /**
+   * Test for the getChanges()-method, which answers 410 Gone when the changes are no
+   * longer kept.
+   */
+  @Test
+  public void testGetChanges() {
+    PlantOverviewDelta delta = new PlantOverviewDelta(3, 3, List.of());
+    when(plantOverviewService.getChangesSince(3)).thenReturn(delta);
+
+    assertSame(delta, plantOverviewController.getChanges(3).getBody());
+    ResponseEntity<PlantOverviewDelta> gone = plantOverviewController.getChanges(1);
+    assertEquals(HttpStatus.GONE, gone.getStatusCode());
+    assertNull(gone.getBody());
+  }
+
+  /**
+   * Test for the queryPlants()-method, which turns its parameters into a query.
+   */
+  @Test
+  public void testQueryPlants() {
+    PlantPage page = new PlantPage(4, List.of(testPlant), null);
+    when(plantOverviewService.queryPlants(any())).thenReturn(page);
+
+    assertSame(page, plantOverviewController.queryPlants("Seed", "needs", "Test", "watering",
+        "w:1:TestPlant", 10));
+    verify(plantOverviewService).queryPlants(argThat(query ->
+        query.getPhase() == PlantPhase.SEED
+        && query.getWatering() == PlantQuery.Watering.NEEDS_WATER
+        && "Test".equals(query.getNamePrefix())
+        && query.getSort() == PlantQuery.Sort.NEXT_WATERING
+        && "w:1:TestPlant".equals(query.getCursor())
+        && query.getLimit() == 10));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> plantOverviewController.queryPlants("Tree", null, null, "insertion", null, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> plantOverviewController.queryPlants(null, "often", null, "insertion", null, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> plantOverviewController.queryPlants(null, null, null, "size", null, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> plantOverviewController.queryPlants(null, null, null, "name", null, 0));
+  }
+
+  /**
+   * Test for the waterPlantsThatNeedWater()-method.
+   */
+  @Test
+  public void testWaterPlantsThatNeedWater() {
+    when(plantOverviewService.waterPlantsThatNeedWater()).thenReturn(List.of(testPlant));
+
+    assertEquals(List.of(testPlant), plantOverviewController.waterPlantsThatNeedWater());
+    verify(plantOverviewService).waterPlantsThatNeedWater();
+  }
+
+  /**
+   * Test for the applyBatch()-method, which answers 409 Conflict if the batch was not applied.
+   */
+  @Test
+  public void testApplyBatch() {
+    List<PlantOperation> operations = List.of(PlantOperation.water("TestPlant"));
+    PlantBatchResult applied = new PlantBatchResult(true, 2, List.of());
+    PlantBatchResult rejected = new PlantBatchResult(false, 1, List.of());
+    when(plantOverviewService.applyBatch(operations)).thenReturn(applied, rejected);
+
+    ResponseEntity<PlantBatchResult> response = plantOverviewController.applyBatch(operations);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertSame(applied, response.getBody());
+    response = plantOverviewController.applyBatch(operations);
+    assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    assertSame(rejected, response.getBody());
+  }
+
   /**
    * Test for the postPlant()-method.
    */
   @Test
   public void testPostPlantOverview() {
-    when(plantOverviewService.getPlantOverview()).thenReturn(mockPlantOverview);
+    when(plantOverviewService.addPlant(any())).thenAnswer(invocation -> invocation.getArgument(0));
     String name = "TestPlant2";
     String phase = "Young plant";
     int waterInterval = 5;
 
     Plant result = plantOverviewController.postPlant(name, phase, waterInterval);
 
-    verify(plantOverviewService).getPlantOverview();
-    verify(plantOverviewService).autoSavePlantOverview(mockPlantOverview);
+    verify(plantOverviewService).addPlant(result);
     
     assertNotNull(result);
     assertEquals(name, result.getName());
@@ -87,6 +195,44 @@ public class PlantOverviewControllerTest {
   }
 
 
+  /**
+   * Test for the postPlant()-method with the plant as JSON, which only uses its name, phase
+   * and water interval.
+   */
+  @Test
+  public void testPostPlantJson() {
+    Plant sent = new Plant("TestPlant2", "Young plant", 5,
+        Plant.fromStringToDate("2023-01-01 00:00:00"));
+    when(plantOverviewService.addPlant(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    Plant result = plantOverviewController.postPlant(sent);
+
+    verify(plantOverviewService).addPlant(result);
+    assertEquals("TestPlant2", result.getName());
+    assertEquals("Young plant", result.getPhase());
+    assertEquals(5, result.getWaterInterval());
+    assertNotEquals(sent.getCreationTime(), result.getCreationTime());
+    assertThrows(IllegalArgumentException.class, () -> plantOverviewController.postPlant(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> plantOverviewController.postPlant(new Plant("", "Seed", 3)));
+  }
+
+  /**
+   * Test for the patchPlant()-method, which only changes the fields that are set.
+   */
+  @Test
+  public void testPatchPlant() {
+    when(plantOverviewService.editPlant("TestPlant", null, "4", true, 7))
+        .thenReturn("Success: Water interval has been updated.");
+
+    assertEquals("Success: Water interval has been updated.",
+        plantOverviewController.patchPlant(new PlantPatch("TestPlant", null, 4, true), "\"7\""));
+    plantOverviewController.patchPlant(new PlantPatch("TestPlant", "Young plant", null, false),
+        null);
+    verify(plantOverviewService).editPlant("TestPlant", "Young plant", null, false,
+        PlantOverviewService.ANY_VERSION);
+  }
+
   /**
    * Test for the postPlant()-method when not adding a water interval.
    */
@@ -101,7 +247,7 @@ public class PlantOverviewControllerTest {
       fail("Expected IllegalArgumentException but got result: " + result);
     } catch (IllegalArgumentException e) {
       verify(plantOverviewService, times(0)).getPlantOverview();
-      verify(plantOverviewService, times(0)).autoSavePlantOverview(any(PlantOverview.class));
+      verify(plantOverviewService, times(0)).addPlant(any(Plant.class));
       assertEquals("Water interval cannot be 0", e.getMessage());
     }
   }
@@ -166,16 +312,27 @@ public class PlantOverviewControllerTest {
    */
   @Test
   public void testDeletePlant() {
-    when(plantOverviewService.getPlantOverview()).thenReturn(mockPlantOverview);
-
     String nameToDelete = "TestPlant";
-    boolean result = plantOverviewController.deletePlant(nameToDelete);
+    boolean result = plantOverviewController.deletePlant(nameToDelete, null);
 
-    verify(plantOverviewService).getPlantOverview();
-    verify(plantOverviewService).autoSavePlantOverview(mockPlantOverview);
+    verify(plantOverviewService).deletePlant(nameToDelete, PlantOverviewService.ANY_VERSION);
 
     assertTrue(result);
-    assertNull(mockPlantOverview.getPlantByName(nameToDelete));
+  }
+
+  /**
+   * Test for the deletePlant()-method with an If-Match header, when the plant has changed.
+   */
+  @Test
+  public void testDeletePlant_conflict() {
+    doThrow(new PlantVersionConflictException("TestPlant", 3, 4))
+        .when(plantOverviewService).deletePlant("TestPlant", 3);
+
+    assertThrows(PlantVersionConflictException.class,
+        () -> plantOverviewController.deletePlant("TestPlant", "\"3\""));
+    assertEquals(PlantOverviewService.ANY_VERSION, PlantOverviewController.expectedVersion("*"));
+    assertThrows(IllegalArgumentException.class,
+        () -> plantOverviewController.deletePlant("TestPlant", "W/\"3\""));
   }
   
 }
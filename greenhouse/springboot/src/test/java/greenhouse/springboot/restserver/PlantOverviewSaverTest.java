@@ -0,0 +1,146 @@
+package greenhouse.springboot.restserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import core.Plant;
+import core.PlantOverview;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the write-behind saves of the PlantOverviewSaver class.
+ */
+public class PlantOverviewSaverTest {
+
+    private final Object lock = new Object();
+    private final PlantOverview overview = new PlantOverview();
+    private final List<Integer> savedSizes = new ArrayList<>();
+    private PlantOverviewSaver<PlantOverview> saver;
+
+    /**
+     * Stops the saver after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (saver != null) {
+            saver.close();
+        }
+    }
+
+    /**
+     * Adds a plant to the overview and counts the change, like the service does.
+     *
+     * @param name The name of the plant to add.
+     */
+    private void change(String name) {
+        saver.awaitCapacity();
+        synchronized (lock) {
+            overview.addPlant(new Plant(name, "Seed", 1));
+            saver.changed();
+        }
+    }
+
+    /**
+     * Records the number of plants in each saved overview.
+     *
+     * @param saved The saved overview.
+     */
+    private void save(PlantOverview saved) {
+        synchronized (savedSizes) {
+            savedSizes.add(saved.getPlantOverview().size());
+        }
+    }
+
+    /**
+     * Takes a copy of the overview to save.
+     *
+     * @return The copy.
+     */
+    private PlantOverview snapshot() {
+        return new PlantOverview(overview.getPlantOverview());
+    }
+
+    /**
+     * Tests that changes within the save window are coalesced into one save, and that the
+     * metrics count them until they are saved.
+     */
+    @Test
+    public void testChangesAreCoalesced() throws InterruptedException {
+        saver = new PlantOverviewSaver<>(lock, this::snapshot, this::save, 200, 100);
+        for (int i = 0; i < 10; i++) {
+            change("Plant " + i);
+        }
+        assertEquals(10, saver.getPendingChanges());
+        assertTrue(savedSizes.isEmpty());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (saver.getPendingChanges() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        saver.flush();
+        assertEquals(List.of(10), savedSizes);
+        assertEquals(0, saver.getSaveLagMillis());
+        assertEquals(1, saver.getMetrics().get("saves"));
+    }
+
+    /**
+     * Tests that reaching the limit of unsaved changes saves right away, and that unsaved
+     * changes are saved when the saver is closed.
+     */
+    @Test
+    public void testLimitAndClose() {
+        saver = new PlantOverviewSaver<>(lock, this::snapshot, this::save, 60000, 3);
+        for (int i = 0; i < 3; i++) {
+            change("Plant " + i);
+        }
+        saver.flush();
+        assertEquals(List.of(3), savedSizes);
+        change("Plant 3");
+        assertEquals(1, saver.getPendingChanges());
+        saver.close();
+        assertEquals(List.of(3, 4), savedSizes);
+        assertEquals(0, saver.getPendingChanges());
+    }
+
+    /**
+     * Tests that changes are counted as unsaved again when a save fails, and that changes
+     * are blocked while the limit is reached and a save is in progress.
+     */
+    @Test
+    public void testFailureAndBackpressure() throws InterruptedException {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        saver = new PlantOverviewSaver<>(lock, this::snapshot, saved -> {
+            saving.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Disk full");
+        }, 60000, 1);
+        change("Plant 0");
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        assertEquals(1, saver.getPendingChanges());
+
+        synchronized (lock) {
+            saver.changed();
+        }
+        Thread blocked = new Thread(() -> change("Plant 1"));
+        blocked.start();
+        blocked.join(200);
+        assertTrue(blocked.isAlive());
+
+        release.countDown();
+        blocked.join(5000);
+        assertFalse(blocked.isAlive());
+        assertEquals(1, saver.getMetrics().get("failedSaves"));
+        assertEquals(3, saver.getPendingChanges());
+    }
+}
@@ -0,0 +1,131 @@
+package greenhouse.springboot.restserver;
+
+import core.Plant;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import json.PlantChangeLog.SyncPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of reading plants from the PlantOverviewService, with one reader thread,
+ * with a reader thread per core, and with readers running while a writer changes plants.
+ * Reads don't take a lock, so their throughput should scale with the number of cores.
+ * Run it with `mvn test-compile exec:exec -Pbenchmark -Dbenchmark=PlantOverviewServiceBenchmark`
+ * from the springboot module, after installing the core module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PlantOverviewServiceBenchmark {
+
+  @Param({"1000"})
+  private int plantCount;
+
+  private Path directory;
+  private PlantOverviewService service;
+  private int next;
+
+  /**
+   * Creates a service with the plants that are read by the benchmarks.
+   *
+   * @throws IOException if the directory for the files of the service could not be created
+   */
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("plant-service-benchmark");
+    service = new PlantOverviewService(directory.resolve("plants.json"),
+        directory.resolve("plants.log"), SyncPolicy.NEVER, 1000, 1000);
+    for (int i = 0; i < plantCount; i++) {
+      service.addPlant(new Plant("Plant " + i, "Seed", 1 + i % 30));
+    }
+  }
+
+  /**
+   * Closes the service and deletes its files.
+   *
+   * @throws IOException if the files could not be deleted
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    service.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Looks up a plant in the current version of the overview, like a GET of a plant does.
+   *
+   * @return the plant
+   */
+  private Plant read() {
+    return service.getPlant("Plant " + (next++ % plantCount));
+  }
+
+  /**
+   * Reads plants on one thread.
+   *
+   * @return the plant that was read
+   */
+  @Benchmark
+  @Threads(1)
+  public Plant readOneThread() {
+    return read();
+  }
+
+  /**
+   * Reads plants on a thread per core.
+   *
+   * @return the plant that was read
+   */
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Plant readAllCores() {
+    return read();
+  }
+
+  /**
+   * Reads plants while the writer changes them.
+   *
+   * @return the plant that was read
+   */
+  @Benchmark
+  @Group("readWhileWriting")
+  @GroupThreads(3)
+  public Plant reader() {
+    return read();
+  }
+
+  /**
+   * Waters a plant, publishing a new version of the overview.
+   */
+  @Benchmark
+  @Group("readWhileWriting")
+  @GroupThreads(1)
+  public void writer() {
+    service.editPlant("Plant " + (next++ % plantCount), null, null, true);
+  }
+}
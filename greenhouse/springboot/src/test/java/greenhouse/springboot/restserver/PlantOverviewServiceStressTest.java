@@ -0,0 +1,175 @@
+package greenhouse.springboot.restserver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import core.ImmutablePlantOverview;
+import core.Plant;
+import core.PlantOverview;
+import json.PlantChangeLog.SyncPolicy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multi-threaded stress test of the PlantOverviewService, with writers changing the overview
+ * while readers check that every snapshot they get is consistent.
+ */
+public class PlantOverviewServiceStressTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int PLANTS_PER_WRITER = 250;
+
+    /**
+     * Tests that no update is lost when several writers add, edit and delete plants at once,
+     * and that readers only ever see consistent snapshots that never go back in time.
+     */
+    @Test
+    public void testConcurrentChanges(@TempDir Path directory) throws InterruptedException {
+        Path saveFile = directory.resolve("plants.json");
+        Path logFile = directory.resolve("plants.log");
+        PlantOverviewService service = new PlantOverviewService(saveFile, logFile, SyncPolicy.NEVER, 50, 200);
+        Queue errors = new Queue();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            String prefix = "Writer " + w + " plant ";
+            writers.add(errors.thread(() -> {
+                start.await();
+                for (int i = 0; i < PLANTS_PER_WRITER; i++) {
+                    service.addPlant(new Plant(prefix + i, "Seed", 1));
+                }
+                for (int i = 0; i < PLANTS_PER_WRITER; i++) {
+                    service.editPlant(prefix + i, "Young plant", String.valueOf(2 + i % 5), true);
+                }
+                for (int i = 0; i < PLANTS_PER_WRITER; i += 2) {
+                    service.deletePlant(prefix + i);
+                }
+            }));
+        }
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(errors.thread(() -> {
+                start.await();
+                int[] lastProgress = new int[WRITERS];
+                while (writing.get()) {
+                    ImmutablePlantOverview snapshot = service.getOverview();
+                    int[] plants = new int[WRITERS];
+                    int[] young = new int[WRITERS];
+                    for (Plant plant : snapshot) {
+                        assertTrue(plant.isReadOnly());
+                        assertSame(plant, snapshot.getPlantByName(plant.getName()));
+                        int writer = plant.getName().charAt("Writer ".length()) - '0';
+                        plants[writer]++;
+                        if (plant.getPhase().equals("Young plant")) {
+                            young[writer]++;
+                        }
+                    }
+                    for (int w = 0; w < WRITERS; w++) {
+                        int progress = progress(plants[w], young[w]);
+                        if (progress < lastProgress[w]) {
+                            fail("A snapshot went back in time");
+                        }
+                        lastProgress[w] = progress;
+                    }
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        readers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertTrue(errors.isEmpty(), () -> errors.peek().toString());
+        assertTrue(reads.get() > 0);
+
+        checkOverview(service.getPlantOverview());
+        service.close();
+        checkOverview(new PlantOverviewService(saveFile, logFile, SyncPolicy.NEVER, 50, 200).getPlantOverview());
+    }
+
+    /**
+     * Measures how far a writer has come from the plants of it that a reader sees. A writer
+     * adds all its plants, then makes all of them young plants, and then deletes half of them,
+     * so the number of its plants and young plants tell which of these it is doing.
+     *
+     * @param plants The number of plants of the writer.
+     * @param young The number of young plants of the writer.
+     * @return The number of changes the writer has made.
+     */
+    private static int progress(int plants, int young) {
+        if (young == 0 && plants < PLANTS_PER_WRITER) {
+            return plants;
+        }
+        if (plants == PLANTS_PER_WRITER) {
+            return PLANTS_PER_WRITER + young;
+        }
+        return 2 * PLANTS_PER_WRITER + PLANTS_PER_WRITER - plants;
+    }
+
+    /**
+     * Checks that the overview has every change made by the writers.
+     *
+     * @param overview The overview to check.
+     */
+    private void checkOverview(PlantOverview overview) {
+        assertEquals(WRITERS * PLANTS_PER_WRITER / 2, overview.getPlantOverview().size());
+        for (int w = 0; w < WRITERS; w++) {
+            for (int i = 0; i < PLANTS_PER_WRITER; i++) {
+                Plant plant = overview.getPlantByName("Writer " + w + " plant " + i);
+                if (i % 2 == 0) {
+                    assertNull(plant);
+                } else {
+                    assertEquals("Young plant", plant.getPhase());
+                    assertEquals(2 + i % 5, plant.getWaterInterval());
+                }
+            }
+        }
+    }
+
+    /**
+     * The errors thrown by the threads of the test.
+     */
+    private static class Queue extends ConcurrentLinkedQueue<Throwable> {
+
+        /**
+         * A task that may throw.
+         */
+        interface Task {
+            void run() throws Exception;
+        }
+
+        /**
+         * Creates a thread that runs a task, and records what it throws.
+         *
+         * @param task The task to run.
+         * @return The thread.
+         */
+        Thread thread(Task task) {
+            return new Thread(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    add(e);
+                }
+            });
+        }
+    }
+}
@@ -2,11 +2,22 @@ package greenhouse.springboot.restserver;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import core.Plant;
+import core.PlantBatchResult;
+import core.PlantChange;
+import core.PlantOperation;
 import core.PlantOverview;
+import core.PlantOverviewDelta;
+import json.PlantChangeLog.SyncPolicy;
 import json.PlantPersistence;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,4 +57,228 @@ public class PlantOverviewServiceTest {
         assertNotNull(plantOverviewService.getPlantOverview());
     }
 
-  }
\ No newline at end of file
+    /**
+     * Tests that changes are logged, and replayed by a new service that reads the same files.
+     */
+    @Test
+    public void testChangesAreReplayed(@TempDir Path directory) throws IOException {
+        Path saveFile = directory.resolve("plants.json");
+        Path logFile = directory.resolve("plants.log");
+        PlantOverviewService service = new PlantOverviewService(saveFile, logFile, SyncPolicy.ALWAYS, 60000, 100);
+        service.addPlant(new Plant("TestPlant1", "Seed", 1));
+        service.addPlant(new Plant("TestPlant2", "Seed", 2));
+        service.editPlant("TestPlant1", "Young plant", "3", true);
+        service.deletePlant("TestPlant2");
+        assertFalse(Files.exists(saveFile));
+        assertEquals(4, Files.readAllLines(logFile).size());
+        assertEquals(4, service.getSaveMetrics().get("pendingChanges"));
+
+        PlantOverview replayed = new PlantOverviewService(saveFile, logFile, SyncPolicy.ALWAYS, 60000, 100).getPlantOverview();
+        assertEquals(1, replayed.getPlantOverview().size());
+        Plant plant = replayed.getPlantByName("TestPlant1");
+        assertEquals("Young plant", plant.getPhase());
+        assertEquals(3, plant.getWaterInterval());
+        assertEquals(service.getPlantOverview().getPlantByName("TestPlant1").getLastWateredTime(), plant.getLastWateredTime());
+    }
+
+    /**
+     * Tests that the overview is saved in the background once the limit of unsaved changes is
+     * reached, and when the service is closed, and that the saved changes are dropped from the log.
+     */
+    @Test
+    public void testWriteBehindSave(@TempDir Path directory) throws IOException {
+        Path saveFile = directory.resolve("plants.json");
+        Path logFile = directory.resolve("plants.log");
+        PlantOverviewService service = new PlantOverviewService(saveFile, logFile, SyncPolicy.NEVER, 60000, 2);
+        service.addPlant(new Plant("TestPlant1", "Seed", 1));
+        service.addPlant(new Plant("TestPlant2", "Seed", 2));
+        service.flush();
+        assertTrue(Files.exists(saveFile));
+        assertFalse(Files.exists(logFile));
+        assertFalse(Files.exists(directory.resolve("plants.log.old")));
+        assertEquals(0, service.getSaveMetrics().get("pendingChanges"));
+        assertEquals(1, service.getSaveMetrics().get("saves"));
+
+        service.deletePlant("TestPlant1");
+        assertEquals(1, Files.readAllLines(logFile).size());
+        service.close();
+        assertFalse(Files.exists(logFile));
+
+        PlantOverview saved = new PlantOverviewService(saveFile, logFile, SyncPolicy.NEVER, 60000, 2).getPlantOverview();
+        assertNull(saved.getPlantByName("TestPlant1"));
+        assertNotNull(saved.getPlantByName("TestPlant2"));
+    }
+
+    /**
+     * Tests that reads share one read-only snapshot until the overview is changed.
+     */
+    @Test
+    public void testSnapshots(@TempDir Path directory) {
+        PlantOverviewService service = new PlantOverviewService(directory.resolve("plants.json"),
+            directory.resolve("plants.log"), SyncPolicy.NEVER, 60000, 100);
+        service.addPlant(new Plant("TestPlant1", "Seed", 1));
+        PlantOverview snapshot = service.getPlantOverview();
+        assertTrue(snapshot.isReadOnly());
+        assertSame(snapshot, service.getPlantOverview());
+
+        service.editPlant("TestPlant1", "Young plant", null, false);
+        PlantOverview changed = service.getPlantOverview();
+        assertNotSame(snapshot, changed);
+        assertEquals("Seed", snapshot.getPlantByName("TestPlant1").getPhase());
+        assertEquals("Young plant", changed.getPlantByName("TestPlant1").getPhase());
+
+        service.close();
+    }
+
+    /**
+     * Tests that every change gives the plant a new version, that changes on the condition of
+     * an old version fail, and that the versions survive a restart.
+     */
+    @Test
+    public void testVersions(@TempDir Path directory) {
+        Path saveFile = directory.resolve("plants.json");
+        Path logFile = directory.resolve("plants.log");
+        PlantOverviewService service = new PlantOverviewService(saveFile, logFile, SyncPolicy.NEVER, 60000, 100);
+        Plant added = service.addPlant(new Plant("TestPlant1", "Seed", 1));
+        service.addPlant(new Plant("TestPlant2", "Seed", 1));
+        long version = added.getVersion();
+        assertTrue(version > 0);
+        assertEquals(version + 1, service.getOverview().getVersion());
+
+        service.editPlant("TestPlant1", "Young plant", null, false, version);
+        long edited = service.getPlant("TestPlant1").getVersion();
+        assertTrue(edited > version);
+        PlantVersionConflictException conflict = assertThrows(PlantVersionConflictException.class,
+            () -> service.editPlant("TestPlant1", null, null, true, version));
+        assertEquals(edited, conflict.getCurrentVersion());
+        assertThrows(PlantVersionConflictException.class, () -> service.deletePlant("TestPlant1", version));
+        assertThrows(PlantVersionConflictException.class, () -> service.deletePlant("NoPlant", 1));
+        assertEquals("Young plant", service.getPlant("TestPlant1").getPhase());
+
+        service.deletePlant("TestPlant2", service.getPlant("TestPlant2").getVersion());
+        long last = service.getOverview().getVersion();
+        service.flush();
+        service.editPlant("TestPlant1", null, null, true, edited);
+        service.deletePlant("TestPlant1");
+        long logged = service.getOverview().getVersion();
+        assertEquals(last + 2, logged);
+
+        PlantOverviewService restarted = new PlantOverviewService(saveFile, logFile, SyncPolicy.NEVER, 60000, 100);
+        assertEquals(logged, restarted.getOverview().getVersion());
+        assertTrue(restarted.addPlant(new Plant("TestPlant3", "Seed", 1)).getVersion() > logged);
+        restarted.close();
+        service.close();
+    }
+
+    /**
+     * Tests that the changes since a version bring a copy of that version up to date, and
+     * that clients must fetch the whole overview once the changes are no longer kept.
+     */
+    @Test
+    public void testChangesSince(@TempDir Path directory) {
+        Path saveFile = directory.resolve("plants.json");
+        Path logFile = directory.resolve("plants.log");
+        PlantOverviewService service = new PlantOverviewService(saveFile, logFile, SyncPolicy.NEVER, 60000, 10000);
+        service.addPlant(new Plant("TestPlant1", "Seed", 1));
+        service.addPlant(new Plant("TestPlant2", "Seed", 1));
+        PlantOverview client = new PlantOverview();
+        service.getChangesSince(0).applyTo(client);
+        assertEquals(2, client.getPlantOverview().size());
+
+        service.editPlant("TestPlant1", "Young plant", null, false);
+        service.deletePlant("TestPlant2");
+        service.addPlant(new Plant("TestPlant3", "Seed", 2));
+        PlantOverviewDelta delta = service.getChangesSince(client.getVersion());
+        assertEquals(3, delta.getChanges().size());
+        assertEquals(PlantChange.Type.DELETE, delta.getChanges().get(1).getType());
+        delta.applyTo(client);
+        assertEquals(service.getOverview().getVersion(), client.getVersion());
+        assertEquals("Young plant", client.getPlantByName("TestPlant1").getPhase());
+        assertNull(client.getPlantByName("TestPlant2"));
+        assertEquals(2, client.getPlantByName("TestPlant3").getWaterInterval());
+        assertTrue(service.getChangesSince(client.getVersion()).isEmpty());
+        assertNull(service.getChangesSince(client.getVersion() + 1));
+
+        long old = client.getVersion();
+        for (int i = 0; i < 1100; i++) {
+            service.editPlant("TestPlant3", null, null, true);
+        }
+        assertNull(service.getChangesSince(old));
+        assertEquals(1, service.getChangesSince(service.getOverview().getVersion() - 10).getChanges().size());
+        service.close();
+    }
+
+    /**
+     * Test that a batch is applied as a whole, with one version for each operation and one
+     * log line for each change, and that a batch with a failing operation is not applied.
+     */
+    @Test
+    public void testApplyBatch(@TempDir Path directory) throws IOException {
+        Path saveFile = directory.resolve("plants.json");
+        Path logFile = directory.resolve("plants.log");
+        PlantOverviewService service = new PlantOverviewService(saveFile, logFile, SyncPolicy.ALWAYS, 60000, 10000);
+        service.addPlant(new Plant("TestPlant1", "Seed", 1));
+        long version = service.getOverview().getVersion();
+
+        PlantBatchResult result = service.applyBatch(List.of(
+            PlantOperation.add("TestPlant2", "Seed", 2),
+            PlantOperation.edit("TestPlant1", "Young plant", 3).ifVersion(version),
+            PlantOperation.water("TestPlant2"),
+            PlantOperation.delete("TestPlant1")));
+        assertTrue(result.isApplied());
+        assertEquals(version + 4, result.getVersion());
+        assertEquals(version + 4, service.getOverview().getVersion());
+        assertEquals("Young plant", result.getOutcomes().get(1).getPlant().getPhase());
+        assertNull(result.getOutcomes().get(3).getPlant());
+        assertNull(service.getPlant("TestPlant1"));
+        assertEquals(version + 3, service.getPlant("TestPlant2").getVersion());
+        assertEquals(2, service.getChangesSince(version).getChanges().size());
+        assertEquals(5, Files.readAllLines(logFile).size());
+
+        PlantBatchResult rejected = service.applyBatch(List.of(
+            PlantOperation.water("TestPlant2"),
+            PlantOperation.edit("TestPlant2", "Seed", null),
+            PlantOperation.delete("TestPlant2")));
+        assertFalse(rejected.isApplied());
+        assertEquals(version + 4, rejected.getVersion());
+        assertEquals(PlantBatchResult.Status.NOT_APPLIED, rejected.getOutcomes().get(0).getStatus());
+        assertEquals(PlantBatchResult.Status.FAILED, rejected.getOutcomes().get(1).getStatus());
+        assertNotNull(rejected.getOutcomes().get(1).getMessage());
+        assertEquals(PlantBatchResult.Status.NOT_APPLIED, rejected.getOutcomes().get(2).getStatus());
+        assertEquals(version + 4, service.getOverview().getVersion());
+        assertEquals(5, Files.readAllLines(logFile).size());
+
+        assertFalse(service.applyBatch(List.of(PlantOperation.delete("TestPlant2").ifVersion(1))).isApplied());
+        assertFalse(service.applyBatch(List.of(PlantOperation.add("TestPlant2", "Seed", 1))).isApplied());
+        assertTrue(service.applyBatch(List.of()).isApplied());
+        service.close();
+    }
+
+    /**
+     * Test that only the plants that need water are watered, at the same time, with one log
+     * line and one version for each of them.
+     */
+    @Test
+    public void testWaterPlantsThatNeedWater(@TempDir Path directory) throws IOException {
+        Path saveFile = directory.resolve("plants.json");
+        Path logFile = directory.resolve("plants.log");
+        PlantOverviewService service = new PlantOverviewService(saveFile, logFile, SyncPolicy.ALWAYS, 60000, 10000);
+        service.addPlant(new Plant("Dry1", "Seed", 2, Plant.fromStringToDate("2023-10-28 11:02:19")));
+        service.addPlant(new Plant("Fresh", "Seed", 2));
+        service.addPlant(new Plant("Dry2", "Seed", 6, Plant.fromStringToDate("2023-10-26 10:02:20")));
+        long version = service.getOverview().getVersion();
+
+        List<Plant> watered = service.waterPlantsThatNeedWater();
+        assertEquals(List.of("Dry1", "Dry2"), watered.stream().map(Plant::getName).toList());
+        assertEquals(watered.get(0).getLastWateredTime(), watered.get(1).getLastWateredTime());
+        assertEquals(version + 1, watered.get(0).getVersion());
+        assertEquals(version + 2, service.getOverview().getVersion());
+        assertFalse(service.getPlant("Dry2").needsWater());
+        assertEquals(version - 1, service.getPlant("Fresh").getVersion());
+        assertEquals(5, Files.readAllLines(logFile).size());
+
+        assertTrue(service.waterPlantsThatNeedWater().isEmpty());
+        assertEquals(version + 2, service.getOverview().getVersion());
+        service.close();
+    }
+}
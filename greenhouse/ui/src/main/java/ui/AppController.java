@@ -94,8 +94,9 @@ public class AppController {
   public void showFilteredOverview(PlantOverview overview) {
     plantTable.getItems().clear();
     if (!overview.getPlantOverview().isEmpty()) {
+      long now = System.currentTimeMillis();
       List<String> plantItems = overview.getPlantOverview().stream()
-            .map(p -> p.getName() + (p.needsWater() ? " NEEDS WATER" : ""))
+            .map(p -> p.getName() + (p.needsWater(now) ? " NEEDS WATER" : ""))
             .collect(Collectors.toList());
 
       plantTable.getItems().setAll(plantItems);
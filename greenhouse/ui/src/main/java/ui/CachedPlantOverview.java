@@ -0,0 +1,166 @@
+package ui;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import core.Plant;
+import core.PlantChange;
+import core.PlantOverview;
+import core.PlantOverviewDelta;
+
+/**
+ * The local copy of the remote plant overview, which is kept up to date by applying the
+ * changes made on the server to it. The overview is kept as JSON, as it was received, and
+ * read into a PlantOverview, that changes are applied to, the first time it is needed.
+ * Callers never get the kept overview itself, only copies of it, or read-only snapshots,
+ * which are taken from the kept PlantOverview without going through JSON and are shared
+ * until the overview changes.
+ * All methods are synchronized, since changes may be applied by a thread that listens for them
+ * while the user interface reads the overview.
+ */
+class CachedPlantOverview {
+
+  private final ObjectMapper mapper;
+  private String tag;
+  private String body;
+  private PlantOverview overview;
+  private PlantOverview snapshot;
+  private long version = -1;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param mapper The mapper that reads the overview from JSON.
+   */
+  CachedPlantOverview(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  /**
+   * Returns the version of the kept overview.
+   *
+   * @return The version, or -1 if no overview is kept.
+   */
+  synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the entity tag of the kept overview.
+   *
+   * @return The entity tag, or null if no overview is kept.
+   */
+  synchronized String getTag() {
+    return tag;
+  }
+
+  /**
+   * Keeps an overview that was received.
+   *
+   * @param tag The entity tag of the overview, or null.
+   * @param body The overview as JSON.
+   * @param version The version of the overview.
+   */
+  synchronized void replace(String tag, String body, long version) {
+    this.tag = tag;
+    this.body = body;
+    this.overview = null;
+    this.snapshot = null;
+    this.version = version;
+  }
+
+  /**
+   * Returns a copy of the kept overview, which the caller may change. The copy is made from
+   * copies of the plants of the kept PlantOverview, so the overview is read from JSON at most
+   * once after it was received, and never written as JSON.
+   *
+   * @return A copy of the overview, or null if no overview is kept.
+   * @throws JsonProcessingException If the overview could not be read.
+   */
+  synchronized PlantOverview copy() throws JsonProcessingException {
+    if (version < 0) {
+      return null;
+    }
+    PlantOverview.Builder builder = PlantOverview.builder();
+    for (Plant plant : overview().getPlantOverview()) {
+      Plant copy = new Plant(plant.getName(), plant.getPhase(), plant.getWaterInterval(),
+          plant.getCreationTime(), plant.getLastWateredTime());
+      copy.setVersion(plant.getVersion());
+      builder.add(copy);
+    }
+    PlantOverview copy = builder.build();
+    copy.setVersion(version);
+    return copy;
+  }
+
+  /**
+   * Returns a read-only snapshot of the kept overview, which is cheaper than a copy when the
+   * overview has just been changed, since it is not made from JSON.
+   *
+   * @return A read-only snapshot of the overview, or null if no overview is kept.
+   * @throws JsonProcessingException If the overview could not be read.
+   */
+  synchronized PlantOverview snapshot() throws JsonProcessingException {
+    if (version < 0) {
+      return null;
+    }
+    if (snapshot == null) {
+      snapshot = overview().snapshot();
+    }
+    return snapshot;
+  }
+
+  /**
+   * Applies a delta to the kept overview, if it starts from its version.
+   *
+   * @param delta The changes since a version.
+   * @return True if the kept overview is now up to date with the delta, false if the delta
+   *     does not start from its version.
+   * @throws JsonProcessingException If the overview could not be read.
+   */
+  synchronized boolean apply(PlantOverviewDelta delta) throws JsonProcessingException {
+    if (delta.getSince() != version) {
+      return false;
+    }
+    if (!delta.isEmpty() || delta.getVersion() != version) {
+      delta.applyTo(overview());
+      changed(delta.getVersion());
+    }
+    return true;
+  }
+
+  /**
+   * Applies a change that was pushed from the server. Changes the kept overview already has
+   * are ignored, and a change that does not follow right after its version is not applied,
+   * since changes were missed in between.
+   *
+   * @param change The change, with the version it made.
+   * @return True if the kept overview now has the change, false if changes were missed.
+   * @throws JsonProcessingException If the overview could not be read.
+   */
+  synchronized boolean apply(PlantChange change) throws JsonProcessingException {
+    if (version < 0 || change.getVersion() > version + 1) {
+      return false;
+    }
+    if (change.getVersion() == version + 1) {
+      change.applyTo(overview());
+      changed(change.getVersion());
+    }
+    return true;
+  }
+
+  private PlantOverview overview() throws JsonProcessingException {
+    if (overview == null) {
+      overview = mapper.readValue(body, PlantOverview.class);
+      body = null;
+    }
+    return overview;
+  }
+
+  private void changed(long newVersion) {
+    overview.setVersion(newVersion);
+    version = newVersion;
+    tag = "\"" + newVersion + "\"";
+    snapshot = null;
+  }
+}
@@ -0,0 +1,19 @@
+package ui;
+
+/**
+ * Thrown by RemotePlantOverviewAccess when a plant could not be changed, because someone else
+ * changed or deleted it since it was read.
+ */
+public class PlantConflictException extends IllegalStateException {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructs the exception.
+   *
+   * @param name The name of the plant that has changed.
+   */
+  public PlantConflictException(String name) {
+    super(name + " has been changed by someone else. Please try again.");
+  }
+}
@@ -0,0 +1,60 @@
+package ui;
+
+import java.util.stream.Stream;
+
+/**
+ * A subscription to the changes made to the remote plant overview, made by
+ * RemotePlantOverviewAccess. It listens on its own thread until it is closed.
+ */
+public class PlantOverviewSubscription implements AutoCloseable {
+
+  private volatile boolean closed;
+  private volatile Stream<String> lines;
+  private Thread thread;
+
+  /**
+   * Starts listening on the thread of the subscription.
+   *
+   * @param thread The thread that listens to the changes.
+   */
+  void start(Thread thread) {
+    this.thread = thread;
+    thread.start();
+  }
+
+  /**
+   * Sets the stream that is being listened to, so that closing the subscription closes it.
+   *
+   * @param lines The lines of the stream.
+   */
+  void setLines(Stream<String> lines) {
+    this.lines = lines;
+    if (closed) {
+      lines.close();
+    }
+  }
+
+  /**
+   * Checks if the subscription has been closed.
+   *
+   * @return True if it has been closed, false otherwise.
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Stops listening to the changes, and closes the connection.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    Stream<String> current = lines;
+    if (current != null) {
+      current.close();
+    }
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+}
@@ -2,7 +2,6 @@ package ui;
 
 import core.Plant;
 import core.PlantOverview;
-import java.util.Date;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -143,7 +142,7 @@ public class PopUpController {
    */
   public void waterPlant() {
     if (selectedPlant.needsWater()) {
-      selectedPlant.setLastWatered(new Date());
+      plantOverview.waterPlant(selectedPlant.getName(), System.currentTimeMillis());
       Alert a1 = new Alert(AlertType.INFORMATION, selectedPlant.getName() + " has been watered:)");
       a1.show();
       currentStage.close();
@@ -153,7 +152,7 @@ public class PopUpController {
               ButtonType.NO, ButtonType.YES);
       a1.showAndWait();
       if (a1.getResult().getText().equals("Yes")) {
-        selectedPlant.setLastWatered(new Date());
+        plantOverview.waterPlant(selectedPlant.getName(), System.currentTimeMillis());
         Alert a2 = new Alert(AlertType.WARNING, selectedPlant.getName() 
             + " has been watered, but did not need it.\nTry watering this plant less frequently.");
         a2.show();
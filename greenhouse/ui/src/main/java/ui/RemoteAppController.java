@@ -3,10 +3,15 @@ package ui;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import core.Plant;
 import core.PlantOverview;
+import core.PlantPage;
+import core.PlantQuery;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -28,6 +33,8 @@ import javafx.stage.Stage;
 /**
  * The `RemoteAppController` class is responsible for managing the user
  * interface and interacting with the application's data.
+ * The remote calls are made without waiting for the server, and their results are shown on
+ * the JavaFX application thread when they arrive, so a slow server never freezes the window.
  */
 public class RemoteAppController {
 
@@ -51,6 +58,12 @@ public class RemoteAppController {
 
 
   private RemotePlantOverviewAccess remotePlantOverviewAccess;
+
+  private PlantOverviewSubscription subscription;
+
+  private String appliedFilter;
+
+  private long overviewRequests;
   
   private String API_ENDPOINT = "http://localhost:8080/greenhouse";
   /**
@@ -61,15 +74,63 @@ public class RemoteAppController {
     this.remotePlantOverviewAccess = new RemotePlantOverviewAccess(URI.create(this.API_ENDPOINT));
     initializeFilterOption();
     showOverview();
+    this.subscription = remotePlantOverviewAccess.subscribe(
+        overview -> Platform.runLater(() -> showLiveOverview(overview)));
+  }
+
+  /**
+   * Applies the result of a remote call on the JavaFX application thread once it arrives.
+   * If the call failed, the error is given to onError instead.
+   *
+   * @param future The result of the remote call.
+   * @param onResult Gets the result.
+   * @param onError Gets the exception the call failed with.
+   */
+  static <T> void whenDone(CompletableFuture<T> future, Consumer<T> onResult,
+      Consumer<Throwable> onError) {
+    future.whenComplete((result, e) -> Platform.runLater(() -> {
+      if (e != null) {
+        onError.accept(RemotePlantOverviewAccess.unwrap(e));
+      } else {
+        onResult.accept(result);
+      }
+    }));
+  }
+
+  /**
+   * Shows an overview that was asked for, unless another overview has been asked for since.
+   *
+   * @param overview The overview that is being fetched.
+   */
+  private void showWhenDone(CompletableFuture<PlantOverview> overview) {
+    long request = ++overviewRequests;
+    whenDone(overview, plantOverview -> {
+      if (request == overviewRequests) {
+        showFilteredOverview(plantOverview);
+      }
+    }, e -> System.err.println(e.toString()));
+  }
+
+  /**
+   * Shows the plant overview after it was changed, by this or another client, with the
+   * filter that was last applied.
+   *
+   * @param plantOverview The changed plant overview.
+   */
+  private void showLiveOverview(PlantOverview plantOverview) {
+    showFilteredOverview(appliedFilter == null ? plantOverview
+        : PlantOverview.filterPlantOverview(appliedFilter, plantOverview));
   }
 
   /**
    * The method reads plant information from a file, clears the existing items in the TableView,
    * and populates it with plant names from the retrieved data.
    * If no plant information is available, the TableView remains empty.
+   * The overview is shown when it arrives from the server.
    */
   public void showOverview() {
-    showFilteredOverview(getRemotePlantOverview()); 
+    appliedFilter = null;
+    showWhenDone(remotePlantOverviewAccess.getPlantOverviewAsync()); 
   }
 
   /**
@@ -85,8 +146,9 @@ public class RemoteAppController {
   public void showFilteredOverview(PlantOverview plantOverview) {
     plantTable.getItems().clear();
     if (!plantOverview.getPlantOverview().isEmpty()) {
+      long now = System.currentTimeMillis();
       List<String> plantItems = plantOverview.getPlantOverview().stream() 
-            .map(p -> p.getName() + (p.needsWater() ? " NEEDS WATER" : ""))
+            .map(p -> p.getName() + (p.needsWater(now) ? " NEEDS WATER" : ""))
             .collect(Collectors.toList());
 
       plantTable.getItems().setAll(plantItems);
@@ -95,14 +157,38 @@ public class RemoteAppController {
 
   /**
    * Displays a filtered overview of plants based on the selected filter option.
-   * This method reads plant information from a file, retrieves the selected filter
-   * option from the user interface, and filters the plant data accordingly. It then
-   * displays the filtered plant overview to the user.
+   * This method retrieves the selected filter option from the user interface, and asks
+   * the server for the plants that match it, one page at a time, so only the matching
+   * plants are sent. It then displays the filtered plant overview to the user, when all the
+   * pages have arrived. Changes pushed afterwards are filtered the same way until the whole
+   * overview is shown again.
    */
   public void filteredOverview() {
     String filter = filterOptions.getValue();
-    PlantOverview filteredOverview = PlantOverview.filterPlantOverview(filter, getRemotePlantOverview()); 
-    showFilteredOverview(filteredOverview);
+    appliedFilter = filter;
+    PlantQuery query = PlantQuery.forFilter(filter).limit(PlantQuery.MAX_LIMIT).build();
+    showWhenDone(queryPages(query, remotePlantOverviewAccess.queryPlantsAsync(query),
+        PlantOverview.builder()));
+  }
+
+  /**
+   * Adds the plants of a page, and of the pages after it, to an overview.
+   *
+   * @param query The query of the first page.
+   * @param page The page that is being fetched.
+   * @param filteredOverview The plants of the pages before it.
+   * @return The overview with the plants of all the pages.
+   */
+  private CompletableFuture<PlantOverview> queryPages(PlantQuery query,
+      CompletableFuture<PlantPage> page, PlantOverview.Builder filteredOverview) {
+    return page.thenCompose(plantPage -> {
+      filteredOverview.addAll(plantPage.getPlants());
+      if (plantPage.getNextCursor() == null) {
+        return CompletableFuture.completedFuture(filteredOverview.build());
+      }
+      return queryPages(query, remotePlantOverviewAccess.queryPlantsAsync(
+          query.next(plantPage.getNextCursor()).build()), filteredOverview);
+    });
   }
 
   /**
@@ -121,20 +207,24 @@ public class RemoteAppController {
   /**
    * Opens a pop-up window to display detailed information about the selected plant.
    * If a plant is selected in the TableView, this method retrieves the corresponding Plant object
-   * based on the selected plant's name and then opens a pop-up window to show its details.
+   * based on the selected plant's name and then opens a pop-up window to show its details,
+   * when the plant has arrived from the server.
    */
   public void selectedPlant() {
-    Plant selectedPlant = null;
     String selectedPlantString = plantTable.getSelectionModel().getSelectedItem();
     if (selectedPlantString != null) {
       String[] selectedPlantStringArray = selectedPlantString.split("\s");
-      selectedPlant = getRemotePlantOverview().getPlantOverview().stream().filter(
-        p -> selectedPlantStringArray[0].equals(p.getName())).findFirst().get();
-      try {
-        openPopUp(selectedPlant);
-      } catch (IOException e) {
-        System.err.println(e.toString());
-      }
+      whenDone(remotePlantOverviewAccess.getPlantOverviewAsync(), plantOverview -> {
+        Plant selectedPlant = plantOverview.getPlantByName(selectedPlantStringArray[0]);
+        if (selectedPlant == null) {
+          return;
+        }
+        try {
+          openPopUp(selectedPlant);
+        } catch (IOException e) {
+          System.err.println(e.toString());
+        }
+      }, e -> System.err.println(e.toString()));
     }
   }
 
@@ -156,6 +246,9 @@ public class RemoteAppController {
     RemoteNewPlantController remoteNewPlantController = loader.getController();
     //remoteNewPlantController.setAppController(this);
     remoteNewPlantController.setRemotePlantOverviewAccess(remotePlantOverviewAccess);
+    if (subscription != null) {
+      subscription.close();
+    }
     Scene scene = new Scene(root);
     Stage secondStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
     secondStage.setScene(scene);
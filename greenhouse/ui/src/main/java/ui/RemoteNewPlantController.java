@@ -66,6 +66,8 @@ public class RemoteNewPlantController {
 
   /**
    * Handles the event when the "Add Plant" button is pushed.
+   * The plant is sent without waiting for the server, and the main view is shown when it
+   * has been added.
    *
    * @param event The ActionEvent triggered by the button push.
    * @throws IOException If an error occurs during the addition of the new plant.
@@ -83,14 +85,19 @@ public class RemoteNewPlantController {
       a1.show();
       return;
     }
-    try {
-      remotePlantOverviewAccess.newPlant(nicknameString, phaseString, Integer.toString(numWaterInterval));
-    } catch (IllegalArgumentException e) {
-      Alert a2 = new Alert(AlertType.INFORMATION, e.getMessage());
-      a2.show();
-      return;
-    }
-    returnToApp(event);
+    addPlant.setDisable(true);
+    RemoteAppController.whenDone(remotePlantOverviewAccess.newPlantAsync(nicknameString,
+        phaseString, Integer.toString(numWaterInterval)), plant -> {
+          try {
+            returnToApp(event);
+          } catch (IOException e) {
+            System.err.println(e.toString());
+          }
+        }, e -> {
+          addPlant.setDisable(false);
+          Alert a2 = new Alert(AlertType.INFORMATION, e.getMessage());
+          a2.show();
+        });
   }
 
   /**
@@ -1,17 +1,38 @@
 package ui;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.net.http.HttpResponse;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import core.Plant;
+import core.PlantBatchResult;
+import core.PlantChange;
+import core.PlantOperation;
 import core.PlantOverview;
+import core.PlantOverviewDelta;
+import core.PlantPage;
+import core.PlantPatch;
+import core.PlantQuery;
 import json.GreenhouseModule;
 
 
@@ -19,6 +40,16 @@ import json.GreenhouseModule;
  * Represents a class for accessing remote plant overview information.
  * Provides methods for retrieving, updating, creating, and deleting plant data
  * through a remote API using HTTP requests.
+ * All requests are sent with one HttpClient, which is made once and kept for as long as this
+ * object, so that connections to the server are kept alive and reused instead of opened for
+ * every request. The client prefers HTTP/2, and falls back to HTTP/1.1 if the server does not
+ * support it.
+ *
+ * <p>Every operation has an asynchronous variant, whose name ends with Async, that sends the
+ * request without waiting for the answer and returns a CompletableFuture of the result. It
+ * fails with the same exception that the blocking variant throws. The futures are completed
+ * on the threads of the HttpClient, so a user interface must apply their results on its own
+ * thread.</p>
  */
 public class RemotePlantOverviewAccess {
 
@@ -26,7 +57,27 @@ public class RemotePlantOverviewAccess {
   private static final String APPLICATION_JSON = "application/json";
   private static final String ACCEPT_HEADER = "Accept";
   private static final String CONTENT_TYPE_HEADER = "Content-Type";
+  private static final String IF_MATCH_HEADER = "If-Match";
+  private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+  private static final String ETAG_HEADER = "ETag";
+  private static final int OK = 200;
+  private static final int NOT_MODIFIED = 304;
+  private static final int CONFLICT = 409;
+  private static final int PRECONDITION_FAILED = 412;
+  private static final String TEXT_EVENT_STREAM = "text/event-stream";
+  private static final long RECONNECT_DELAY_MILLIS = 2000;
+  /**
+   * How long to wait for a connection to the server, unless another timeout is given.
+   */
+  public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+  /**
+   * How long to wait for the server to answer a request, unless another timeout is given.
+   */
+  public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+  private final HttpClient httpClient;
+  private final Duration requestTimeout;
   private ObjectMapper mapper = new ObjectMapper();
+  private final CachedPlantOverview cachedOverview = new CachedPlantOverview(mapper);
 
   /**
    * Constructs a new RemotePlantOverviewAccess instance with the specified endpoint URI.
@@ -34,7 +85,31 @@ public class RemotePlantOverviewAccess {
    * @param endpointURI The URI of the remote plant overview API.
    */
   public RemotePlantOverviewAccess(URI endpointURI) {
+    this(endpointURI, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
+  }
+
+  /**
+   * Constructs a new RemotePlantOverviewAccess instance with the specified endpoint URI and
+   * timeouts. The stream of changes is not limited by the request timeout, since it stays
+   * open for as long as the subscription.
+   *
+   * @param endpointURI    The URI of the remote plant overview API.
+   * @param connectTimeout How long to wait for a connection to the server.
+   * @param requestTimeout How long to wait for the server to answer a request.
+   * @throws IllegalArgumentException If a timeout is not positive.
+   */
+  public RemotePlantOverviewAccess(URI endpointURI, Duration connectTimeout,
+      Duration requestTimeout) {
+    if (connectTimeout.isNegative() || connectTimeout.isZero()
+        || requestTimeout.isNegative() || requestTimeout.isZero()) {
+      throw new IllegalArgumentException("The timeouts must be positive");
+    }
     this.endpointURI = endpointURI;
+    this.requestTimeout = requestTimeout;
+    this.httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_2)
+      .connectTimeout(connectTimeout)
+      .build();
     mapper.registerModule(new GreenhouseModule());
   }
 
@@ -49,6 +124,139 @@ public class RemotePlantOverviewAccess {
     return resolvedEndpointURI;
   }
 
+  /**
+   * Starts a request to the given URI, relative to the endpoint URI, that fails with an
+   * HttpTimeoutException if the server does not answer within the request timeout.
+   *
+   * @param uri The URI of the request.
+   * @return The request.
+   */
+  private HttpRequest.Builder newRequest(String uri) {
+    return HttpRequest.newBuilder(resolveURI(uri)).timeout(requestTimeout);
+  }
+
+  /**
+   * Sends a request with the shared client, without waiting for the answer.
+   *
+   * @param request Builds the request.
+   * @return The answer, or a failed future if the request could not be built or sent.
+   */
+  private CompletableFuture<HttpResponse<String>> send(Callable<HttpRequest> request) {
+    try {
+      return httpClient.sendAsync(request.call(), HttpResponse.BodyHandlers.ofString());
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Reads a JSON value.
+   *
+   * @param json The JSON.
+   * @param type The class of the value.
+   * @return The value.
+   * @throws UncheckedIOException If the JSON could not be read.
+   */
+  private <T> T read(String json, Class<T> type) {
+    try {
+      return mapper.readValue(json, type);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Throws if the server did not answer with one of the given status codes.
+   *
+   * @param httpResponse The response.
+   * @param accepted The status codes that are accepted.
+   * @return The response.
+   * @throws UncheckedIOException If the server answered with another status code.
+   */
+  private static HttpResponse<String> checkStatus(HttpResponse<String> httpResponse,
+      int... accepted) {
+    for (int status : accepted) {
+      if (httpResponse.statusCode() == status) {
+        return httpResponse;
+      }
+    }
+    throw new UncheckedIOException(
+        new IOException("The server answered " + httpResponse.statusCode()));
+  }
+
+  /**
+   * Throws if the server did not answer with a 2xx status code.
+   *
+   * @param httpResponse The response.
+   * @param message The message of the exception.
+   * @return The response.
+   * @throws IllegalArgumentException If the server answered with another status code.
+   */
+  private static HttpResponse<String> checkSuccess(HttpResponse<String> httpResponse,
+      String message) {
+    int status = httpResponse.statusCode();
+    if (status < 200 || status > 299) {
+      throw new IllegalArgumentException(message,
+          new IOException("The server answered " + status));
+    }
+    return httpResponse;
+  }
+
+  /**
+   * Makes a future fail with an IllegalArgumentException with the given message if it fails
+   * for any reason, which is how the blocking methods report that a request failed.
+   *
+   * @param future The future.
+   * @param message The message of the exception.
+   * @return The future.
+   */
+  private static <T> CompletableFuture<T> orFail(CompletableFuture<T> future, String message) {
+    return future.handle((result, e) -> {
+      if (e != null) {
+        unwrap(e).printStackTrace();
+        throw new IllegalArgumentException(message, unwrap(e));
+      }
+      return result;
+    });
+  }
+
+  /**
+   * Finds the exception that made a future fail.
+   *
+   * @param e The exception a future failed with.
+   * @return The cause, if the exception only wraps it.
+   */
+  static Throwable unwrap(Throwable e) {
+    return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+  }
+
+  /**
+   * Waits for a future, which is how the blocking methods are made from the asynchronous
+   * ones.
+   *
+   * @param future The future.
+   * @return The result.
+   * @throws RuntimeException The exception the future failed with.
+   * @throws IllegalStateException If interrupted while waiting.
+   */
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new IllegalStateException("Interrupted while waiting for the server", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
   /**
    * Retrieves plant information by name from the remote API.
    *
@@ -57,59 +265,286 @@ public class RemotePlantOverviewAccess {
    * @throws IllegalArgumentException If there is no plant with the specified name.
    */
   public Plant getPlant(String name) {
+    return await(getPlantAsync(name));
+  }
+
+  /**
+   * Retrieves plant information by name from the remote API, without waiting for the answer.
+   *
+   * @param name The name of the plant to retrieve.
+   * @return The plant, or a future that fails with an IllegalArgumentException if there is no
+   *     plant with the specified name.
+   */
+  public CompletableFuture<Plant> getPlantAsync(String name) {
     String uri = "/greenhouse/get?";
     uri += "name=" + name;
-    try {
-      URI resolvedURI = resolveURI(uri);
-      HttpRequest httpRequest = HttpRequest
-        .newBuilder(resolvedURI)
+    String plantURI = uri;
+    return orFail(send(() -> newRequest(plantURI)
         .header(ACCEPT_HEADER, APPLICATION_JSON)
         .header(CONTENT_TYPE_HEADER, APPLICATION_JSON)
         .GET()
-        .build();
-    
-      final HttpResponse<String> httpResponse = HttpClient.newBuilder()
-        .build()
-        .send(httpRequest, HttpResponse.BodyHandlers.ofString());
-      
-      String response = httpResponse.body();
-      return mapper.readValue(response, Plant.class);
-
-    } catch(Exception e) {
-      e.printStackTrace();
-      throw new IllegalArgumentException("There is no plant called " + name + ".");
-    }
+        .build())
+      .thenApply(httpResponse -> read(httpResponse.body(), Plant.class)),
+        "There is no plant called " + name + ".");
   }
 
   /**
    * Retrieves the overview of all plants from the remote API.
+   * The last overview that was received is kept with its version, and only the changes
+   * since that version are fetched and applied to it. If the server no longer has all of
+   * them, the whole overview is fetched, on the condition that it has changed since the kept
+   * version, so polling an unchanged overview costs next to nothing.
    *
    * @return The PlantOverview object representing the overview of all plants.
    * @throws IllegalArgumentException If there is an issue with building or sending the HttpRequest.
    */
   public PlantOverview getPlantOverview() {
-    String uri = "/greenhouse/getPlantOverview";
-    try {
-      URI resolvedURI = resolveURI(uri);
-      HttpRequest httpRequest = HttpRequest
-        .newBuilder(resolvedURI)
+    return await(getPlantOverviewAsync());
+  }
+
+  /**
+   * Retrieves the overview of all plants from the remote API, like getPlantOverview, without
+   * waiting for the answer.
+   *
+   * @return The overview, or a future that fails with an IllegalArgumentException if there is
+   *     an issue with building or sending the HttpRequest.
+   */
+  public CompletableFuture<PlantOverview> getPlantOverviewAsync() {
+    CompletableFuture<Boolean> upToDate = cachedOverview.getVersion() < 0
+        ? CompletableFuture.completedFuture(false) : fetchChanges();
+    return orFail(upToDate
+      .thenCompose(done -> done ? CompletableFuture.<Void>completedFuture(null)
+          : fetchWholeOverview())
+      .thenApply(done -> {
+        try {
+          // A copy, since callers may change the overview they get
+          return cachedOverview.copy();
+        } catch (JsonProcessingException e) {
+          throw new UncheckedIOException(e);
+        }
+      }), "It does not exist any plantOverview");
+  }
+
+  /**
+   * Fetches the changes since the kept version of the overview and applies them to it.
+   *
+   * @return True if the kept overview is up to date, false if the server no longer has all
+   *     the changes, or a future that fails if the changes could not be fetched or read.
+   */
+  private CompletableFuture<Boolean> fetchChanges() {
+    return send(() -> newRequest("/greenhouse/changes?since=" + cachedOverview.getVersion())
         .header(ACCEPT_HEADER, APPLICATION_JSON)
-        .header(CONTENT_TYPE_HEADER, APPLICATION_JSON)
         .GET()
-        .build();
-    
-      final HttpResponse<String> httpResponse = HttpClient.newBuilder()
-        .build()
-        .send(httpRequest, HttpResponse.BodyHandlers.ofString());
-      
-      String response = httpResponse.body();
-      PlantOverview plantOverview = mapper.readValue(response, PlantOverview.class);
-    
-      return plantOverview;
-
-    } catch(Exception e) {
-      e.printStackTrace();
-      throw new IllegalArgumentException("It does not exist any plantOverview");
+        .build())
+      .thenApply(httpResponse -> {
+        if (httpResponse.statusCode() != OK) {
+          return false;
+        }
+        try {
+          return cachedOverview.apply(read(httpResponse.body(), PlantOverviewDelta.class));
+        } catch (JsonProcessingException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+  }
+
+  /**
+   * Fetches the whole overview and keeps it, unless it has not changed since the kept
+   * version of it.
+   *
+   * @return A future that completes when the overview is kept, or fails if the overview
+   *     could not be fetched or read.
+   */
+  private CompletableFuture<Void> fetchWholeOverview() {
+    String tag = cachedOverview.getTag();
+    return send(() -> {
+      HttpRequest.Builder builder = newRequest("/greenhouse/getPlantOverview")
+        .header(ACCEPT_HEADER, APPLICATION_JSON)
+        .header(CONTENT_TYPE_HEADER, APPLICATION_JSON);
+      if (tag != null) {
+        builder.header(IF_NONE_MATCH_HEADER, tag);
+      }
+      return builder.GET().build();
+    }).thenAccept(httpResponse -> {
+      if (tag != null && httpResponse.statusCode() == NOT_MODIFIED) {
+        return;
+      }
+      String response = checkStatus(httpResponse, OK).body();
+      PlantOverview plantOverview = read(response, PlantOverview.class);
+      cachedOverview.replace(httpResponse.headers().firstValue(ETAG_HEADER).orElse(null),
+          response, plantOverview.getVersion());
+    });
+  }
+
+  /**
+   * Retrieves a page of the plants that match a query from the remote API. The plants are
+   * filtered and sorted by the server, so only the plants of the page are sent.
+   *
+   * @param query The filters, order and cursor of the page.
+   * @return The page, with the cursor of the next page, or null if it is the last page.
+   * @throws IllegalArgumentException If there is an issue with building or sending the
+   *     HttpRequest, or if the server did not accept the query.
+   */
+  public PlantPage queryPlants(PlantQuery query) {
+    return await(queryPlantsAsync(query));
+  }
+
+  /**
+   * Retrieves a page of the plants that match a query from the remote API, without waiting
+   * for the answer.
+   *
+   * @param query The filters, order and cursor of the page.
+   * @return The page, or a future that fails with an IllegalArgumentException if there is an
+   *     issue with building or sending the HttpRequest, or if the server did not accept the
+   *     query.
+   */
+  public CompletableFuture<PlantPage> queryPlantsAsync(PlantQuery query) {
+    StringBuilder uri = new StringBuilder("/greenhouse/query?sort=");
+    switch (query.getSort()) {
+      case NAME:
+        uri.append("name");
+        break;
+      case NEXT_WATERING:
+        uri.append("watering");
+        break;
+      default:
+        uri.append("insertion");
+        break;
+    }
+    uri.append("&limit=").append(query.getLimit());
+    if (query.getPhase() != null) {
+      uri.append("&phase=").append(encode(query.getPhase().toString()));
+    }
+    if (query.getWatering() == PlantQuery.Watering.NEEDS_WATER) {
+      uri.append("&water=needs");
+    } else if (query.getWatering() == PlantQuery.Watering.HYDRATED) {
+      uri.append("&water=hydrated");
+    }
+    if (query.getNamePrefix() != null) {
+      uri.append("&prefix=").append(encode(query.getNamePrefix()));
+    }
+    if (query.getCursor() != null) {
+      uri.append("&cursor=").append(encode(query.getCursor()));
+    }
+    return orFail(send(() -> newRequest(uri.toString())
+        .header(ACCEPT_HEADER, APPLICATION_JSON)
+        .GET()
+        .build())
+      .thenApply(httpResponse -> read(checkStatus(httpResponse, OK).body(), PlantPage.class)),
+        "The plants could not be queried");
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Subscribes to the changes made to the remote plant overview, which are pushed by the
+   * server as they are made, and applied to the kept overview one at a time. The listener
+   * gets a read-only snapshot of the overview after every change, on the thread of the
+   * subscription. The snapshot is taken from the kept overview, so a change to one plant
+   * does not read or write the whole overview as JSON.
+   * If changes were missed, like when this client fell behind or lost its connection, the
+   * overview is fetched again, and the connection is made again until the subscription is
+   * closed.
+   *
+   * @param listener Gets the overview after every change.
+   * @return The subscription, which must be closed when the changes are no longer needed.
+   */
+  public PlantOverviewSubscription subscribe(Consumer<PlantOverview> listener) {
+    PlantOverviewSubscription subscription = new PlantOverviewSubscription();
+    Thread thread = new Thread(() -> {
+      while (!subscription.isClosed()) {
+        try {
+          listen(subscription, listener);
+        } catch (InterruptedException e) {
+          return;
+        } catch (Exception e) {
+          if (!subscription.isClosed()) {
+            System.err.println("Lost the stream of plant changes: " + e);
+          }
+        }
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }, "plant-overview-subscription");
+    thread.setDaemon(true);
+    subscription.start(thread);
+    return subscription;
+  }
+
+  /**
+   * Listens to the stream of changes until it ends. Each event is a group of lines, like
+   * `event: change`, `id: 12` and `data: {...}`, that ends with an empty line.
+   *
+   * @param subscription The subscription.
+   * @param listener Gets the overview after every change.
+   * @throws IOException If the stream could not be opened or read.
+   * @throws InterruptedException If interrupted while waiting for the response.
+   */
+  private void listen(PlantOverviewSubscription subscription, Consumer<PlantOverview> listener)
+      throws IOException, InterruptedException {
+    if (cachedOverview.getVersion() < 0) {
+      listener.accept(getPlantOverview());
+    }
+    HttpRequest httpRequest = HttpRequest
+      .newBuilder(resolveURI("/greenhouse/stream?since=" + cachedOverview.getVersion()))
+      .header(ACCEPT_HEADER, TEXT_EVENT_STREAM)
+      .GET()
+      .build();
+
+    final HttpResponse<Stream<String>> httpResponse = httpClient
+      .send(httpRequest, HttpResponse.BodyHandlers.ofLines());
+
+    try (Stream<String> lines = httpResponse.body()) {
+      if (httpResponse.statusCode() != OK) {
+        throw new IOException("The server answered " + httpResponse.statusCode());
+      }
+      subscription.setLines(lines);
+      String event = null;
+      StringBuilder data = new StringBuilder();
+      for (Iterator<String> it = lines.iterator(); it.hasNext() && !subscription.isClosed();) {
+        String line = it.next();
+        if (line.isEmpty()) {
+          if (event != null) {
+            handleEvent(event, data.toString(), listener);
+          }
+          event = null;
+          data.setLength(0);
+        } else if (line.startsWith("event:")) {
+          event = line.substring("event:".length()).trim();
+        } else if (line.startsWith("data:")) {
+          if (data.length() > 0) {
+            data.append('\n');
+          }
+          data.append(line.substring("data:".length()).trim());
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies an event from the stream of changes to the kept overview, and tells the listener.
+   *
+   * @param event The name of the event.
+   * @param data The data of the event.
+   * @param listener Gets the overview after the change.
+   * @throws IOException If the change could not be read.
+   */
+  private void handleEvent(String event, String data, Consumer<PlantOverview> listener)
+      throws IOException {
+    if (event.equals("change")) {
+      PlantChange change = mapper.readValue(data, PlantChange.class);
+      if (!cachedOverview.apply(change)) {
+        listener.accept(getPlantOverview());
+        return;
+      }
+      listener.accept(cachedOverview.snapshot());
+    } else if (event.equals("resync")) {
+      listener.accept(getPlantOverview());
     }
   }
 
@@ -125,63 +560,112 @@ public class RemotePlantOverviewAccess {
    * @throws IllegalArgumentException If there is an issue with building or sending the HttpRequest.
    */
   public String updatePlant(String name, String phase, String waterInterval, String water, String lastWatered, String creationDate) throws JsonProcessingException {
-    //Plant plant = getPlant(name);
-    
-    String uri = "/greenhouse/put?";
-    if (name == null){
-      throw new IllegalArgumentException("You must enter the plant's name");
-    }
-    uri += "name=" + name;
-    if (phase != null) {
-      if (phase.contains("Grown")) {
-        uri += "&phase=Grown%20plant";
-      }
-      if (phase.contains("Young")) {
-        uri += "&phase=Young%20plant";
-      }
-      if (phase.contains("Seed")) {
-        uri += "&phase=Seed";
-      }
-    }
-    if (waterInterval != null) {
-      uri += "&waterInterval=" + waterInterval;
-    }
-    if (water != null && water.equals("True")) {
-      uri += "&water=True";
-    }
+    return await(updatePlantAsync(name, phase, waterInterval, water, 0));
+  }
 
-    if (lastWatered != null) {
-      uri += "&lastWatered=";
-      String[] subString = creationDate.split(" ");
-      String noSpace = subString[0] + "%20" + subString[1];
-      uri += noSpace;
-    }
-    if (creationDate != null) {
-      uri += "&creationDate=";
-      String[] subString = creationDate.split(" ");
-      String noSpace = subString[0] + "%20" + subString[1];
-      uri += noSpace;
-    }
+  /**
+   * Updates a plant with the remote API, if it has not been changed by someone else since
+   * it was read.
+   *
+   * @param plant         The plant, as it was read.
+   * @param phase         The new phase of the plant.
+   * @param waterInterval The new water interval of the plant.
+   * @param water         The new water status of the plant.
+   * @return The message from the remote API.
+   * @throws JsonProcessingException If there is an issue processing JSON data.
+   * @throws PlantConflictException If the plant has been changed or deleted since it was read.
+   * @throws IllegalArgumentException If there is an issue with building or sending the HttpRequest.
+   */
+  public String updatePlant(Plant plant, String phase, String waterInterval, String water) throws JsonProcessingException {
+    return await(updatePlantAsync(plant, phase, waterInterval, water));
+  }
 
+  /**
+   * Updates plant information with the remote API, without waiting for the answer.
+   *
+   * @param name          The name of the plant to update.
+   * @param phase         The new phase of the plant.
+   * @param waterInterval The new water interval of the plant.
+   * @param water         The new water status of the plant.
+   * @return The message from the remote API, or a future that fails with an
+   *     IllegalArgumentException if there is an issue with building or sending the
+   *     HttpRequest, or if the server answers with an error.
+   */
+  public CompletableFuture<String> updatePlantAsync(String name, String phase,
+      String waterInterval, String water) {
+    return updatePlantAsync(name, phase, waterInterval, water, 0);
+  }
 
-    //String json = mapper.writeValueAsString(plant);
-    try {
-      HttpRequest httpRequest = HttpRequest
-        .newBuilder(resolveURI(uri))
+  /**
+   * Updates a plant with the remote API, if it has not been changed by someone else since
+   * it was read, without waiting for the answer.
+   *
+   * @param plant         The plant, as it was read.
+   * @param phase         The new phase of the plant.
+   * @param waterInterval The new water interval of the plant.
+   * @param water         The new water status of the plant.
+   * @return The message from the remote API, or a future that fails with a
+   *     PlantConflictException if the plant has been changed or deleted since it was read, or
+   *     with an IllegalArgumentException if there is an issue with building or sending the
+   *     HttpRequest, or if the server answers with an error.
+   */
+  public CompletableFuture<String> updatePlantAsync(Plant plant, String phase,
+      String waterInterval, String water) {
+    return updatePlantAsync(plant.getName(), phase, waterInterval, water, plant.getVersion());
+  }
+
+  /**
+   * Updates plant information with the remote API, on the condition that the plant has the
+   * given version, if it is not 0. The changes are sent as a JSON patch, so only the fields
+   * that are given are changed. The dates can't be changed, and are not sent.
+   */
+  private CompletableFuture<String> updatePlantAsync(String name, String phase,
+      String waterInterval, String water, long version) {
+    if (name == null){
+      return CompletableFuture.failedFuture(
+          new IllegalArgumentException("You must enter the plant's name"));
+    }
+    return send(() -> {
+      PlantPatch patch = new PlantPatch(name, phase,
+          waterInterval != null ? Integer.valueOf(waterInterval) : null, "True".equals(water));
+      return conditional(newRequest("/greenhouse/patch")
         .header(CONTENT_TYPE_HEADER, APPLICATION_JSON)
-        .header(ACCEPT_HEADER,APPLICATION_JSON)
-        .PUT(BodyPublishers.noBody())
+        .header(ACCEPT_HEADER,APPLICATION_JSON), version)
+        .method("PATCH", BodyPublishers.ofString(mapper.writeValueAsString(patch)))
         .build();
+    }).handle((httpResponse, e) -> {
+      if (e != null) {
+        throw new IllegalArgumentException(unwrap(e));
+      }
+      checkConflict(httpResponse, name);
+      return checkSuccess(httpResponse, "Could not update " + name + ".").body();
+    });
+  }
 
-      final HttpResponse<String> httpResponse = HttpClient.newBuilder()
-        .build()
-        .send(httpRequest, HttpResponse.BodyHandlers.ofString());
-
-      String response = httpResponse.body();
-      return response;
+  /**
+   * Makes a request conditional on a plant having a version, with an If-Match header.
+   *
+   * @param builder The request.
+   * @param version The version the plant must have, or 0 to make the request unconditional.
+   * @return The request.
+   */
+  private static HttpRequest.Builder conditional(HttpRequest.Builder builder, long version) {
+    if (version > 0) {
+      builder.header(IF_MATCH_HEADER, "\"" + version + "\"");
+    }
+    return builder;
+  }
 
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e);
+  /**
+   * Throws if a conditional request failed because the plant had changed.
+   *
+   * @param httpResponse The response.
+   * @param name The name of the plant.
+   * @throws PlantConflictException If the server answered 412 Precondition Failed.
+   */
+  private static void checkConflict(HttpResponse<String> httpResponse, String name) {
+    if (httpResponse.statusCode() == PRECONDITION_FAILED) {
+      throw new PlantConflictException(name);
     }
   }
 
@@ -191,48 +675,111 @@ public class RemotePlantOverviewAccess {
    * @param name          The name of the new plant.
    * @param phase         The phase of the new plant.
    * @param waterInterval The water interval of the new plant.
-   * @return
    * @return The created Plant object.
    * @throws JsonProcessingException If there is an issue processing JSON data.
-   * @throws IllegalArgumentException If there is an issue with building or sending the HttpRequest.
+   * @throws IllegalArgumentException If the plant is not valid, if there is an issue with
+   *     building or sending the HttpRequest, or if the server does not add the plant.
    */
   public Plant newPlant(String name, String phase, String waterInterval) throws JsonProcessingException {
-    Plant plant = new Plant(name, phase, Integer.parseInt(waterInterval));
-    String json = mapper.writeValueAsString(plant);
-
-    String uri = "/greenhouse/post?";
-    uri += "name=" + name;
-    if (phase.contains("Grown")) {
-      uri += "&phase=Grown%20plant";
-    }
-    if (phase.contains("Young")) {
-      uri += "&phase=Young%20plant";
-    }
-    if (phase.contains("Seed")) {
-      uri += "&phase=Seed";
-    }
-    uri += "&waterInterval=" + waterInterval;
-
+    return await(newPlantAsync(name, phase, waterInterval));
+  }
 
+  /**
+   * Creates a new plant with the remote API, without waiting for the answer.
+   *
+   * @param name          The name of the new plant.
+   * @param phase         The phase of the new plant.
+   * @param waterInterval The water interval of the new plant.
+   * @return The created plant, or a future that fails with an IllegalArgumentException if
+   *     the plant is not valid, if there is an issue with building or sending the
+   *     HttpRequest, or if the server answers with an error, like when there already is a
+   *     plant with the name.
+   */
+  public CompletableFuture<Plant> newPlantAsync(String name, String phase,
+      String waterInterval) {
+    Plant plant;
     try {
-      HttpRequest httpRequest = HttpRequest
-        .newBuilder(resolveURI(uri))
+      plant = new Plant(name, phase, Integer.parseInt(waterInterval));
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return send(() -> newRequest("/greenhouse/post")
         .header(ACCEPT_HEADER,APPLICATION_JSON)
         .header(CONTENT_TYPE_HEADER, APPLICATION_JSON)
-        .POST(BodyPublishers.ofString(json))
-        .build();
+        .POST(BodyPublishers.ofString(mapper.writeValueAsString(plant)))
+        .build())
+      .handle((httpResponse, e) -> {
+        if (e != null) {
+          throw new IllegalArgumentException(unwrap(e));
+        }
+        return read(checkSuccess(httpResponse, "Could not add " + name + ".").body(),
+            Plant.class);
+      });
+  }
+
+  /**
+   * Waters every plant that needs water with the remote API, all at the same time, with one
+   * request.
+   *
+   * @return The watered plants, the plant that needed water the longest first.
+   * @throws IllegalArgumentException If there is an issue with building or sending the
+   *     HttpRequest.
+   */
+  public List<Plant> waterPlantsThatNeedWater() {
+    return await(waterPlantsThatNeedWaterAsync());
+  }
 
-      final HttpResponse<String> httpResponse = HttpClient.newBuilder()
-        .build()
-        .send(httpRequest, HttpResponse.BodyHandlers.ofString());
-      
+  /**
+   * Waters every plant that needs water with the remote API, without waiting for the answer.
+   *
+   * @return The watered plants, the plant that needed water the longest first, or a future
+   *     that fails with an IllegalArgumentException if there is an issue with building or
+   *     sending the HttpRequest.
+   */
+  public CompletableFuture<List<Plant>> waterPlantsThatNeedWaterAsync() {
+    return orFail(send(() -> newRequest("/greenhouse/waterDue")
+        .header(ACCEPT_HEADER, APPLICATION_JSON)
+        .POST(BodyPublishers.noBody())
+        .build())
+      .thenApply(httpResponse -> {
+        try {
+          return mapper.readValue(checkStatus(httpResponse, OK).body(),
+              new TypeReference<List<Plant>>() {});
+        } catch (JsonProcessingException e) {
+          throw new UncheckedIOException(e);
+        }
+      }), "The plants could not be watered");
+  }
 
-      String response = httpResponse.body();
-      return mapper.readValue(response, Plant.class);
-    } catch (Exception e) {
-      e.printStackTrace();
-      return null;
-    }
+  /**
+   * Sends a batch of operations to the remote API, which applies them as a whole or not at
+   * all, with one request instead of one for each plant.
+   *
+   * @param operations The operations, in order.
+   * @return The outcome of every operation, and whether the batch was applied.
+   * @throws IllegalArgumentException If there is an issue with building or sending the
+   *     HttpRequest, or if the server did not accept the batch.
+   */
+  public PlantBatchResult applyBatch(List<PlantOperation> operations) {
+    return await(applyBatchAsync(operations));
+  }
+
+  /**
+   * Sends a batch of operations to the remote API, without waiting for the answer.
+   *
+   * @param operations The operations, in order.
+   * @return The outcome of every operation, and whether the batch was applied, or a future
+   *     that fails with an IllegalArgumentException if there is an issue with building or
+   *     sending the HttpRequest, or if the server did not accept the batch.
+   */
+  public CompletableFuture<PlantBatchResult> applyBatchAsync(List<PlantOperation> operations) {
+    return orFail(send(() -> newRequest("/greenhouse/batch")
+        .header(ACCEPT_HEADER, APPLICATION_JSON)
+        .header(CONTENT_TYPE_HEADER, APPLICATION_JSON)
+        .POST(BodyPublishers.ofString(mapper.writeValueAsString(operations)))
+        .build())
+      .thenApply(httpResponse -> read(checkStatus(httpResponse, OK, CONFLICT).body(),
+          PlantBatchResult.class)), "The batch could not be sent");
   }
 
   /**
@@ -244,26 +791,70 @@ public class RemotePlantOverviewAccess {
    * @throws IllegalArgumentException If there is an issue with building or sending the HttpRequest.
    */
   public boolean deletePlant(String name) throws JsonProcessingException {
+    return await(deletePlantAsync(name, 0));
+  }
+
+  /**
+   * Deletes a plant with the remote API, if it has not been changed by someone else since
+   * it was read.
+   *
+   * @param plant The plant, as it was read.
+   * @return True if the deletion was successful, false otherwise.
+   * @throws JsonProcessingException If there is an issue processing JSON data.
+   * @throws PlantConflictException If the plant has been changed or deleted since it was read.
+   * @throws IllegalArgumentException If there is an issue with building or sending the HttpRequest.
+   */
+  public boolean deletePlant(Plant plant) throws JsonProcessingException {
+    return await(deletePlantAsync(plant));
+  }
+
+  /**
+   * Deletes a plant with the remote API by name, without waiting for the answer.
+   *
+   * @param name The name of the plant to delete.
+   * @return True if the deletion was successful, false otherwise, or a future that fails with
+   *     an IllegalArgumentException if there is an issue with building or sending the
+   *     HttpRequest, or if the server answers with an error.
+   */
+  public CompletableFuture<Boolean> deletePlantAsync(String name) {
+    return deletePlantAsync(name, 0);
+  }
+
+  /**
+   * Deletes a plant with the remote API, if it has not been changed by someone else since
+   * it was read, without waiting for the answer.
+   *
+   * @param plant The plant, as it was read.
+   * @return True if the deletion was successful, false otherwise, or a future that fails with
+   *     a PlantConflictException if the plant has been changed or deleted since it was read,
+   *     or with an IllegalArgumentException if there is an issue with building or sending the
+   *     HttpRequest, or if the server answers with an error.
+   */
+  public CompletableFuture<Boolean> deletePlantAsync(Plant plant) {
+    return deletePlantAsync(plant.getName(), plant.getVersion());
+  }
+
+  /**
+   * Deletes a plant with the remote API by name, on the condition that the plant has the
+   * given version, if it is not 0.
+   */
+  private CompletableFuture<Boolean> deletePlantAsync(String name, long version) {
     String uri = "/greenhouse/delete?";
     uri += "name=" + name;
+    String deleteURI = uri;
 
-    try {
-      HttpRequest httpRequest = HttpRequest
-        .newBuilder(resolveURI(uri))
+    return send(() -> conditional(newRequest(deleteURI)
         .header(ACCEPT_HEADER,APPLICATION_JSON)
-        .header(CONTENT_TYPE_HEADER, APPLICATION_JSON)
+        .header(CONTENT_TYPE_HEADER, APPLICATION_JSON), version)
         .DELETE()
-        .build();
-
-      final HttpResponse<String> httpResponse = HttpClient.newBuilder()
-        .build()
-        .send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        
-      String response = httpResponse.body();
-      return Boolean.parseBoolean(response);
-
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e);
-    }
+        .build())
+      .handle((httpResponse, e) -> {
+        if (e != null) {
+          throw new IllegalArgumentException(unwrap(e));
+        }
+        checkConflict(httpResponse, name);
+        return Boolean.parseBoolean(checkSuccess(httpResponse, "Could not delete " + name + ".")
+            .body());
+      });
   }
-}
\ No newline at end of file
+}
@@ -18,6 +18,8 @@ import javafx.stage.Stage;
 
 /**
  * Controller class for the pop-up window.
+ * The remote calls are made without waiting for the server, and the buttons are disabled
+ * until their results have been shown on the JavaFX application thread.
  */
 public class RemotePopUpController {
   @FXML private ChoiceBox<String> phaseOptions;
@@ -32,6 +34,10 @@ public class RemotePopUpController {
 
   @FXML private Button waterPlant;
 
+  @FXML private Button editPlant;
+
+  @FXML private Button deletePlant;
+
   private RemoteAppController remoteAppController;
 
   private Plant selectedPlant;
@@ -55,17 +61,36 @@ public class RemotePopUpController {
    * Initializes the scene by updating the plant name label, plant description,
    * and plant overview.
    * This method should be called to display the selected plant's information
-   * in the user interface.
+   * in the user interface. The plant is shown as it is on the server, when it has arrived,
+   * and it can't be changed until then.
    */
   public void initializeScene() {
     plantNameLabel.setText(selectedPlant.getName());
-    plantOverview = remotePlantOverviewAccess.getPlantOverview();
-   
-    selectedPlant = plantOverview.getPlantByName(plantNameLabel.getText());
-   
-    plantMood.setText(selectedPlant.needsWater() ? "Thirsty:(" : "Hydrated:)");
-    plantDescription.setText(selectedPlant.toString());
     waterPlant.setText("Water " + selectedPlant.getName());
+    setBusy(true);
+    RemoteAppController.whenDone(remotePlantOverviewAccess.getPlantOverviewAsync(), overview -> {
+      plantOverview = overview;
+      Plant plant = plantOverview.getPlantByName(plantNameLabel.getText());
+      if (plant == null) {
+        showConflict(new PlantConflictException(plantNameLabel.getText()));
+        return;
+      }
+      selectedPlant = plant;
+      plantMood.setText(selectedPlant.needsWater() ? "Thirsty:(" : "Hydrated:)");
+      plantDescription.setText(selectedPlant.toString());
+      setBusy(false);
+    }, this::showFailure);
+  }
+
+  /**
+   * Disables the buttons while a remote call is made, so the plant is not changed twice.
+   *
+   * @param busy True while waiting for the server, false otherwise.
+   */
+  private void setBusy(boolean busy) {
+    waterPlant.setDisable(busy);
+    editPlant.setDisable(busy);
+    deletePlant.setDisable(busy);
   }
   
   /**
@@ -93,14 +118,26 @@ public class RemotePopUpController {
    * based on user input. Retrieves the selected growth phase and water interval
    * values from UI elements and calls the editPlant method in the PlantOverview
    * class to edit the plant's details. Displays an alert message to provide
-   * feedback to the user based on the outcome of the edit operation.
+   * feedback to the user based on the outcome of the edit operation. The edit only
+   * succeeds if no one else has changed the plant since it was shown.
    */
   public void editPlant() throws JsonProcessingException {
     String newPhaseString = phaseOptions.getValue();
     String newWaterInterval = numberOfDays.getValue();
 
-    String message =
-        remotePlantOverviewAccess.updatePlant(selectedPlant.getName(), newPhaseString, newWaterInterval, "empty", "empty", "empty");
+    setBusy(true);
+    RemoteAppController.whenDone(remotePlantOverviewAccess.updatePlantAsync(
+        selectedPlant, newPhaseString, newWaterInterval, null),
+        this::showEdited, this::showFailure);
+  }
+
+  /**
+   * Shows the message from the remote API after an edit, closes the pop-up and shows the
+   * plants as they are now.
+   *
+   * @param message The message from the remote API.
+   */
+  private void showEdited(String message) {
     String[] types = message.split("[:,\n]");
     Alert a1 = new Alert(null, message);
     if (types.length > 2 && ((types[0].equals("Success") && types[2].equals("Error"))
@@ -125,13 +162,15 @@ public class RemotePopUpController {
    * method to save changes made to the plantoverview.
    */
   public void deletePlant() throws JsonProcessingException {
-    remotePlantOverviewAccess.deletePlant(selectedPlant.getName());
-    
-    currentStage.close();
-    Alert a1 = new Alert(AlertType.INFORMATION, "Successfully deleted the plant");
-    a1.show();
-   
-    remoteAppController.filteredOverview();
+    setBusy(true);
+    RemoteAppController.whenDone(remotePlantOverviewAccess.deletePlantAsync(selectedPlant),
+        deleted -> {
+          currentStage.close();
+          Alert a1 = new Alert(AlertType.INFORMATION, "Successfully deleted the plant");
+          a1.show();
+
+          remoteAppController.filteredOverview();
+        }, this::showFailure);
   }
 
   /**
@@ -146,25 +185,67 @@ public class RemotePopUpController {
    */
   public void waterPlant() throws JsonProcessingException {
     if (selectedPlant.needsWater()) {
-      remotePlantOverviewAccess.updatePlant(selectedPlant.getName(), null, null, "True", "empty", "empty");
-      Alert a1 = new Alert(AlertType.INFORMATION, selectedPlant.getName() + " has been watered:)");
-      a1.show();
-      currentStage.close();
+      waterSelectedPlant(new Alert(AlertType.INFORMATION,
+          selectedPlant.getName() + " has been watered:)"));
     } else {
       Alert a1 = new Alert(AlertType.WARNING, selectedPlant.getName()   
           + " does not need water. \nDo you still wanna water the plant?",
               ButtonType.NO, ButtonType.YES);
       a1.showAndWait();
       if (a1.getResult().getText().equals("Yes")) {
-        remotePlantOverviewAccess.updatePlant(selectedPlant.getName(), null, null, "True", "empty", "empty");
-        Alert a2 = new Alert(AlertType.WARNING, selectedPlant.getName() 
-            + " has been watered, but did not need it.\nTry watering this plant less frequently.");
-        a2.show();
-        currentStage.close();
+        waterSelectedPlant(new Alert(AlertType.WARNING, selectedPlant.getName() 
+            + " has been watered, but did not need it.\nTry watering this plant less frequently."));
+      } else {
+        remoteAppController.filteredOverview();
       }
     }
+  }
+
+  /**
+   * Waters the currently selected plant, and when it has been watered, shows an alert,
+   * closes the pop-up and shows the plants as they are now.
+   *
+   * @param watered The alert to show when the plant has been watered.
+   */
+  private void waterSelectedPlant(Alert watered) {
+    setBusy(true);
+    RemoteAppController.whenDone(
+        remotePlantOverviewAccess.updatePlantAsync(selectedPlant, null, null, "True"),
+        message -> {
+          watered.show();
+          currentStage.close();
+          remoteAppController.filteredOverview();
+        }, this::showFailure);
+  }
+
+  /**
+   * Tells the user that a remote call failed. If someone else changed the plant, the pop-up
+   * is closed, otherwise the plant can be changed again.
+   *
+   * @param e The exception the call failed with.
+   */
+  private void showFailure(Throwable e) {
+    if (e instanceof PlantConflictException) {
+      showConflict((PlantConflictException) e);
+      return;
+    }
+    setBusy(false);
+    Alert a1 = new Alert(AlertType.ERROR, e.getMessage());
+    a1.show();
+  }
+
+  /**
+   * Tells the user that someone else changed the plant, closes the pop-up and shows the
+   * plants as they are now.
+   *
+   * @param e The conflict.
+   */
+  private void showConflict(PlantConflictException e) {
+    currentStage.close();
+    Alert a1 = new Alert(AlertType.ERROR, e.getMessage());
+    a1.show();
     remoteAppController.filteredOverview();
-  } 
+  }
 
   /**
    * Sets the AppController instance for this class.
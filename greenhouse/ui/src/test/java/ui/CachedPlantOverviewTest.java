@@ -0,0 +1,81 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import core.Plant;
+import core.PlantChange;
+import core.PlantOverview;
+import core.PlantOverviewDelta;
+import json.GreenhouseModule;
+
+/**
+ * Test class for the CachedPlantOverview, the local copy of the remote plant overview.
+ */
+public class CachedPlantOverviewTest {
+
+  private static Plant plant(String name, String phase, long version) {
+    Plant plant = new Plant(name, phase, 3);
+    plant.setVersion(version);
+    return plant;
+  }
+
+  /**
+   * Tests that deltas and pushed changes are applied in order, and that missed changes are
+   * noticed.
+   */
+  @Test
+  public void testApply() throws JsonProcessingException {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+    CachedPlantOverview cache = new CachedPlantOverview(mapper);
+    assertNull(cache.copy());
+    assertNull(cache.snapshot());
+    assertFalse(cache.apply(PlantChange.add(plant("Julie", "Seed", 1))));
+
+    PlantOverview overview = new PlantOverview();
+    overview.addPlant(plant("Julie", "Seed", 1));
+    overview.setVersion(1);
+    cache.replace("\"1\"", mapper.writeValueAsString(overview), 1);
+
+    assertTrue(cache.apply(new PlantOverviewDelta(1, 2,
+        List.of(PlantChange.add(plant("Jenny", "Seed", 2))))));
+    assertTrue(cache.apply(PlantChange.edit(plant("Julie", "Young plant", 3))));
+    assertTrue(cache.apply(PlantChange.edit(plant("Julie", "Seed", 2))));
+    assertFalse(cache.apply(PlantChange.delete("Jenny", 5)));
+    assertTrue(cache.apply(PlantChange.delete("Jenny", 4)));
+    assertFalse(cache.apply(new PlantOverviewDelta(2, 4, List.of())));
+
+    PlantOverview copy = cache.copy();
+    assertNotSame(copy, cache.copy());
+    assertEquals(4, cache.getVersion());
+    assertEquals("\"4\"", cache.getTag());
+    assertEquals(4, copy.getVersion());
+    assertEquals(1, copy.getPlantOverview().size());
+    assertEquals("Young plant", copy.getPlantByName("Julie").getPhase());
+    assertEquals(3, copy.getPlantByName("Julie").getVersion());
+    copy.editPlant("Julie", "Grown plant", null);
+    assertEquals("Young plant", cache.copy().getPlantByName("Julie").getPhase());
+
+    PlantOverview snapshot = cache.snapshot();
+    assertTrue(snapshot.isReadOnly());
+    assertSame(snapshot, cache.snapshot());
+    assertEquals(4, snapshot.getVersion());
+    assertEquals("Young plant", snapshot.getPlantByName("Julie").getPhase());
+    assertTrue(cache.apply(PlantChange.delete("Julie", 5)));
+    assertNotSame(snapshot, cache.snapshot());
+    assertEquals(1, snapshot.getPlantOverview().size());
+    assertTrue(cache.snapshot().getPlantOverview().isEmpty());
+  }
+}
@@ -0,0 +1,162 @@
+package ui;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.Plant;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import json.GreenhouseModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of getting a plant from a local stand-in for the REST server, either with the
+ * HttpClient that a RemotePlantOverviewAccess keeps, or with a new HttpClient for every
+ * request, like the access did before. A new client opens a new connection and starts a new
+ * selector thread for every request, which lives until the client is collected, so the number
+ * of live threads is printed after every iteration.
+ * Run it with `mvn test-compile exec:exec -Pbenchmark -Dbenchmark=RemotePlantOverviewAccessBenchmark`
+ * from the ui module, after installing the core module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@Threads(4)
+public class RemotePlantOverviewAccessBenchmark {
+
+  private ServerSocket server;
+  private ExecutorService executor;
+  private URI endpoint;
+  private RemotePlantOverviewAccess access;
+  private ObjectMapper mapper;
+  private byte[] response;
+
+  /**
+   * Starts the stand-in server, which answers every request with the same plant, and keeps
+   * its connections alive.
+   *
+   * @throws IOException if the server could not be started or the plant could not be written
+   */
+  @Setup
+  public void setUp() throws IOException {
+    mapper = new ObjectMapper();
+    mapper.registerModule(new GreenhouseModule());
+    byte[] plant = mapper.writeValueAsString(new Plant("Basil", "Seed", 3))
+        .getBytes(StandardCharsets.UTF_8);
+    byte[] head = ("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: "
+        + plant.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    response = new byte[head.length + plant.length];
+    System.arraycopy(head, 0, response, 0, head.length);
+    System.arraycopy(plant, 0, response, head.length, plant.length);
+    server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+    executor = Executors.newCachedThreadPool();
+    executor.execute(() -> {
+      while (!server.isClosed()) {
+        try {
+          Socket socket = server.accept();
+          executor.execute(() -> serve(socket));
+        } catch (IOException e) {
+          return;
+        }
+      }
+    });
+    endpoint = URI.create("http://localhost:" + server.getLocalPort());
+    access = new RemotePlantOverviewAccess(endpoint);
+  }
+
+  /**
+   * Answers the requests on a connection until the client closes it. The requests are GETs,
+   * so they end with an empty line.
+   *
+   * @param socket the connection
+   */
+  private void serve(Socket socket) {
+    try (socket; BufferedReader in = new BufferedReader(
+        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+      OutputStream out = socket.getOutputStream();
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.isEmpty()) {
+          out.write(response);
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      // The client closed the connection
+    }
+  }
+
+  /**
+   * Stops the stand-in server.
+   *
+   * @throws IOException if the server could not be stopped
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    server.close();
+    executor.shutdownNow();
+  }
+
+  /**
+   * Prints the number of live threads at the end of the iteration.
+   */
+  @TearDown(Level.Iteration)
+  public void printThreads() {
+    System.out.println("Live threads: " + Thread.getAllStackTraces().size());
+  }
+
+  /**
+   * Gets a plant with the client of the access, which reuses its connections.
+   *
+   * @return the plant
+   */
+  @Benchmark
+  public Plant sharedClient() {
+    return access.getPlant("Basil");
+  }
+
+  /**
+   * Gets a plant with a new client, which opens a new connection.
+   *
+   * @return the plant
+   * @throws Exception if the plant could not be fetched or read
+   */
+  @Benchmark
+  public Plant newClientPerRequest() throws Exception {
+    HttpRequest httpRequest = HttpRequest
+        .newBuilder(endpoint.resolve("/greenhouse/get?name=Basil"))
+        .header("Accept", "application/json")
+        .GET()
+        .build();
+    HttpResponse<String> httpResponse = HttpClient.newBuilder()
+        .build()
+        .send(httpRequest, HttpResponse.BodyHandlers.ofString());
+    return mapper.readValue(httpResponse.body(), Plant.class);
+  }
+}